@@ -17,8 +17,9 @@ import org.springframework.core.io.Resource;
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Configuration
 public class FirebaseConfig {
@@ -70,55 +71,44 @@ public class FirebaseConfig {
     /**
      * Tests Firebase Realtime Database connection by attempting to read the root node.
      * This helps catch configuration issues early at startup.
+     * The result is only logged: startup does not wait for it, mirrors can serve a local snapshot meanwhile.
      */
     private void testConnection() {
         logger.info("Testing Firebase connection...");
 
-        CountDownLatch latch = new CountDownLatch(1);
-        final boolean[] success = {false};
-        final String[] errorMessage = {null};
-
-        try {
-            FirebaseDatabase.getInstance()
-                .getReference(".info/connected")
-                .addListenerForSingleValueEvent(new ValueEventListener() {
-                    @Override
-                    public void onDataChange(DataSnapshot snapshot) {
-                        Boolean connected = snapshot.getValue(Boolean.class);
-                        if (Boolean.TRUE.equals(connected)) {
-                            logger.info("Firebase connection test PASSED - Database is reachable!");
-                            success[0] = true;
-                        } else {
-                            logger.warn("Firebase connection test: Database not yet connected (this may be normal on startup)");
-                            success[0] = true; // Still consider it a success - connection is being established
-                        }
-                        latch.countDown();
-                    }
-
-                    @Override
-                    public void onCancelled(DatabaseError error) {
-                        errorMessage[0] = error.getMessage();
-                        logger.error("Firebase connection test FAILED: {}", error.getMessage());
-                        latch.countDown();
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        FirebaseDatabase.getInstance()
+            .getReference(".info/connected")
+            .addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(DataSnapshot snapshot) {
+                    Boolean connected = snapshot.getValue(Boolean.class);
+                    if (Boolean.TRUE.equals(connected)) {
+                        logger.info("Firebase connection test PASSED - Database is reachable!");
+                    } else {
+                        // Still consider it a success - connection is being established
+                        logger.warn("Firebase connection test: Database not yet connected (this may be normal on startup)");
                     }
-                });
+                    result.complete(null);
+                }
 
-            // Wait up to 10 seconds for connection test
-            boolean completed = latch.await(10, TimeUnit.SECONDS);
+                @Override
+                public void onCancelled(DatabaseError error) {
+                    result.completeExceptionally(new RuntimeException(error.getMessage()));
+                }
+            });
 
-            if (!completed) {
+        // Report a timeout after 10 seconds without blocking startup
+        result.orTimeout(10, TimeUnit.SECONDS).whenComplete((v, ex) -> {
+            if (ex instanceof TimeoutException) {
                 logger.error("Firebase connection test TIMED OUT after 10 seconds!");
                 logger.error("   Possible causes:");
                 logger.error("   1. Incorrect database URL: {}", databaseUrl);
                 logger.error("   2. Network/firewall blocking connection");
                 logger.error("   3. Service account doesn't have database access");
-            } else if (errorMessage[0] != null) {
-                logger.error("Firebase error: {}", errorMessage[0]);
+            } else if (ex != null) {
+                logger.error("Firebase connection test FAILED: {}", ex.getMessage());
             }
-
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            logger.error("Firebase connection test interrupted", e);
-        }
+        });
     }
 }
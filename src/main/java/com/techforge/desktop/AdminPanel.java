@@ -16,6 +16,8 @@ import com.google.gson.*;
  */
 public class AdminPanel extends JPanel {
 
+    private static final int TRANSACTION_PAGE_SIZE = 200;
+
     private final ApiClient apiClient;
     private JTable payrollTable;
     private DefaultTableModel tableModel;
@@ -173,9 +175,9 @@ public class AdminPanel extends JPanel {
             @Override
             protected Void doInBackground() throws Exception {
                 try {
-                    // Try to load from API first
-                    String response = apiClient.get("/finance/transactions");
-                    JsonArray transactions = JsonParser.parseString(response).getAsJsonArray();
+                    // Try to load from API first (most recent page only)
+                    String response = apiClient.get("/finance/transactions?limit=" + TRANSACTION_PAGE_SIZE);
+                    JsonArray transactions = JsonParser.parseString(response).getAsJsonObject().getAsJsonArray("items");
 
                     SwingUtilities.invokeLater(() -> {
                         transactionModel.setRowCount(0);
@@ -563,13 +565,13 @@ public class AdminPanel extends JPanel {
                 @Override
                 protected Void doInBackground() {
                     // Note: The actual Firebase reload happens in the API call
-                    // The backend's /finance/payroll endpoint calls forceReloadUsers()
+                    // The backend's /finance/payroll endpoint reads the live user snapshot
                     return null;
                 }
 
                 @Override
                 protected void done() {
-                    // Step 3: Load payroll (this triggers the API which forces user reload)
+                    // Step 3: Load payroll (the API always sees current user rates)
                     loadPayroll();
 
                     // Step 4: Reset button state
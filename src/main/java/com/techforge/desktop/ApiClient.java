@@ -3,8 +3,12 @@ package com.techforge.desktop;
 import okhttp3.*;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * HTTP Client for communicating with the TechForge Backend API.
@@ -23,6 +27,26 @@ public class ApiClient {
     private static String currentUserRole;
     private static JsonObject currentUser;
 
+    // Last ETag and body per GET url (and user), shared by all ApiClient instances.
+    // Sent back as If-None-Match, so an unchanged list costs a 304 instead of the full JSON.
+    private static final int MAX_CACHED_RESPONSES = 200;
+    private static final Map<String, CachedResponse> validators = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > MAX_CACHED_RESPONSES;
+        }
+    };
+
+    private static final class CachedResponse {
+        final String etag;
+        final String body;
+
+        CachedResponse(String etag, String body) {
+            this.etag = etag;
+            this.body = body;
+        }
+    }
+
     public ApiClient() {
         this.client = new OkHttpClient.Builder()
                 .connectTimeout(10, TimeUnit.SECONDS)
@@ -81,20 +105,76 @@ public class ApiClient {
             requestBuilder.addHeader("X-Requester-ID", currentUserId);
         }
 
+        // Conditional GET: send the validator of the copy we already have
+        String cacheKey = currentUserId + " " + endpoint;
+        CachedResponse cached;
+        synchronized (validators) {
+            cached = validators.get(cacheKey);
+        }
+        if (cached != null) {
+            requestBuilder.addHeader("If-None-Match", cached.etag);
+        }
+
         Request request = requestBuilder.build();
 
         System.out.println("[ApiClient] GET " + request.url() + " X-Requester-ID=" + (currentUserId != null ? currentUserId : "(none)"));
 
         try (Response response = client.newCall(request).execute()) {
+            if (response.code() == 304 && cached != null) {
+                System.out.println("[ApiClient] Response code=304 (not modified, using cached body)");
+                return cached.body;
+            }
             String respBody = response.body() != null ? response.body().string() : "";
             System.out.println("[ApiClient] Response code=" + response.code() + " body=" + (respBody.length() > 200 ? respBody.substring(0, 200) + "..." : respBody));
             if (!response.isSuccessful()) {
                 throw new IOException("API Error: " + response.code() + " - " + respBody);
             }
+            String etag = response.header("ETag");
+            synchronized (validators) {
+                if (etag != null) validators.put(cacheKey, new CachedResponse(etag, respBody));
+                else validators.remove(cacheKey);
+            }
             return respBody;
         }
     }
 
+    /**
+     * Perform a GET request and hand each line of the response to lineHandler as it arrives,
+     * without holding the whole body in memory (streamed exports).
+     * @param endpoint API endpoint (e.g., "/reports/export?...")
+     * @param lineHandler called once per line, in order
+     * @throws IOException if request fails
+     */
+    public void getLines(String endpoint, Consumer<String> lineHandler) throws IOException {
+        Request.Builder requestBuilder = new Request.Builder()
+                .url(BASE_URL + endpoint)
+                .get();
+
+        // Add auth header if user is logged in
+        if (currentUserId != null) {
+            requestBuilder.addHeader("X-Requester-ID", currentUserId);
+        }
+
+        Request request = requestBuilder.build();
+
+        System.out.println("[ApiClient] GET (stream) " + request.url());
+
+        try (Response response = client.newCall(request).execute()) {
+            ResponseBody responseBody = response.body();
+            System.out.println("[ApiClient] Response code=" + response.code());
+            if (!response.isSuccessful()) {
+                throw new IOException("API Error: " + response.code() + " - " + (responseBody != null ? responseBody.string() : ""));
+            }
+            if (responseBody == null) return;
+            try (BufferedReader reader = new BufferedReader(responseBody.charStream())) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineHandler.accept(line);
+                }
+            }
+        }
+    }
+
     /**
      * Perform a PUT request to the API.
      * @param endpoint API endpoint (e.g., "/auth/profile")
@@ -128,6 +208,39 @@ public class ApiClient {
         }
     }
 
+    /**
+     * Perform a PATCH request to the API (partial update, only the given fields are written).
+     * @param endpoint API endpoint (e.g., "/tasks/123")
+     * @param jsonBody JSON string body with the changed fields
+     * @return Response body as String
+     * @throws IOException if request fails
+     */
+    public String patch(String endpoint, String jsonBody) throws IOException {
+        RequestBody body = RequestBody.create(jsonBody, JSON);
+
+        Request.Builder requestBuilder = new Request.Builder()
+                .url(BASE_URL + endpoint)
+                .patch(body);
+
+        // Add auth header if user is logged in
+        if (currentUserId != null) {
+            requestBuilder.addHeader("X-Requester-ID", currentUserId);
+        }
+
+        Request request = requestBuilder.build();
+
+        System.out.println("[ApiClient] PATCH " + request.url());
+
+        try (Response response = client.newCall(request).execute()) {
+            String respBody = response.body() != null ? response.body().string() : "";
+            System.out.println("[ApiClient] Response code=" + response.code() + " body=" + (respBody.length() > 200 ? respBody.substring(0, 200) + "..." : respBody));
+            if (!response.isSuccessful()) {
+                throw new IOException("API Error: " + response.code() + " - " + respBody);
+            }
+            return respBody;
+        }
+    }
+
     /**
      * Perform a DELETE request to the API.
      * @param endpoint API endpoint (e.g., "/tasks/123")
@@ -188,6 +301,10 @@ public class ApiClient {
         currentUserId = null;
         currentUserRole = null;
         currentUser = null;
+        synchronized (validators) {
+            validators.clear();
+        }
+        DataRepository.getInstance().clear();
     }
 
     // Session getters
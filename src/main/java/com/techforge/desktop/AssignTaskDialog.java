@@ -19,7 +19,6 @@ import java.util.Random;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 
 /**
  * AssignTaskDialog - AI Scouter Assignment dialog with Status and EstimatedHours.
@@ -78,8 +77,7 @@ public class AssignTaskDialog extends JDialog {
             @Override
             protected Void doInBackground() throws Exception {
                 try {
-                    String response = apiClient.get("/users");
-                    JsonArray users = JsonParser.parseString(response).getAsJsonArray();
+                    JsonArray users = DataRepository.getInstance().getUsers();
 
                     SwingUtilities.invokeLater(() -> {
                         assigneeModel.removeAllElements();
@@ -495,8 +493,7 @@ public class AssignTaskDialog extends JDialog {
             protected List<EmployeeInfo> doInBackground() {
                 List<EmployeeInfo> employees = new ArrayList<>();
                 try {
-                    String response = apiClient.get("/users");
-                    JsonArray users = JsonParser.parseString(response).getAsJsonArray();
+                    JsonArray users = DataRepository.getInstance().getUsers();
 
                     for (JsonElement elem : users) {
                         JsonObject user = elem.getAsJsonObject();
@@ -791,6 +788,7 @@ public class AssignTaskDialog extends JDialog {
 
                 System.out.println("Creating task: " + task);
                 apiClient.post("/tasks", task.toString());
+                DataRepository.getInstance().invalidate(DataRepository.Collection.TASKS);
                 return null;
             }
 
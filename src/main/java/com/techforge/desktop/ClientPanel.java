@@ -263,74 +263,35 @@ public class ClientPanel extends JPanel {
         chartsContainer.revalidate();
         chartsContainer.repaint();
 
-        // Load data using ReportService endpoints (ProjectReport and ProgressReport)
+        // Load data from the ReportService portfolio endpoint
         SwingWorker<Void, Void> worker = new SwingWorker<>() {
             @Override
             protected Void doInBackground() throws Exception {
                 try {
-                    // First, get list of projects
-                    String projectsResponse = apiClient.get("/projects");
-                    JsonArray projects = JsonParser.parseString(projectsResponse).getAsJsonArray();
+                    // All project reports and their totals in one request
+                    String portfolioResponse = apiClient.get("/reports/portfolio");
+                    JsonObject portfolio = JsonParser.parseString(portfolioResponse).getAsJsonObject();
 
-                    // Reset counters
-                    totalTasks = 0;
-                    doneTasks = 0;
+                    totalTasks = portfolio.has("totalTasks") ? portfolio.get("totalTasks").getAsInt() : 0;
+                    doneTasks = portfolio.has("completedTasks") ? portfolio.get("completedTasks").getAsInt() : 0;
+                    totalBudget = portfolio.has("totalBudget") ? portfolio.get("totalBudget").getAsDouble() : 0;
+                    usedBudget = portfolio.has("budgetUsed") ? portfolio.get("budgetUsed").getAsDouble() : 0;
+
+                    // Calculate "doing" tasks from taskBreakdown
                     doingTasks = 0;
-                    totalBudget = 0;
-                    usedBudget = 0;
-
-                    // For each project, fetch ProjectReport from ReportService
-                    for (JsonElement elem : projects) {
-                        JsonObject proj = elem.getAsJsonObject();
-                        String projectId = proj.has("id") && !proj.get("id").isJsonNull()
-                            ? proj.get("id").getAsString() : null;
-
-                        if (projectId != null) {
-                            try {
-                                // Call ReportService.generateProjectReport via API
-                                String reportResponse = apiClient.get("/reports/project/" + projectId);
-                                JsonObject report = JsonParser.parseString(reportResponse).getAsJsonObject();
-
-                                // Extract data from ProjectReport
-                                if (report.has("totalTasks")) {
-                                    totalTasks += report.get("totalTasks").getAsInt();
-                                }
-                                if (report.has("completedTasks")) {
-                                    doneTasks += report.get("completedTasks").getAsInt();
-                                }
-                                if (report.has("budgetUsed")) {
-                                    usedBudget += report.get("budgetUsed").getAsDouble();
-                                }
-
-                                // Get budget from original project
-                                if (proj.has("budget") && !proj.get("budget").isJsonNull()) {
-                                    totalBudget += proj.get("budget").getAsDouble();
-                                }
-
-                                // Calculate "doing" tasks from taskBreakdown
-                                if (report.has("taskBreakdown")) {
-                                    JsonArray breakdown = report.get("taskBreakdown").getAsJsonArray();
-                                    for (JsonElement bd : breakdown) {
-                                        JsonObject item = bd.getAsJsonObject();
-                                        String status = item.has("status") ? item.get("status").getAsString() : "";
-                                        int count = item.has("count") ? item.get("count").getAsInt() : 0;
-                                        if ("DOING".equalsIgnoreCase(status) || "IN_PROGRESS".equalsIgnoreCase(status)) {
-                                            doingTasks += count;
-                                        }
-                                    }
-                                }
-
-                            } catch (Exception e) {
-                                // If individual report fails, use project data directly
-                                System.out.println("Could not fetch report for project " + projectId + ", using fallback");
-                                if (proj.has("budget") && !proj.get("budget").isJsonNull()) {
-                                    totalBudget += proj.get("budget").getAsDouble();
-                                }
+                    if (portfolio.has("taskBreakdown")) {
+                        JsonArray breakdown = portfolio.get("taskBreakdown").getAsJsonArray();
+                        for (JsonElement bd : breakdown) {
+                            JsonObject item = bd.getAsJsonObject();
+                            String status = item.has("status") ? item.get("status").getAsString() : "";
+                            int count = item.has("count") ? item.get("count").getAsInt() : 0;
+                            if ("DOING".equalsIgnoreCase(status) || "IN_PROGRESS".equalsIgnoreCase(status)) {
+                                doingTasks += count;
                             }
                         }
                     }
 
-                    // If ReportService failed for all projects, fall back to raw task query
+                    // No tasks in the portfolio, fall back to raw task query
                     if (totalTasks == 0) {
                         loadDataFallback();
                     }
@@ -371,8 +332,7 @@ public class ClientPanel extends JPanel {
     private void loadDataFallback() {
         try {
             // Fetch tasks for progress chart
-            String tasksResponse = apiClient.get("/tasks");
-            JsonArray tasks = JsonParser.parseString(tasksResponse).getAsJsonArray();
+            JsonArray tasks = DataRepository.getInstance().getTasks();
 
             totalTasks = tasks.size();
             doneTasks = 0;
@@ -390,8 +350,7 @@ public class ClientPanel extends JPanel {
             }
 
             // Fetch projects for budget chart
-            String projectsResponse = apiClient.get("/projects");
-            JsonArray projects = JsonParser.parseString(projectsResponse).getAsJsonArray();
+            JsonArray projects = DataRepository.getInstance().getProjects();
 
             totalBudget = 0;
             usedBudget = 0;
@@ -436,8 +395,7 @@ public class ClientPanel extends JPanel {
         try {
             // Pre-fetch users and tasks for name mapping
             try {
-                String usersResponse = apiClient.get("/users");
-                JsonArray users = JsonParser.parseString(usersResponse).getAsJsonArray();
+                JsonArray users = DataRepository.getInstance().getUsers();
                 for (JsonElement userElem : users) {
                     JsonObject user = userElem.getAsJsonObject();
                     String id = user.has("id") ? user.get("id").getAsString() : "";
@@ -452,8 +410,7 @@ public class ClientPanel extends JPanel {
             }
 
             try {
-                String tasksResponse = apiClient.get("/tasks");
-                JsonArray tasks = JsonParser.parseString(tasksResponse).getAsJsonArray();
+                JsonArray tasks = DataRepository.getInstance().getTasks();
                 for (JsonElement taskElem : tasks) {
                     JsonObject task = taskElem.getAsJsonObject();
                     String id = task.has("id") ? task.get("id").getAsString() : "";
@@ -547,8 +504,7 @@ public class ClientPanel extends JPanel {
             // ============================================
             if (activities.isEmpty()) {
                 try {
-                    String tasksResponse = apiClient.get("/tasks");
-                    JsonArray tasks = JsonParser.parseString(tasksResponse).getAsJsonArray();
+                    JsonArray tasks = DataRepository.getInstance().getTasks();
 
                     for (int i = Math.max(0, tasks.size() - 5); i < tasks.size(); i++) {
                         JsonObject task = tasks.get(i).getAsJsonObject();
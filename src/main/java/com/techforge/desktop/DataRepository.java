@@ -0,0 +1,199 @@
+package com.techforge.desktop;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shared client-side copies of the users, projects and tasks collections.
+ *
+ * Panels and dialogs read these collections from here instead of calling apiClient.get themselves:
+ * a collection is downloaded once and served from memory for {@value #FRESH_MILLIS} ms, and concurrent
+ * loads of the same collection share one request. Reloading after that is usually a 304 (see ApiClient).
+ *
+ * After a write, call {@link #invalidate} so the next read reloads. Listeners are told (on the EDT)
+ * when a collection was invalidated or a reload brought different content.
+ *
+ * Returned arrays are shared between all readers: do not modify them.
+ */
+public final class DataRepository {
+
+    public enum Collection {
+        USERS("/users"),
+        PROJECTS("/projects"),
+        TASKS("/tasks");
+
+        private final String endpoint;
+
+        Collection(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+
+    private static final long FRESH_MILLIS = 30_000;
+
+    private static final DataRepository INSTANCE = new DataRepository(new ApiClient());
+
+    private final ApiClient apiClient;
+    private final Map<Collection, Entry> entries = new EnumMap<>(Collection.class);
+    private final ExecutorService loader = Executors.newFixedThreadPool(Collection.values().length, r -> {
+        Thread t = new Thread(r, "data-repository");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final class Entry {
+        JsonArray data;
+        String raw;
+        long loadedAt;
+        CompletableFuture<JsonArray> inFlight;
+        // bumped by invalidate/clear, so a load started before is not kept
+        long generation;
+        final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    }
+
+    private DataRepository(ApiClient apiClient) {
+        this.apiClient = apiClient;
+        for (Collection c : Collection.values()) {
+            entries.put(c, new Entry());
+        }
+    }
+
+    public static DataRepository getInstance() {
+        return INSTANCE;
+    }
+
+    // Blocking reads, for SwingWorker.doInBackground (never call these on the EDT)
+
+    public JsonArray getUsers() throws IOException {
+        return get(Collection.USERS);
+    }
+
+    public JsonArray getProjects() throws IOException {
+        return get(Collection.PROJECTS);
+    }
+
+    public JsonArray getTasks() throws IOException {
+        return get(Collection.TASKS);
+    }
+
+    public JsonArray get(Collection collection) throws IOException {
+        try {
+            return load(collection).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) throw ((UncheckedIOException) cause).getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * The collection, from memory while fresh; otherwise the load already in flight or a new one.
+     */
+    public CompletableFuture<JsonArray> load(Collection collection) {
+        Entry e = entries.get(collection);
+        synchronized (e) {
+            if (e.data != null && System.currentTimeMillis() - e.loadedAt < FRESH_MILLIS) {
+                return CompletableFuture.completedFuture(e.data);
+            }
+            if (e.inFlight != null) return e.inFlight;
+
+            long generation = e.generation;
+            CompletableFuture<JsonArray> f = CompletableFuture
+                    .supplyAsync(() -> fetch(collection), loader)
+                    .thenApply(raw -> store(e, generation, raw));
+            e.inFlight = f;
+            f.whenComplete((data, ex) -> {
+                synchronized (e) {
+                    if (e.inFlight == f) e.inFlight = null;
+                }
+            });
+            return f;
+        }
+    }
+
+    /**
+     * Mark collections as stale after a write, and tell their listeners.
+     */
+    public void invalidate(Collection... collections) {
+        for (Collection c : collections) {
+            Entry e = entries.get(c);
+            synchronized (e) {
+                e.generation++;
+                // listeners are told now; the reload they trigger does not notify again
+                e.data = null;
+                e.raw = null;
+                e.inFlight = null;
+            }
+            notifyListeners(e);
+        }
+    }
+
+    /**
+     * Run listener on the EDT whenever the collection changes. Listeners should re-read the collection.
+     */
+    public void addListener(Collection collection, Runnable listener) {
+        entries.get(collection).listeners.add(listener);
+    }
+
+    public void removeListener(Collection collection, Runnable listener) {
+        entries.get(collection).listeners.remove(listener);
+    }
+
+    /**
+     * Forget all data and listeners (logout).
+     */
+    public void clear() {
+        for (Entry e : entries.values()) {
+            synchronized (e) {
+                e.generation++;
+                e.data = null;
+                e.raw = null;
+                e.loadedAt = 0;
+                e.inFlight = null;
+            }
+            e.listeners.clear();
+        }
+    }
+
+    private String fetch(Collection collection) {
+        try {
+            return apiClient.get(collection.endpoint);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private JsonArray store(Entry e, long generation, String raw) {
+        JsonArray data = JsonParser.parseString(raw).getAsJsonArray();
+        boolean changed;
+        synchronized (e) {
+            // invalidated while loading: serve this caller, but the next read reloads
+            if (e.generation != generation) return data;
+            changed = e.raw != null && !e.raw.equals(raw);
+            e.raw = raw;
+            e.data = data;
+            e.loadedAt = System.currentTimeMillis();
+        }
+        if (changed) notifyListeners(e);
+        return data;
+    }
+
+    private void notifyListeners(Entry e) {
+        for (Runnable listener : e.listeners) {
+            SwingUtilities.invokeLater(listener);
+        }
+    }
+}
@@ -576,8 +576,7 @@ public class EmployeePanel extends JPanel {
             @Override
             protected Void doInBackground() throws Exception {
                 try {
-                    String response = apiClient.get("/projects");
-                    JsonArray projects = JsonParser.parseString(response).getAsJsonArray();
+                    JsonArray projects = DataRepository.getInstance().getProjects();
 
                     SwingUtilities.invokeLater(() -> {
                         // Clear existing projects (keep "All Projects")
@@ -1433,6 +1432,7 @@ public class EmployeePanel extends JPanel {
                     }
 
                     apiClient.put("/tasks/" + taskId, update.toString());
+                    DataRepository.getInstance().invalidate(DataRepository.Collection.TASKS);
                     return null;
                 }
 
@@ -1487,8 +1487,7 @@ public class EmployeePanel extends JPanel {
             @Override
             protected Void doInBackground() throws Exception {
                 try {
-                    String response = apiClient.get("/users");
-                    JsonArray users = JsonParser.parseString(response).getAsJsonArray();
+                    JsonArray users = DataRepository.getInstance().getUsers();
 
                     SwingUtilities.invokeLater(() -> {
                         for (JsonElement elem : users) {
@@ -1526,7 +1525,8 @@ public class EmployeePanel extends JPanel {
             protected Void doInBackground() throws Exception {
                 JsonObject update = new JsonObject();
                 update.addProperty("status", newStatus);
-                apiClient.post("/tasks/" + taskId, update.toString());
+                apiClient.patch("/tasks/" + taskId, update.toString());
+                DataRepository.getInstance().invalidate(DataRepository.Collection.TASKS);
                 return null;
             }
 
@@ -8,7 +8,6 @@ import java.awt.geom.RoundRectangle2D;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 
 /**
  * Login Frame - Replicates the web login UI in Swing.
@@ -462,8 +461,7 @@ public class LoginFrame extends JFrame {
             @Override
             protected Integer doInBackground() {
                 try {
-                    String tasksResponse = apiClient.get("/tasks");
-                    JsonArray tasks = JsonParser.parseString(tasksResponse).getAsJsonArray();
+                    JsonArray tasks = DataRepository.getInstance().getTasks();
 
                     int todoCount = 0;
                     for (com.google.gson.JsonElement element : tasks) {
@@ -513,8 +511,7 @@ public class LoginFrame extends JFrame {
             @Override
             protected Integer doInBackground() {
                 try {
-                    String projectsResp = apiClient.get("/projects");
-                    JsonElement parsed = JsonParser.parseString(projectsResp);
+                    JsonElement parsed = DataRepository.getInstance().getProjects();
                     int count = 0;
 
                     if (parsed.isJsonArray()) {
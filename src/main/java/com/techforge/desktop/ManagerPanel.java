@@ -31,11 +31,16 @@ public class ManagerPanel extends JPanel {
 
     // Store project IDs for table rows
     private java.util.List<String> projectIds = new ArrayList<>();
+    // Only the latest loadProjects fills the table (several can overlap when repository listeners fire)
+    private int projectsLoad;
 
     public ManagerPanel(ApiClient apiClient) {
         this.apiClient = apiClient;
         initializeUI();
         loadProjects();
+        // Project risk and the pending counter depend on both collections
+        DataRepository.getInstance().addListener(DataRepository.Collection.PROJECTS, this::loadProjects);
+        DataRepository.getInstance().addListener(DataRepository.Collection.TASKS, this::loadProjects);
         // Start realtime listeners to update stat cards
         loadRealtimeData();
     }
@@ -292,18 +297,34 @@ public class ManagerPanel extends JPanel {
         statusLabel.setText("Loading projects...");
         tableModel.setRowCount(0);
         projectIds.clear();
+        int load = ++projectsLoad;
 
-        SwingWorker<String, Void> worker = new SwingWorker<>() {
+        // Risk levels of all projects come from one batch request, made here and not on the EDT
+        Map<String, String> riskByProject = new HashMap<>();
+
+        SwingWorker<JsonArray, Void> worker = new SwingWorker<>() {
             @Override
-            protected String doInBackground() throws Exception {
-                return apiClient.get("/projects");
+            protected JsonArray doInBackground() throws Exception {
+                JsonArray projects = DataRepository.getInstance().getProjects();
+                try {
+                    String progressResponse = apiClient.get("/reports/progress");
+                    for (JsonElement elem : JsonParser.parseString(progressResponse).getAsJsonArray()) {
+                        JsonObject report = elem.getAsJsonObject();
+                        String id = getJsonString(report, "projectId");
+                        String risk = getJsonString(report, "riskLevel");
+                        if (id != null && risk != null) riskByProject.put(id, risk);
+                    }
+                } catch (Exception e) {
+                    // Fallback: risk is calculated locally
+                }
+                return projects;
             }
 
             @Override
             protected void done() {
+                if (load != projectsLoad) return;
                 try {
-                    String response = get();
-                    JsonArray projects = JsonParser.parseString(response).getAsJsonArray();
+                    JsonArray projects = get();
 
                     double totalBudget = 0;
                     int activeCount = 0;
@@ -325,7 +346,8 @@ public class ManagerPanel extends JPanel {
                         }
 
                         // Calculate Risk Level (integrates RiskAlert concept)
-                        String riskLevel = calculateProjectRisk(id, endDate, status);
+                        String riskLevel = riskByProject.containsKey(id)
+                                ? riskByProject.get(id) : calculateProjectRisk(endDate);
 
                         // Store project ID
                         projectIds.add(id);
@@ -363,26 +385,13 @@ public class ManagerPanel extends JPanel {
     }
 
     /**
-     * Calculates project risk level based on deadline and status.
+     * Calculates project risk level based on the deadline, when the ProgressReport API has none.
      * This integrates the RiskAlert model concept into the UI.
      *
-     * @param projectId The project ID for API lookup
      * @param endDate The project deadline
-     * @param status The project status
      * @return Risk level: "LOW", "MEDIUM", or "HIGH"
      */
-    private String calculateProjectRisk(String projectId, String endDate, String status) {
-        try {
-            // Try to get risk from ProgressReport API
-            String reportResponse = apiClient.get("/reports/project/" + projectId + "/progress");
-            JsonObject report = JsonParser.parseString(reportResponse).getAsJsonObject();
-            if (report.has("riskLevel")) {
-                return report.get("riskLevel").getAsString();
-            }
-        } catch (Exception e) {
-            // Fallback: Calculate risk locally
-        }
-
+    private String calculateProjectRisk(String endDate) {
         // Local risk calculation fallback
         if (endDate == null || endDate.isEmpty()) {
             return "LOW";
@@ -411,8 +420,7 @@ public class ManagerPanel extends JPanel {
         SwingWorker<Integer, Void> worker = new SwingWorker<>() {
             @Override
             protected Integer doInBackground() throws Exception {
-                String response = apiClient.get("/tasks");
-                JsonArray tasks = JsonParser.parseString(response).getAsJsonArray();
+                JsonArray tasks = DataRepository.getInstance().getTasks();
                 int pending = 0;
                 for (JsonElement elem : tasks) {
                     JsonObject task = elem.getAsJsonObject();
@@ -557,8 +565,8 @@ public class ManagerPanel extends JPanel {
                     tableModel.removeRow(row);
                     statusLabel.setText("Project deleted successfully");
 
-                    // Refresh stats
-                    loadProjects();
+                    // Tasks were cascade-deleted; the listeners refresh the table and stats
+                    DataRepository.getInstance().invalidate(DataRepository.Collection.PROJECTS, DataRepository.Collection.TASKS);
                 } catch (Exception e) {
                     e.printStackTrace();
                     JOptionPane.showMessageDialog(
@@ -1031,7 +1039,7 @@ public class ManagerPanel extends JPanel {
                         get();
                         JOptionPane.showMessageDialog(dialog, "Project updated successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
                         dialog.dispose();
-                        loadProjects(); // Refresh table
+                        DataRepository.getInstance().invalidate(DataRepository.Collection.PROJECTS); // refreshes the table
                     } catch (Exception ex) {
                         JOptionPane.showMessageDialog(dialog, "Error updating project: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
                     }
@@ -13,6 +13,8 @@ import com.google.gson.*;
  */
 public class ProjectDetailDialog extends JDialog {
 
+    private static final int TASK_PAGE_SIZE = 100;
+
     private final ApiClient apiClient;
     private final String projectId;
     private final String projectName;
@@ -227,18 +229,19 @@ public class ProjectDetailDialog extends JDialog {
             @Override
             protected Void doInBackground() throws Exception {
                 try {
-                    // Fetch all tasks and filter by projectId
-                    String response = apiClient.get("/tasks");
-                    JsonArray tasks = JsonParser.parseString(response).getAsJsonArray();
-
-                    for (JsonElement elem : tasks) {
-                        JsonObject task = elem.getAsJsonObject();
-
-                        // Filter: Only show tasks for this project
-                        String taskProjectId = task.has("projectId") && !task.get("projectId").isJsonNull()
-                                ? task.get("projectId").getAsString() : null;
-
-                        if (projectId != null && projectId.equals(taskProjectId)) {
+                    if (projectId == null) return null;
+
+                    // Fetch this project's tasks page by page; rows are published as each page arrives
+                    String cursor = null;
+                    do {
+                        String endpoint = "/tasks?projectId=" + java.net.URLEncoder.encode(projectId, java.nio.charset.StandardCharsets.UTF_8)
+                                + "&limit=" + TASK_PAGE_SIZE + (cursor != null ? "&cursor=" + cursor : "");
+                        JsonObject page = JsonParser.parseString(apiClient.get(endpoint)).getAsJsonObject();
+                        cursor = page.has("nextCursor") && !page.get("nextCursor").isJsonNull()
+                                ? page.get("nextCursor").getAsString() : null;
+
+                        for (JsonElement elem : page.getAsJsonArray("items")) {
+                            JsonObject task = elem.getAsJsonObject();
                             taskCount++;
 
                             String id = task.has("id") && !task.get("id").isJsonNull()
@@ -262,7 +265,7 @@ public class ProjectDetailDialog extends JDialog {
                             // Publish row to be added on EDT (include task ID for deletion)
                             publish(new Object[]{id, title, assignee, priority, status, estimatedHours, "EDIT", "DELETE"});
                         }
-                    }
+                    } while (cursor != null);
                 } catch (Exception e) {
                     e.printStackTrace();
                 }
@@ -524,6 +527,7 @@ public class ProjectDetailDialog extends JDialog {
             @Override
             protected Void doInBackground() throws Exception {
                 apiClient.delete("/tasks/" + taskId);
+                DataRepository.getInstance().invalidate(DataRepository.Collection.TASKS);
                 return null;
             }
 
@@ -875,6 +879,7 @@ public class ProjectDetailDialog extends JDialog {
                     update.addProperty("projectId", projectId);
 
                     apiClient.put("/tasks/" + taskId, update.toString());
+                    DataRepository.getInstance().invalidate(DataRepository.Collection.TASKS);
                     return null;
                 }
 
@@ -939,8 +944,7 @@ public class ProjectDetailDialog extends JDialog {
             @Override
             protected Void doInBackground() throws Exception {
                 try {
-                    String response = apiClient.get("/users");
-                    JsonArray users = JsonParser.parseString(response).getAsJsonArray();
+                    JsonArray users = DataRepository.getInstance().getUsers();
 
                     SwingUtilities.invokeLater(() -> {
                         for (JsonElement elem : users) {
@@ -361,28 +361,25 @@ public class ProjectDialog extends JDialog {
         SwingWorker<Void, Void> worker = new SwingWorker<>() {
             @Override
             protected Void doInBackground() throws Exception {
-                String response = apiClient.post("/projects", project.toString());
+                // Default setup task, created atomically with the project
+                JsonObject task = new JsonObject();
+                task.addProperty("title", "Setup Environment");
+                task.addProperty("description", "Initial project setup and dependencies");
+                task.addProperty("status", "TODO");
+                task.addProperty("priority", "HIGH");
+                task.addProperty("estimatedHours", 4.0);
+
+                JsonArray tasks = new JsonArray();
+                tasks.add(task);
+
+                JsonObject request = new JsonObject();
+                request.add("project", project);
+                request.add("tasks", tasks);
+
+                String response = apiClient.post("/projects/with-tasks", request.toString());
+                DataRepository.getInstance().invalidate(DataRepository.Collection.PROJECTS, DataRepository.Collection.TASKS);
                 System.out.println("Project created: " + response);
 
-                // Create default setup task
-                try {
-                    JsonObject parsed = JsonParser.parseString(response).getAsJsonObject();
-                    String projectId = parsed.has("id") ? parsed.get("id").getAsString() : null;
-
-                    if (projectId != null) {
-                        JsonObject task = new JsonObject();
-                        task.addProperty("title", "Setup Environment");
-                        task.addProperty("description", "Initial project setup and dependencies");
-                        task.addProperty("projectId", projectId);
-                        task.addProperty("status", "TODO");
-                        task.addProperty("priority", "HIGH");
-                        task.addProperty("estimatedHours", 4.0);
-                        apiClient.post("/tasks", task.toString());
-                    }
-                } catch (Exception e) {
-                    System.err.println("Could not create default task: " + e.getMessage());
-                }
-
                 return null;
             }
 
@@ -6,8 +6,12 @@ import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.geom.RoundRectangle2D;
 import java.io.*;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
 import com.google.gson.*;
 
 /**
@@ -260,13 +264,23 @@ public class ReportUtils {
             @Override
             protected Boolean doInBackground() throws Exception {
                 try {
+                    // CSV: the worklog rows are streamed from the API straight into the file
+                    if ("csv".equalsIgnoreCase(finalExtension)) {
+                        try {
+                            streamToCsv(apiClient, finalFile, reportTitle, type, startDate, endDate);
+                        } catch (IOException e) {
+                            // never leave a partial export behind as if it were the report
+                            finalFile.delete();
+                            throw e;
+                        }
+                        return true;
+                    }
+
                     // Fetch report data from API
                     String reportData = fetchReportData(apiClient, type, startDate, endDate);
 
                     // Export based on file type
-                    if ("csv".equalsIgnoreCase(finalExtension)) {
-                        exportToCsv(finalFile, reportTitle, type, startDate, endDate, reportData);
-                    } else if ("pdf".equalsIgnoreCase(finalExtension)) {
+                    if ("pdf".equalsIgnoreCase(finalExtension)) {
                         exportToPdf(finalFile, reportTitle, type, startDate, endDate, reportData);
                     } else {
                         exportToText(finalFile, reportTitle, type, startDate, endDate, reportData);
@@ -320,14 +334,35 @@ public class ReportUtils {
     }
 
     /**
-     * Fetches report data from the API.
+     * Fetches report data from the API: the summary of the worklogs exported for the period.
+     * The NDJSON rows are totalled line by line as they arrive, never held in memory.
      */
     private static String fetchReportData(ApiClient apiClient, String type, String startDate, String endDate) {
         try {
-            String endpoint = "/reports/export?type=" + type.toLowerCase()
-                    + "&startDate=" + startDate
-                    + "&endDate=" + endDate;
-            return apiClient.get(endpoint);
+            long[] entries = {0};
+            double[] totals = {0, 0}; // hours, labor cost
+            Set<String> projects = new HashSet<>();
+            Set<String> employees = new HashSet<>();
+            apiClient.getLines(exportEndpoint(type, startDate, endDate, "ndjson"), line -> {
+                if (line.isBlank()) return;
+                JsonObject row = JsonParser.parseString(line).getAsJsonObject();
+                entries[0]++;
+                if (row.has("hours") && !row.get("hours").isJsonNull()) totals[0] += row.get("hours").getAsDouble();
+                if (row.has("laborCost") && !row.get("laborCost").isJsonNull()) totals[1] += row.get("laborCost").getAsDouble();
+                if (row.has("projectId") && !row.get("projectId").isJsonNull()) projects.add(row.get("projectId").getAsString());
+                if (row.has("userId") && !row.get("userId").isJsonNull()) employees.add(row.get("userId").getAsString());
+            });
+
+            JsonObject report = new JsonObject();
+            report.addProperty("type", type);
+            report.addProperty("startDate", startDate);
+            report.addProperty("endDate", endDate);
+            report.addProperty("totalProjects", projects.size());
+            report.addProperty("employees", employees.size());
+            report.addProperty("workLogEntries", entries[0]);
+            report.addProperty("totalHours", Math.round(totals[0] * 100.0) / 100.0);
+            report.addProperty("spent", Math.round(totals[1] * 100.0) / 100.0);
+            return report.toString();
         } catch (Exception e) {
             // Return mock data if API fails
             return generateMockReportData(type, startDate, endDate);
@@ -335,27 +370,21 @@ public class ReportUtils {
     }
 
     /**
-     * Generates mock report data for demo purposes.
+     * /reports/export with type and dates; the period type may contain spaces ("Custom Range").
      */
-    private static String generateMockReportData(String type, String startDate, String endDate) {
-        JsonObject report = new JsonObject();
-        report.addProperty("type", type);
-        report.addProperty("startDate", startDate);
-        report.addProperty("endDate", endDate);
-        report.addProperty("totalProjects", 5);
-        report.addProperty("completedTasks", 42);
-        report.addProperty("totalHours", 320.5);
-        report.addProperty("budget", 150000);
-        report.addProperty("spent", 87500);
-        return report.toString();
+    private static String exportEndpoint(String type, String startDate, String endDate, String format) {
+        return "/reports/export?type=" + URLEncoder.encode(type.toLowerCase(), StandardCharsets.UTF_8)
+                + "&startDate=" + URLEncoder.encode(startDate, StandardCharsets.UTF_8)
+                + "&endDate=" + URLEncoder.encode(endDate, StandardCharsets.UTF_8)
+                + "&format=" + format;
     }
 
     /**
-     * Exports report to CSV file.
+     * Exports the worklog rows of the period to a CSV file, writing each line as it is received.
      */
-    private static void exportToCsv(File file, String title, String type,
-                                     String startDate, String endDate, String jsonData) throws IOException {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+    private static void streamToCsv(ApiClient apiClient, File file, String title, String type,
+                                    String startDate, String endDate) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8)))) {
             // Header
             writer.println("# " + title);
             writer.println("# Report Type: " + type);
@@ -363,22 +392,30 @@ public class ReportUtils {
             writer.println("# Generated: " + new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()));
             writer.println();
 
-            // Parse JSON and write as CSV
-            JsonObject data = JsonParser.parseString(jsonData).getAsJsonObject();
-
-            // Headers row
-            writer.println("Metric,Value");
-
-            // Data rows
-            for (String key : data.keySet()) {
-                writer.println(key + "," + data.get(key).getAsString());
-            }
+            // Column row and data rows, as sent by the API
+            apiClient.getLines(exportEndpoint(type, startDate, endDate, "csv"), writer::println);
 
             writer.println();
             writer.println("# End of Report");
         }
     }
 
+    /**
+     * Generates mock report data for demo purposes.
+     */
+    private static String generateMockReportData(String type, String startDate, String endDate) {
+        JsonObject report = new JsonObject();
+        report.addProperty("type", type);
+        report.addProperty("startDate", startDate);
+        report.addProperty("endDate", endDate);
+        report.addProperty("totalProjects", 5);
+        report.addProperty("completedTasks", 42);
+        report.addProperty("totalHours", 320.5);
+        report.addProperty("budget", 150000);
+        report.addProperty("spent", 87500);
+        return report.toString();
+    }
+
     /**
      * Exports report to PDF file (Simple text-based PDF).
      * Note: For production, use a library like iText or Apache PDFBox.
@@ -685,6 +685,7 @@ public class UserProfileDialog extends JDialog {
                     // Use putWithAuth if available, otherwise regular put
                     // The ApiClient.put() should internally add the auth header
                     apiClient.put("/users/profile", profileData.toString());
+                    DataRepository.getInstance().invalidate(DataRepository.Collection.USERS);
 
                     apiSucceeded = true;
                     System.out.println("API save successful!");
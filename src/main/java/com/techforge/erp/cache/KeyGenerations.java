@@ -0,0 +1,36 @@
+package com.techforge.erp.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Change counters per key, for caches filled from an asynchronous read: take {@link #of} before the read
+ * and store the result only if {@link #unchanged} still holds, so a value fetched before a change is not
+ * cached after it.
+ *
+ * Keys share a fixed number of counters (memory does not grow with the keys). A change to one key can
+ * make a put for another key on the same counter be skipped, but never let a stale value through.
+ */
+public class KeyGenerations {
+
+    private final AtomicLongArray counters;
+
+    public KeyGenerations(int stripes) {
+        this.counters = new AtomicLongArray(Math.max(1, stripes));
+    }
+
+    public long of(Object key) {
+        return counters.get(index(key));
+    }
+
+    public void bump(Object key) {
+        if (key != null) counters.incrementAndGet(index(key));
+    }
+
+    public boolean unchanged(Object key, long generation) {
+        return of(key) == generation;
+    }
+
+    private int index(Object key) {
+        return key == null ? 0 : Math.floorMod(key.hashCode(), counters.length());
+    }
+}
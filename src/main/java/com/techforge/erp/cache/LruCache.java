@@ -0,0 +1,111 @@
+package com.techforge.erp.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+
+/**
+ * Small thread-safe cache with a size bound (least recently used entry is evicted first)
+ * and a time-to-live per entry. Null values are not cached.
+ */
+public class LruCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> map;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public LruCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() <= LruCache.this.maxSize) return false;
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * The cached value, or null when absent or expired. Counts a hit or a miss.
+     */
+    public synchronized V get(K key) {
+        V value = peek(key);
+        if (value == null) misses.incrementAndGet();
+        else hits.incrementAndGet();
+        return value;
+    }
+
+    /**
+     * Like {@link #get} but without touching the statistics.
+     */
+    public synchronized V peek(K key) {
+        if (key == null) return null;
+        Entry<V> entry = map.get(key);
+        if (entry == null) return null;
+        if (System.currentTimeMillis() - entry.createdAt >= ttlMillis) {
+            map.remove(key);
+            expirations.incrementAndGet();
+            return null;
+        }
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        if (key == null || value == null) return;
+        map.put(key, new Entry<>(value, System.currentTimeMillis()));
+    }
+
+    public synchronized V remove(K key) {
+        Entry<V> entry = map.remove(key);
+        return entry == null ? null : entry.value;
+    }
+
+    public synchronized void removeIf(BiPredicate<K, V> predicate) {
+        Iterator<Map.Entry<K, Entry<V>>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, Entry<V>> e = it.next();
+            if (predicate.test(e.getKey(), e.getValue().value)) it.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        map.clear();
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public Map<String, Object> stats() {
+        long h = hits.get();
+        long m = misses.get();
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("size", size());
+        s.put("maxSize", maxSize);
+        s.put("hits", h);
+        s.put("misses", m);
+        s.put("hitRate", h + m == 0 ? 0.0 : (double) h / (h + m));
+        s.put("evictions", evictions.get());
+        s.put("expirations", expirations.get());
+        return s;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long createdAt;
+
+        Entry(V value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.techforge.erp.config;
+
+/**
+ * The parts of a User that RoleInterceptor needs to authorize a request.
+ */
+public final class AuthPrincipal {
+
+    private final String id;
+    private final String role;
+    private final String email;
+
+    public AuthPrincipal(String id, String role, String email) {
+        this.id = id;
+        this.role = role;
+        this.email = email;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public boolean hasRole(String... roles) {
+        if (this.role == null || roles == null || roles.length == 0) return false;
+        for (String r : roles) {
+            if (r != null && r.equalsIgnoreCase(this.role)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,31 @@
+package com.techforge.erp.config;
+
+import com.techforge.erp.firebase.ContinuationExecutor;
+import com.techforge.erp.firebase.Continuations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Continuation executor for service futures (see {@link ContinuationExecutor}).
+ * techforge.continuations.mode = platform (default) | virtual
+ */
+@Configuration
+public class ContinuationConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContinuationConfig.class);
+
+    @Bean(destroyMethod = "shutdown")
+    public ContinuationExecutor continuationExecutor(
+            @Value("${techforge.continuations.mode:platform}") String mode,
+            @Value("${techforge.continuations.pool-size:0}") int poolSize,
+            @Value("${techforge.continuations.queue-capacity:10000}") int queueCapacity) {
+        int size = poolSize > 0 ? poolSize : Math.max(2, Runtime.getRuntime().availableProcessors());
+        ContinuationExecutor executor = new ContinuationExecutor(mode, size, queueCapacity);
+        Continuations.install(executor);
+        logger.info("Continuation executor: mode={}, poolSize={}, queueCapacity={}", executor.getMode(), size, queueCapacity);
+        return executor;
+    }
+}
@@ -2,6 +2,7 @@ package com.techforge.erp.config;
 
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
+import com.techforge.erp.firebase.codec.Codecs;
 import com.techforge.erp.model.Client;
 import com.techforge.erp.model.User;
 import com.techforge.erp.service.ClientService;
@@ -44,7 +45,7 @@ public class DataSeeder implements CommandLineRunner {
                 logger.info("Found user: {} ({})", existingUser.getUsername(), existingUser.getRole());
                 // Still ensure clients exist; if not, seed them
                 try {
-                    List<Client> existingClients = clientService.getAllClients();
+                    List<Client> existingClients = clientService.getAllClients().join();
                     if (existingClients == null || existingClients.isEmpty()) {
                         seedDemoClients();
                     }
@@ -96,7 +97,7 @@ public class DataSeeder implements CommandLineRunner {
             String key1 = clientsRef.push().getKey();
             if (key1 != null) {
                 c1.setId(key1);
-                clientsRef.child(key1).setValueAsync(c1).addListener(() -> logger.info("Seeded client: {} (id={})", c1.getName(), key1), Runnable::run);
+                clientsRef.child(key1).setValueAsync(Codecs.CLIENT.encode(c1)).addListener(() -> logger.info("Seeded client: {} (id={})", c1.getName(), key1), Runnable::run);
             }
 
             Client c2 = new Client();
@@ -106,7 +107,7 @@ public class DataSeeder implements CommandLineRunner {
             String key2 = clientsRef.push().getKey();
             if (key2 != null) {
                 c2.setId(key2);
-                clientsRef.child(key2).setValueAsync(c2).addListener(() -> logger.info("Seeded client: {} (id={})", c2.getName(), key2), Runnable::run);
+                clientsRef.child(key2).setValueAsync(Codecs.CLIENT.encode(c2)).addListener(() -> logger.info("Seeded client: {} (id={})", c2.getName(), key2), Runnable::run);
             }
         } catch (Exception e) {
             logger.error("Failed to seed demo clients: {}", e.getMessage(), e);
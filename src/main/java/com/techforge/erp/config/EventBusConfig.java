@@ -0,0 +1,27 @@
+package com.techforge.erp.config;
+
+import com.techforge.erp.event.ChangeEventBus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Change-event bus (see {@link ChangeEventBus}).
+ */
+@Configuration
+public class EventBusConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventBusConfig.class);
+
+    @Bean(destroyMethod = "shutdown")
+    public ChangeEventBus changeEventBus(
+            @Value("${techforge.events.lanes:4}") int lanes,
+            @Value("${techforge.events.queue-capacity:10000}") int queueCapacity,
+            @Value("${techforge.events.publish-timeout-ms:5000}") long publishTimeoutMillis) {
+        ChangeEventBus bus = new ChangeEventBus(Math.max(1, lanes), queueCapacity, publishTimeoutMillis);
+        logger.info("Change event bus: lanes={}, queueCapacity={}", Math.max(1, lanes), queueCapacity);
+        return bus;
+    }
+}
@@ -0,0 +1,65 @@
+package com.techforge.erp.config;
+
+import com.techforge.erp.cache.KeyGenerations;
+import com.techforge.erp.cache.LruCache;
+import com.techforge.erp.event.ChangeEventBus;
+import com.techforge.erp.event.UserChanged;
+import com.techforge.erp.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolved X-Requester-ID principals with a short TTL.
+ * Any UserChanged event for the id (update, patch, role change, delete) drops the entry, and a principal
+ * fetched while such an event arrived is not stored (see {@link #generation}).
+ */
+@Component
+public class PrincipalCache {
+
+    private final LruCache<String, AuthPrincipal> principals;
+    private final KeyGenerations generations = new KeyGenerations(256);
+
+    @Autowired
+    public PrincipalCache(@Value("${techforge.cache.principals.max-size:1000}") int maxSize,
+                          @Value("${techforge.cache.principals.ttl-seconds:60}") long ttlSeconds,
+                          ChangeEventBus eventBus) {
+        this.principals = new LruCache<>(maxSize, TimeUnit.SECONDS.toMillis(ttlSeconds));
+        eventBus.subscribe(UserChanged.class, this::onUserChanged);
+    }
+
+    public AuthPrincipal get(String userId) {
+        return principals.get(userId);
+    }
+
+    /**
+     * Generation of an id, to be taken before the fetch whose result is passed to {@link #put}.
+     */
+    public long generation(String userId) {
+        return generations.of(userId);
+    }
+
+    /**
+     * The principal of a fetched user; cached unless a UserChanged for the id arrived since
+     * {@link #generation} was taken (then it is returned for this request only).
+     */
+    public AuthPrincipal put(String userId, long generation, User user) {
+        AuthPrincipal principal = new AuthPrincipal(userId, user.getRole(), user.getEmail());
+        synchronized (this) {
+            if (generations.unchanged(userId, generation)) principals.put(userId, principal);
+        }
+        return principal;
+    }
+
+    private synchronized void onUserChanged(UserChanged event) {
+        generations.bump(event.getId());
+        principals.remove(event.getId());
+    }
+
+    public Map<String, Object> stats() {
+        return principals.stats();
+    }
+}
@@ -0,0 +1,77 @@
+package com.techforge.erp.config;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+import com.techforge.erp.firebase.FirebaseBatch;
+import com.techforge.erp.service.ProjectStatsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-time migration that rebuilds projectStats/{projectId} for every project.
+ * Projects that existed before the aggregate was introduced would otherwise only hold the increments
+ * of later writes. Runs in the background on startup until LTUD10/migrations/projectStats is set;
+ * until then ProjectStatsService rebuilds stats on read instead of trusting the stored nodes.
+ * Disable with techforge.migrations.project-stats=false.
+ */
+@Component
+public class ProjectStatsBackfill implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectStatsBackfill.class);
+
+    private static final String MARKER = "migrations/" + ProjectStatsService.NODE;
+
+    @Autowired
+    private ProjectStatsService projectStatsService;
+
+    @Value("${techforge.migrations.project-stats:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            projectStatsService.markBackfilled();
+            return;
+        }
+
+        DatabaseReference root = FirebaseDatabase.getInstance().getReference("LTUD10");
+        root.child(MARKER).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot snapshot) {
+                if (snapshot.exists()) {
+                    logger.debug("projectStats backfill already done");
+                    projectStatsService.markBackfilled();
+                    return;
+                }
+                backfill(root);
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                logger.warn("Could not check projectStats migration marker: {}", error.getMessage());
+            }
+        });
+    }
+
+    private void backfill(DatabaseReference root) {
+        logger.info("Backfilling projectStats...");
+        projectStatsService.rebuildAll()
+                .thenCompose(count -> new FirebaseBatch(root).set(MARKER, System.currentTimeMillis()).commit()
+                        .thenRun(() -> {
+                            projectStatsService.markBackfilled();
+                            logger.info("projectStats backfill complete ({} projects)", count);
+                        }))
+                .exceptionally(ex -> {
+                    // marker is not written, so the backfill is retried on the next startup
+                    logger.error("projectStats backfill failed", ex);
+                    return null;
+                });
+    }
+}
@@ -0,0 +1,67 @@
+package com.techforge.erp.config;
+
+import com.techforge.erp.service.ProjectStatsService;
+import com.techforge.erp.service.ReportService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically runs {@link ProjectStatsService#reconcile()}, so projectStats drift left by racing
+ * writes is repaired without a manual rebuild, and drops the cached reports of the rebuilt projects.
+ * Interval: techforge.project-stats.reconcile-interval-seconds (0 disables).
+ */
+@Component
+public class ProjectStatsReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectStatsReconciler.class);
+
+    private final ProjectStatsService projectStatsService;
+    private final ReportService reportService;
+    private final long intervalSeconds;
+    private ScheduledExecutorService scheduler;
+
+    @Autowired
+    public ProjectStatsReconciler(ProjectStatsService projectStatsService, ReportService reportService,
+                                  @Value("${techforge.project-stats.reconcile-interval-seconds:300}") long intervalSeconds) {
+        this.projectStatsService = projectStatsService;
+        this.reportService = reportService;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (intervalSeconds <= 0) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "project-stats-reconcile");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::reconcile, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    private void reconcile() {
+        try {
+            // one pass at a time: wait for it before the next delay starts
+            projectStatsService.reconcile()
+                    .orTimeout(intervalSeconds, TimeUnit.SECONDS)
+                    .join()
+                    .forEach(reportService::invalidateProject);
+        } catch (Exception e) {
+            logger.warn("projectStats reconcile pass failed: {}", e.getMessage());
+        }
+    }
+}
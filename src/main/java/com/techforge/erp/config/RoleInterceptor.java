@@ -20,6 +20,7 @@ import java.util.concurrent.TimeoutException;
 /**
  * RoleInterceptor enforces RBAC for API endpoints using the X-Requester-ID header.
  * Uses ResponseStatusException for proper HTTP status codes.
+ * The requester is resolved through {@link PrincipalCache}; Firebase is only asked on a cache miss.
  */
 @Component
 public class RoleInterceptor implements HandlerInterceptor {
@@ -27,10 +28,12 @@ public class RoleInterceptor implements HandlerInterceptor {
     private static final int FIREBASE_TIMEOUT_SECONDS = 5;
 
     private final UserService userService;
+    private final PrincipalCache principalCache;
 
     @Autowired
-    public RoleInterceptor(UserService userService) {
+    public RoleInterceptor(UserService userService, PrincipalCache principalCache) {
         this.userService = userService;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -59,11 +62,28 @@ public class RoleInterceptor implements HandlerInterceptor {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing X-Requester-ID header");
         }
 
+        AuthPrincipal principal = principalCache.get(requesterId);
+        if (principal == null) {
+            long generation = principalCache.generation(requesterId);
+            principal = principalCache.put(requesterId, generation, fetchUser(requesterId));
+        }
+
+        logger.debug("Authorization check: userId={}, role={}, method={}, path={}", requesterId, principal.getRole(), method, path);
+
+        if (isAllowed(principal, method, path)) return true;
+        throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access Denied");
+    }
+
+    /**
+     * Cache miss: resolve the requester from Firebase, waiting at most {@value #FIREBASE_TIMEOUT_SECONDS}s.
+     */
+    private User fetchUser(String requesterId) {
         User user;
         try {
             logger.info("Fetching user from Firebase: userId={}", requesterId);
 
-            // Add timeout to prevent indefinite blocking
+            // HandlerInterceptor runs before the controller and cannot be deferred,
+            // so a cache miss is the one bounded wait left on the request thread
             user = userService.getUserById(requesterId)
                     .orTimeout(FIREBASE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
                     .join();
@@ -86,34 +106,38 @@ public class RoleInterceptor implements HandlerInterceptor {
             logger.warn("User not found: {}", requesterId);
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found");
         }
+        return user;
+    }
 
-        logger.debug("Authorization check: userId={}, role={}, method={}, path={}", requesterId, user.getRole(), method, path);
-
+    /**
+     * RBAC decision for an /api/v1 request. Pure function of the principal, method and path (no I/O).
+     */
+    static boolean isAllowed(AuthPrincipal user, String method, String path) {
         // RBAC logic
         // /api/v1/finance/** -> ADMIN, FINANCE (MANAGER allowed GET only)
         if (path.startsWith("/api/v1/finance")) {
             if (user.hasRole("ADMIN", "FINANCE")) return true;
             if (user.hasRole("MANAGER") && "GET".equalsIgnoreCase(method)) return true;
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access Denied");
+            return false;
         }
 
         // /api/v1/ai/** -> ADMIN, MANAGER, EMPLOYEE
         if (path.startsWith("/api/v1/ai")) {
             if (user.hasRole("ADMIN", "MANAGER", "EMPLOYEE")) return true;
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access Denied");
+            return false;
         }
 
         // /api/v1/users/** -> ADMIN only
         if (path.startsWith("/api/v1/users")) {
             if (user.hasRole("ADMIN")) return true;
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access Denied");
+            return false;
         }
 
         // /api/v1/projects/** -> GET allowed to everyone; POST/PUT/DELETE for ADMIN, MANAGER
         if (path.startsWith("/api/v1/projects")) {
             if ("GET".equalsIgnoreCase(method)) return true; // everyone allowed to read
             if (user.hasRole("ADMIN", "MANAGER")) return true; // write allowed for admin/manager
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access Denied");
+            return false;
         }
 
         // /api/v1/tasks/** -> GET allowed to authenticated users; POST/PUT/PATCH for MANAGER, EMPLOYEE, ADMIN
@@ -130,18 +154,51 @@ public class RoleInterceptor implements HandlerInterceptor {
                 // Only ADMIN and MANAGER can delete tasks
                 if (user.hasRole("ADMIN", "MANAGER")) return true;
             }
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access Denied");
+            return false;
         }
 
         // /api/v1/worklogs/** -> MANAGER, EMPLOYEE, ADMIN can create/read
         if (path.startsWith("/api/v1/worklogs")) {
             if (user.hasRole("ADMIN", "MANAGER", "EMPLOYEE")) return true;
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access Denied");
+            return false;
+        }
+
+        // /api/v1/system/** -> ADMIN only
+        if (path.startsWith("/api/v1/system")) {
+            if (user.hasRole("ADMIN")) return true;
+            return false;
+        }
+
+        // /api/v1/reports/export -> ADMIN, FINANCE, MANAGER (rows carry labor cost and payroll)
+        if (path.startsWith("/api/v1/reports/export")) {
+            if (user.hasRole("ADMIN", "FINANCE", "MANAGER")) return true;
+            return false;
+        }
+
+        // /api/v1/reports/monthly -> ADMIN, FINANCE, MANAGER (carries payroll totals, like /finance)
+        if (path.startsWith("/api/v1/reports/monthly")) {
+            if (user.hasRole("ADMIN", "FINANCE", "MANAGER") && "GET".equalsIgnoreCase(method)) return true;
+            return false;
+        }
+
+        // /api/v1/reports/** -> project dashboards (project, portfolio, progress, activities) also for CLIENT;
+        // rebuilding aggregates for ADMIN, MANAGER
+        if (path.startsWith("/api/v1/reports")) {
+            if ("GET".equalsIgnoreCase(method)) {
+                if (user.hasRole("ADMIN", "MANAGER", "FINANCE")) return true;
+                if (user.hasRole("CLIENT") && (path.startsWith("/api/v1/reports/project/")
+                        || path.equals("/api/v1/reports/portfolio")
+                        || path.equals("/api/v1/reports/progress")
+                        || path.equals("/api/v1/reports/activities"))) return true;
+                return false;
+            }
+            if (user.hasRole("ADMIN", "MANAGER")) return true;
+            return false;
         }
 
         // Default: for any /api/v1/** path not covered above, deny
         if (path.startsWith("/api/v1/")) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Access Denied");
+            return false;
         }
 
         // Non-api paths: allow through
@@ -1,10 +1,14 @@
 package com.techforge.erp.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
@@ -15,6 +19,15 @@ public class WebConfig implements WebMvcConfigurer {
         this.roleInterceptor = roleInterceptor;
     }
 
+    // Async requests (CompletableFuture and streamed bodies such as /reports/export) may run this long
+    @Value("${techforge.mvc.async-timeout-seconds:300}")
+    private long asyncTimeoutSeconds;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(TimeUnit.SECONDS.toMillis(asyncTimeoutSeconds));
+    }
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(roleInterceptor)
@@ -0,0 +1,124 @@
+package com.techforge.erp.config;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.google.firebase.database.ValueEventListener;
+import com.techforge.erp.firebase.FirebaseBatch;
+import com.techforge.erp.firebase.FirebaseMirror;
+import com.techforge.erp.model.WorkLog;
+import com.techforge.erp.service.WorkLogService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One-time migration that copies existing worklogs into worklogsByMonth/{yyyy-MM}/{id}.
+ * Runs in the background on startup until LTUD10/migrations/worklogsByMonth is set; until then
+ * WorkLogService reads months from the worklogs mirror instead of the buckets.
+ * Disable with techforge.migrations.worklogs-by-month=false (the buckets are then never trusted).
+ *
+ * Worklogs written during the run already get their bucket from the write path. Each chunk only copies
+ * records that are still unchanged in the mirror, and records that changed while the chunk was in flight
+ * have the copy it wrote replaced by their current bucket entry (or removed, if they were deleted).
+ */
+@Component
+public class WorkLogMonthBackfill implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkLogMonthBackfill.class);
+
+    private static final String MARKER = "migrations/" + WorkLogService.BY_MONTH_NODE;
+    // keeps each multi-path update at a reasonable size
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private WorkLogService workLogService;
+
+    @Autowired
+    private FirebaseMirror mirror;
+
+    @Value("${techforge.migrations.worklogs-by-month:true}")
+    private boolean enabled;
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) return;
+
+        DatabaseReference root = FirebaseDatabase.getInstance().getReference("LTUD10");
+        root.child(MARKER).addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot snapshot) {
+                if (snapshot.exists()) {
+                    logger.debug("worklogsByMonth backfill already done");
+                    workLogService.markBackfilled();
+                    return;
+                }
+                backfill(root);
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                logger.warn("Could not check worklogsByMonth migration marker: {}", error.getMessage());
+            }
+        });
+    }
+
+    private void backfill(DatabaseReference root) {
+        // wait for live data so worklogs deleted since the last snapshot are not bucketed
+        mirror.worklogs().synced().thenCompose(v -> mirror.worklogs().values()).thenCompose(all -> {
+            logger.info("Backfilling worklogsByMonth for {} worklogs...", all.size());
+            CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+            for (int i = 0; i < all.size(); i += CHUNK_SIZE) {
+                List<WorkLog> chunk = new ArrayList<>(all.subList(i, Math.min(all.size(), i + CHUNK_SIZE)));
+                chain = chain.thenCompose(v -> writeChunk(root, chunk));
+            }
+            return chain.thenCompose(v -> new FirebaseBatch(root).set(MARKER, System.currentTimeMillis()).commit())
+                    .thenRun(() -> {
+                        workLogService.markBackfilled();
+                        logger.info("worklogsByMonth backfill complete ({} worklogs)", all.size());
+                    });
+        }).exceptionally(ex -> {
+            // marker is not written, so the backfill is retried on the next startup
+            logger.error("worklogsByMonth backfill failed", ex);
+            return null;
+        });
+    }
+
+    private CompletableFuture<Void> writeChunk(DatabaseReference root, List<WorkLog> chunk) {
+        // records deleted or changed since the list was read are left to their write path
+        Map<String, WorkLog> live = mirror.worklogs().entries();
+        List<WorkLog> unchanged = new ArrayList<>(chunk.size());
+        for (WorkLog w : chunk) {
+            if (w.equals(live.get(w.getId()))) unchanged.add(w);
+        }
+        FirebaseBatch batch = new FirebaseBatch(root);
+        for (WorkLog w : unchanged) workLogService.stageMonthBucket(batch, w);
+        return batch.commit().thenCompose(v -> repair(root, unchanged));
+    }
+
+    /**
+     * A record that changed while its chunk was being written may now have a stale copy in its old month:
+     * drop what the chunk wrote and write the current bucket entry, if the record still exists.
+     */
+    private CompletableFuture<Void> repair(DatabaseReference root, List<WorkLog> written) {
+        Map<String, WorkLog> live = mirror.worklogs().entries();
+        FirebaseBatch batch = new FirebaseBatch(root);
+        for (WorkLog w : written) {
+            WorkLog current = live.get(w.getId());
+            if (w.equals(current)) continue;
+            workLogService.stageMonthBucketDelete(batch, w);
+            if (current != null) workLogService.stageMonthBucket(batch, current);
+        }
+        if (!batch.isEmpty()) logger.info("worklogsByMonth backfill: {} bucket entries repaired", batch.size());
+        return batch.commit();
+    }
+}
@@ -165,77 +165,92 @@ public class AuthController {
             );
         }
 
-        return userService.getUserById(userId)
-            .thenCompose(existingUser -> {
-                if (existingUser == null) {
-                    return CompletableFuture.completedFuture(
-                        ResponseEntity.notFound().build()
-                    );
-                }
-
-                // Update only provided fields
-                if (profileData.containsKey("fullName")) {
-                    existingUser.setFullName((String) profileData.get("fullName"));
+        // Collect only the provided fields and write them directly (no full-object rewrite)
+        Map<String, Object> changes = new java.util.HashMap<>();
+        try {
+            if (profileData.containsKey("fullName")) {
+                changes.put("fullName", profileData.get("fullName"));
+            }
+            if (profileData.containsKey("phone")) {
+                changes.put("phone", profileData.get("phone"));
+            }
+            if (profileData.containsKey("hourlyRateOT")) {
+                Object rate = profileData.get("hourlyRateOT");
+                if (rate instanceof Number) {
+                    changes.put("hourlyRateOT", ((Number) rate).doubleValue());
+                } else if (rate instanceof String) {
+                    changes.put("hourlyRateOT", Double.parseDouble((String) rate));
                 }
-                if (profileData.containsKey("phone")) {
-                    existingUser.setPhone((String) profileData.get("phone"));
+            }
+            if (profileData.containsKey("baseSalary")) {
+                Object salary = profileData.get("baseSalary");
+                if (salary instanceof Number) {
+                    changes.put("baseSalary", ((Number) salary).doubleValue());
+                } else if (salary instanceof String) {
+                    changes.put("baseSalary", Double.parseDouble((String) salary));
                 }
-                if (profileData.containsKey("hourlyRateOT")) {
-                    Object rate = profileData.get("hourlyRateOT");
-                    if (rate instanceof Number) {
-                        existingUser.setHourlyRateOT(((Number) rate).doubleValue());
-                    } else if (rate instanceof String) {
-                        existingUser.setHourlyRateOT(Double.parseDouble((String) rate));
+            }
+        } catch (NumberFormatException e) {
+            return CompletableFuture.completedFuture(
+                ResponseEntity.badRequest().body(Map.of("error", "Invalid number: " + e.getMessage()))
+            );
+        }
+
+        // Handle skills update (Skill Matrix feature)
+        if (profileData.containsKey("skills")) {
+            Object skillsObj = profileData.get("skills");
+            Map<String, String> skillsMap = new java.util.HashMap<>();
+
+            System.out.println("=== AuthController: Processing Skills ===");
+            System.out.println("Skills object type: " + (skillsObj != null ? skillsObj.getClass().getName() : "null"));
+            System.out.println("Skills object value: " + skillsObj);
+
+            if (skillsObj instanceof Map) {
+                // Handle Map (typical case from JSON deserialization)
+                @SuppressWarnings("unchecked")
+                Map<String, Object> rawMap = (Map<String, Object>) skillsObj;
+                for (Map.Entry<String, Object> entry : rawMap.entrySet()) {
+                    if (entry.getKey() != null && entry.getValue() != null) {
+                        skillsMap.put(entry.getKey(), String.valueOf(entry.getValue()));
                     }
                 }
-                if (profileData.containsKey("baseSalary")) {
-                    Object salary = profileData.get("baseSalary");
-                    if (salary instanceof Number) {
-                        existingUser.setBaseSalary(((Number) salary).doubleValue());
-                    } else if (salary instanceof String) {
-                        existingUser.setBaseSalary(Double.parseDouble((String) salary));
+            } else if (skillsObj instanceof String) {
+                // Handle JSON string (parse it)
+                try {
+                    com.google.gson.JsonObject jsonSkills = com.google.gson.JsonParser.parseString((String) skillsObj).getAsJsonObject();
+                    for (String key : jsonSkills.keySet()) {
+                        skillsMap.put(key, jsonSkills.get(key).getAsString());
                     }
+                } catch (Exception e) {
+                    System.err.println("Failed to parse skills JSON string: " + e.getMessage());
                 }
+            }
 
-                // Handle skills update (Skill Matrix feature)
-                if (profileData.containsKey("skills")) {
-                    Object skillsObj = profileData.get("skills");
-                    Map<String, String> skillsMap = new java.util.HashMap<>();
-
-                    System.out.println("=== AuthController: Processing Skills ===");
-                    System.out.println("Skills object type: " + (skillsObj != null ? skillsObj.getClass().getName() : "null"));
-                    System.out.println("Skills object value: " + skillsObj);
-
-                    if (skillsObj instanceof Map) {
-                        // Handle Map (typical case from JSON deserialization)
-                        @SuppressWarnings("unchecked")
-                        Map<String, Object> rawMap = (Map<String, Object>) skillsObj;
-                        for (Map.Entry<String, Object> entry : rawMap.entrySet()) {
-                            if (entry.getKey() != null && entry.getValue() != null) {
-                                skillsMap.put(entry.getKey(), String.valueOf(entry.getValue()));
-                            }
-                        }
-                    } else if (skillsObj instanceof String) {
-                        // Handle JSON string (parse it)
-                        try {
-                            com.google.gson.JsonObject jsonSkills = com.google.gson.JsonParser.parseString((String) skillsObj).getAsJsonObject();
-                            for (String key : jsonSkills.keySet()) {
-                                skillsMap.put(key, jsonSkills.get(key).getAsString());
-                            }
-                        } catch (Exception e) {
-                            System.err.println("Failed to parse skills JSON string: " + e.getMessage());
-                        }
-                    }
+            System.out.println("Parsed skills map: " + skillsMap);
+            System.out.println("=========================================");
+        }
 
-                    System.out.println("Parsed skills map: " + skillsMap);
-                    System.out.println("=========================================");
+        // Existence check from the user cache/snapshot: patching an unknown id would create a partial user node
+        return userService.getUserById(userId)
+            .<ResponseEntity<Object>>thenCompose(existingUser -> {
+                if (existingUser == null) {
+                    return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
                 }
-
-                return userService.updateUser(existingUser)
-                    .<ResponseEntity<Object>>thenApply(updated -> ResponseEntity.ok(Map.of(
-                        "message", "Profile updated successfully",
+                User updated = withChanges(existingUser, changes);
+                if (changes.isEmpty()) {
+                    return CompletableFuture.completedFuture(ResponseEntity.ok(Map.of(
+                        "message", "Nothing to update",
+                        "userId", userId,
                         "user", updated
                     )));
+                }
+                return userService.patchUser(userId, changes)
+                    .<ResponseEntity<Object>>thenApply(v -> ResponseEntity.ok(Map.of(
+                        "message", "Profile updated successfully",
+                        "userId", userId,
+                        "user", updated,
+                        "updated", changes
+                    )));
             })
             .exceptionally(ex -> {
                 ex.printStackTrace();
@@ -243,6 +258,20 @@ public class AuthController {
             });
     }
 
+    /**
+     * Copy of the user with the patched profile fields applied (cached users are shared, never mutate them).
+     */
+    private static User withChanges(User u, Map<String, Object> changes) {
+        User copy = new User(u.getId(), u.getUsername(), u.getEmail(), u.getPassword(), u.getFullName(),
+                u.getPhone(), u.getRole(), u.getBaseSalary(), u.getHourlyRateOT(), u.getSalaryType(),
+                u.getOtp(), u.getOtpExpiry());
+        if (changes.containsKey("fullName")) copy.setFullName((String) changes.get("fullName"));
+        if (changes.containsKey("phone")) copy.setPhone((String) changes.get("phone"));
+        if (changes.containsKey("hourlyRateOT")) copy.setHourlyRateOT((Double) changes.get("hourlyRateOT"));
+        if (changes.containsKey("baseSalary")) copy.setBaseSalary((Double) changes.get("baseSalary"));
+        return copy;
+    }
+
     /**
      * Change password endpoint.
      * POST /api/v1/auth/change-password
@@ -292,11 +321,9 @@ public class AuthController {
                     );
                 }
 
-                // Update to new password
-                user.setPassword(newPassword);
-
-                return userService.updateUser(user)
-                    .<ResponseEntity<Object>>thenApply(updated -> ResponseEntity.ok(Map.of(
+                // Update to new password (single-field write)
+                return userService.patchUser(user.getId(), Map.of("password", newPassword))
+                    .<ResponseEntity<Object>>thenApply(v -> ResponseEntity.ok(Map.of(
                         "message", "Password changed successfully"
                     )));
             })
@@ -339,12 +366,10 @@ public class AuthController {
                 LocalDateTime expiry = LocalDateTime.now().plusMinutes(10);
                 String expiryString = expiry.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 
-                // Save OTP to user
-                user.setOtp(otp);
-                user.setOtpExpiry(expiryString);
-
-                CompletableFuture<ResponseEntity<Object>> updateResult = userService.updateUser(user)
-                    .thenApply(updated -> {
+                // Save OTP to user (only the OTP fields are written)
+                CompletableFuture<ResponseEntity<Object>> updateResult = userService
+                    .patchUser(user.getId(), Map.of("otp", otp, "otpExpiry", expiryString))
+                    .thenApply(v -> {
                         // Send OTP email
                         try {
                             emailService.sendOtpEmail(email, otp);
@@ -427,13 +452,14 @@ public class AuthController {
                     }
                 }
 
-                // Update password and clear OTP
-                user.setPassword(newPassword);
-                user.setOtp(null);
-                user.setOtpExpiry(null);
+                // Update password and clear OTP (null removes the field)
+                Map<String, Object> changes = new java.util.HashMap<>();
+                changes.put("password", newPassword);
+                changes.put("otp", null);
+                changes.put("otpExpiry", null);
 
-                return userService.updateUser(user)
-                    .<ResponseEntity<Object>>thenApply(updated -> ResponseEntity.ok(Map.of(
+                return userService.patchUser(user.getId(), changes)
+                    .<ResponseEntity<Object>>thenApply(v -> ResponseEntity.ok(Map.of(
                         "message", "Password reset successfully. You can now login with your new password."
                     )));
             })
@@ -1,69 +1,37 @@
 package com.techforge.erp.controller;
 
+import com.techforge.erp.firebase.codec.Codecs;
 import com.techforge.erp.model.Client;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
+import com.techforge.erp.service.ClientService;
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.ValueEventListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/clients")
 public class ClientController {
 
     private final DatabaseReference clientsRef;
+    private final ClientService clientService;
 
-    public ClientController() {
+    @Autowired
+    public ClientController(ClientService clientService) {
         DatabaseReference root = FirebaseDatabase.getInstance().getReference("LTUD10");
         this.clientsRef = root.child("clients");
+        this.clientService = clientService;
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllClients() {
-        List<Client> result = new ArrayList<>();
-        CountDownLatch latch = new CountDownLatch(1);
-
-        try {
-            clientsRef.addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(DataSnapshot snapshot) {
-                    try {
-                        if (snapshot != null && snapshot.exists()) {
-                            for (DataSnapshot child : snapshot.getChildren()) {
-                                try {
-                                    Client c = child.getValue(Client.class);
-                                    if (c != null) {
-                                        c.setId(child.getKey());
-                                        result.add(c);
-                                    }
-                                } catch (Exception ex) {
-                                    // skip malformed
-                                }
-                            }
-                        }
-                    } finally {
-                        latch.countDown();
-                    }
-                }
-
-                @Override
-                public void onCancelled(DatabaseError error) {
-                    latch.countDown();
-                }
-            });
-
-            latch.await(5, TimeUnit.SECONDS);
-            return ResponseEntity.ok(result);
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body("Error fetching clients: " + e.getMessage());
-        }
+    public CompletableFuture<ResponseEntity<Object>> getAllClients(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.of("clients", null, clientService.dataVersion());
+        return ETags.conditional(ifNoneMatch, etag, () -> clientService.getAllClients()
+                .<ResponseEntity<Object>>thenApply(list -> ResponseEntity.ok(list))
+                .exceptionally(ex -> ResponseEntity.status(500).body("Error fetching clients: " + ex.getMessage())));
     }
 
     @PostMapping
@@ -73,7 +41,7 @@ public class ClientController {
             String key = clientsRef.push().getKey();
             if (key == null) return ResponseEntity.status(500).body("Failed to generate client id");
             client.setId(key);
-            clientsRef.child(key).setValueAsync(client).addListener(() -> {}, Runnable::run);
+            clientsRef.child(key).setValueAsync(Codecs.CLIENT.encode(client)).addListener(() -> {}, Runnable::run);
             return ResponseEntity.ok(client);
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error creating client: " + e.getMessage());
@@ -0,0 +1,83 @@
+package com.techforge.erp.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Strong ETags derived from data versions, and If-None-Match handling for GET endpoints.
+ *
+ * The tag is built from the versions read BEFORE the response is computed, so a response is never
+ * labelled with a version newer than its data. A negative version means "not trackable right now"
+ * (e.g. mirror still syncing): no ETag is sent and the request is served normally.
+ */
+final class ETags {
+
+    // versions restart at 0 with the process
+    private static final String BOOT = Long.toString(System.currentTimeMillis(), 36);
+
+    private ETags() {
+    }
+
+    /**
+     * @param resource short name of the endpoint, e.g. "tasks"
+     * @param variant  anything else the body depends on (query parameters, requester), may be null
+     * @return the quoted tag, or null if any version is negative
+     */
+    static String of(String resource, String variant, long... versions) {
+        StringBuilder sb = new StringBuilder("\"").append(resource).append('-').append(BOOT);
+        for (long v : versions) {
+            if (v < 0) return null;
+            sb.append('-').append(v);
+        }
+        if (variant != null && !variant.isEmpty()) {
+            sb.append('-').append(digest(variant));
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * First 128 bits of the SHA-256 of the variant, base64url: distinct variants must never share a tag,
+     * or If-None-Match would answer 304 for a different body.
+     */
+    private static String digest(String variant) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(variant.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String c = candidate.trim();
+            if (c.equals("*") || c.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 304 when the client already has this tag; otherwise the computed response with the tag added
+     * to successful results.
+     */
+    static CompletableFuture<ResponseEntity<Object>> conditional(String ifNoneMatch, String etag,
+                                                                  Supplier<CompletableFuture<ResponseEntity<Object>>> response) {
+        if (etag == null) return response.get();
+        if (matches(ifNoneMatch, etag)) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+        }
+        return response.get().thenApply(r -> {
+            if (!r.getStatusCode().is2xxSuccessful()) return r;
+            return ResponseEntity.status(r.getStatusCode()).headers(r.getHeaders()).eTag(etag).body(r.getBody());
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package com.techforge.erp.controller;
 
+import com.techforge.erp.firebase.Pagination;
 import com.techforge.erp.model.Expense;
 import com.techforge.erp.model.Invoice;
 import com.techforge.erp.model.Payroll;
@@ -7,10 +8,11 @@ import com.techforge.erp.service.FinanceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.YearMonth;
 import java.util.concurrent.CompletableFuture;
 
 @RestController
@@ -37,21 +39,29 @@ public class FinanceController {
 
     @GetMapping("/payroll")
     @Operation(summary = "Get all payroll records")
-    public CompletableFuture<ResponseEntity<Object>> getAllPayroll() {
-        return financeService.getAllPayroll()
+    public CompletableFuture<ResponseEntity<Object>> getAllPayroll(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // the table is for the current month
+        String etag = ETags.of("payroll", YearMonth.now().toString(), financeService.payrollVersion());
+        return ETags.conditional(ifNoneMatch, etag, () -> financeService.getAllPayroll()
                 .<ResponseEntity<Object>>thenApply(list -> ResponseEntity.ok(list))
-                .exceptionally(ex -> ResponseEntity.status(500).body("Error fetching payroll: " + ex.getMessage()));
+                .exceptionally(ex -> ResponseEntity.status(500).body("Error fetching payroll: " + ex.getMessage())));
     }
 
     @GetMapping("/transactions")
     @Operation(summary = "Get payroll transaction history")
-    public ResponseEntity<Object> getTransactionHistory() {
+    public CompletableFuture<ResponseEntity<Object>> getTransactionHistory(@RequestParam(required = false) Integer limit,
+                                                                           @RequestParam(required = false) String cursor) {
+        CompletableFuture<?> result;
         try {
-            List<Payroll> list = financeService.getTransactionHistory();
-            return ResponseEntity.ok(list);
-        } catch (Exception e) {
-            return ResponseEntity.status(500).body("Error fetching transaction history: " + e.getMessage());
+            result = Pagination.isRequested(limit, cursor)
+                    ? financeService.getTransactionHistoryPage(Pagination.decodeCursor(cursor), Pagination.limit(limit))
+                    : financeService.getTransactionHistory();
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(e.getMessage()));
         }
+        return result
+                .<ResponseEntity<Object>>thenApply(body -> ResponseEntity.ok(body))
+                .exceptionally(ex -> ResponseEntity.status(500).body("Error fetching transaction history: " + ex.getMessage()));
     }
 
     @PostMapping("/pay")
@@ -1,13 +1,19 @@
 package com.techforge.erp.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techforge.erp.firebase.Pagination;
 import com.techforge.erp.model.Project;
+import com.techforge.erp.model.Task;
 import com.techforge.erp.service.ProjectService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 @RestController
@@ -18,6 +24,9 @@ public class ProjectController {
     @Autowired
     private ProjectService projectService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     @Operation(summary = "Create a new project")
     public CompletableFuture<ResponseEntity<Object>> createProject(@RequestBody Project project) {
@@ -29,9 +38,60 @@ public class ProjectController {
                 });
     }
 
+    /**
+     * Create a project and its initial tasks in one atomic write.
+     * Body: {"project": {...}, "tasks": [{...}, ...]}
+     */
+    @PostMapping("/with-tasks")
+    @Operation(summary = "Create a project together with its initial tasks")
+    public CompletableFuture<ResponseEntity<Object>> createProjectWithTasks(@RequestBody Map<String, Object> body) {
+        Project project;
+        List<Task> tasks;
+        try {
+            project = objectMapper.convertValue(body.get("project"), Project.class);
+            tasks = body.get("tasks") == null ? List.of()
+                    : objectMapper.convertValue(body.get("tasks"), objectMapper.getTypeFactory().constructCollectionType(List.class, Task.class));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Invalid request: " + e.getMessage()));
+        }
+        if (project == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("project is required"));
+        }
+
+        return projectService.createProjectWithTasks(project, tasks)
+                .<ResponseEntity<Object>>thenApply(saved -> ResponseEntity.ok(saved))
+                .exceptionally(ex -> {
+                    ex.printStackTrace();
+                    return ResponseEntity.status(500).body("Server error: " + ex.getMessage());
+                });
+    }
+
     @GetMapping
-    @Operation(summary = "Get all projects")
-    public CompletableFuture<ResponseEntity<Object>> getAllProjects() {
+    @Operation(summary = "Get all projects, or one page of them when limit/cursor is given")
+    public CompletableFuture<ResponseEntity<Object>> getAllProjects(@RequestParam(required = false) Integer limit,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.of("projects", limit + "/" + cursor, projectService.dataVersion());
+        return ETags.conditional(ifNoneMatch, etag, () -> listProjects(limit, cursor));
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> listProjects(Integer limit, String cursor) {
+        if (Pagination.isRequested(limit, cursor)) {
+            String afterKey;
+            int pageSize;
+            try {
+                afterKey = Pagination.decodeCursor(cursor);
+                pageSize = Pagination.limit(limit);
+            } catch (IllegalArgumentException e) {
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(e.getMessage()));
+            }
+            return projectService.getProjectsPage(afterKey, pageSize)
+                    .<ResponseEntity<Object>>thenApply(page -> ResponseEntity.ok(page))
+                    .exceptionally(ex -> {
+                        ex.printStackTrace();
+                        return ResponseEntity.status(500).body("Server error: " + ex.getMessage());
+                    });
+        }
         return projectService.getAllProjects()
                 .<ResponseEntity<Object>>thenApply(list -> ResponseEntity.ok(list))
                 .exceptionally(ex -> {
@@ -42,8 +102,10 @@ public class ProjectController {
 
     @GetMapping("/{id}")
     @Operation(summary = "Get project by id")
-    public CompletableFuture<ResponseEntity<Object>> getProjectById(@PathVariable String id) {
-        return projectService.getProjectById(id)
+    public CompletableFuture<ResponseEntity<Object>> getProjectById(@PathVariable String id,
+                                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.of("project", id, projectService.dataVersion());
+        return ETags.conditional(ifNoneMatch, etag, () -> projectService.getProjectById(id)
                 .<ResponseEntity<Object>>thenApply(p -> {
                     if (p == null) return ResponseEntity.notFound().build();
                     return ResponseEntity.ok(p);
@@ -51,7 +113,7 @@ public class ProjectController {
                 .exceptionally(ex -> {
                     ex.printStackTrace();
                     return ResponseEntity.status(500).body("Server error: " + ex.getMessage());
-                });
+                }));
     }
 
     @PutMapping("/{id}")
@@ -1,14 +1,22 @@
 package com.techforge.erp.controller;
 
 import com.techforge.erp.model.*;
+import com.techforge.erp.service.ProjectStatsService;
+import com.techforge.erp.service.ReportExportService;
 import com.techforge.erp.service.ReportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 
@@ -22,10 +30,15 @@ import java.util.concurrent.CompletableFuture;
 public class ReportController {
 
     private final ReportService reportService;
+    private final ProjectStatsService projectStatsService;
+    private final ReportExportService reportExportService;
 
     @Autowired
-    public ReportController(ReportService reportService) {
+    public ReportController(ReportService reportService, ProjectStatsService projectStatsService,
+                            ReportExportService reportExportService) {
         this.reportService = reportService;
+        this.projectStatsService = projectStatsService;
+        this.reportExportService = reportExportService;
     }
 
     /**
@@ -71,6 +84,58 @@ public class ReportController {
             });
     }
 
+    /**
+     * Reports of all projects with their totals in one response, for dashboards.
+     */
+    @GetMapping("/portfolio")
+    @Operation(summary = "Get the project reports of all projects in one response")
+    public CompletableFuture<ResponseEntity<Object>> getPortfolioReport() {
+        return reportService.generatePortfolioReport()
+            .thenApply(report -> ResponseEntity.ok((Object) report))
+            .exceptionally(e -> {
+                Map<String, Object> error = new HashMap<>();
+                error.put("error", "Failed to generate portfolio report: " + e.getMessage());
+                return ResponseEntity.status(500).body(error);
+            });
+    }
+
+    /**
+     * Recompute the stored projectStats aggregate of one project from its tasks and worklogs.
+     */
+    @PostMapping("/project/{projectId}/stats/rebuild")
+    @Operation(summary = "Rebuild the statistics aggregate of a project")
+    public CompletableFuture<ResponseEntity<Object>> rebuildProjectStats(@PathVariable String projectId) {
+        return projectStatsService.rebuild(projectId)
+            .thenApply(stats -> {
+                reportService.invalidateProject(projectId);
+                return ResponseEntity.ok((Object) stats);
+            })
+            .exceptionally(e -> {
+                Map<String, Object> error = new HashMap<>();
+                error.put("error", "Failed to rebuild project stats: " + e.getMessage());
+                error.put("projectId", projectId);
+                return ResponseEntity.status(500).body(error);
+            });
+    }
+
+    /**
+     * Recompute the projectStats aggregate of every project.
+     */
+    @PostMapping("/stats/rebuild")
+    @Operation(summary = "Rebuild the statistics aggregates of all projects")
+    public CompletableFuture<ResponseEntity<Object>> rebuildAllProjectStats() {
+        return projectStatsService.rebuildAll()
+            .thenApply(count -> {
+                reportService.invalidateAll();
+                return ResponseEntity.ok((Object) Map.of("rebuilt", count));
+            })
+            .exceptionally(e -> {
+                Map<String, Object> error = new HashMap<>();
+                error.put("error", "Failed to rebuild project stats: " + e.getMessage());
+                return ResponseEntity.status(500).body(error);
+            });
+    }
+
     /**
      * Get project progress with risk analysis.
      * Uses ReportService.getProjectProgress for real data.
@@ -87,6 +152,22 @@ public class ReportController {
             });
     }
 
+    /**
+     * Progress and risk of many projects in one response (all projects when projectIds is omitted).
+     */
+    @GetMapping("/progress")
+    @Operation(summary = "Get progress and risk analysis of many projects")
+    public CompletableFuture<ResponseEntity<Object>> getProjectsProgress(
+            @RequestParam(required = false) List<String> projectIds) {
+        return reportService.getProjectsProgress(projectIds)
+            .thenApply(progress -> ResponseEntity.ok((Object) progress))
+            .exceptionally(e -> {
+                Map<String, Object> error = new HashMap<>();
+                error.put("error", "Failed to get progress: " + e.getMessage());
+                return ResponseEntity.status(500).body(error);
+            });
+    }
+
     /**
      * Get monthly report with revenue, expense, and payroll totals.
      * Uses ReportService.generateMonthlyReport for real data.
@@ -111,6 +192,49 @@ public class ReportController {
             });
     }
 
+    /**
+     * Export the worklogs (or, with type=payroll, the payroll records) of a date range as CSV or NDJSON.
+     * Rows are written to the response as they are read, so the body is sent chunked and never held in memory.
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Stream the worklogs or payroll records of a date range as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportReport(
+            @RequestParam(required = false) String type,
+            @RequestParam String startDate,
+            @RequestParam String endDate,
+            @RequestParam(required = false) String format) {
+
+        ReportExportService.Dataset dataset = ReportExportService.Dataset.of(type);
+        ReportExportService.Format exportFormat;
+        LocalDate from;
+        LocalDate to;
+        try {
+            exportFormat = ReportExportService.Format.of(format);
+            from = LocalDate.parse(startDate);
+            to = LocalDate.parse(endDate);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return textResponse(400, e.getMessage());
+        }
+        if (to.isBefore(from)) {
+            return textResponse(400, "endDate must not be before startDate");
+        }
+
+        String fileName = dataset.name().toLowerCase() + "-" + from + "-" + to + "."
+                + (exportFormat == ReportExportService.Format.CSV ? "csv" : "ndjson");
+        StreamingResponseBody body = out -> reportExportService.export(dataset, exportFormat, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> textResponse(int status, String message) {
+        byte[] bytes = String.valueOf(message).getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.status(status)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(out -> out.write(bytes));
+    }
+
     /**
      * Helper method to create activity map (fallback).
      */
@@ -0,0 +1,59 @@
+package com.techforge.erp.controller;
+
+import com.techforge.erp.config.PrincipalCache;
+import com.techforge.erp.event.ChangeEventBus;
+import com.techforge.erp.firebase.ContinuationExecutor;
+import com.techforge.erp.service.AIService;
+import com.techforge.erp.service.ReportCache;
+import com.techforge.erp.service.UserCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runtime metrics for operators (ADMIN only, see RoleInterceptor).
+ */
+@RestController
+@RequestMapping("/api/v1/system")
+@Tag(name = "System", description = "Runtime metrics")
+public class SystemController {
+
+    private final ContinuationExecutor continuationExecutor;
+    private final ChangeEventBus eventBus;
+    private final UserCache userCache;
+    private final PrincipalCache principalCache;
+    private final ReportCache reportCache;
+    private final AIService aiService;
+
+    @Autowired
+    public SystemController(ContinuationExecutor continuationExecutor, ChangeEventBus eventBus,
+                            UserCache userCache, PrincipalCache principalCache, ReportCache reportCache,
+                            AIService aiService) {
+        this.continuationExecutor = continuationExecutor;
+        this.eventBus = eventBus;
+        this.userCache = userCache;
+        this.principalCache = principalCache;
+        this.reportCache = reportCache;
+        this.aiService = aiService;
+    }
+
+    @GetMapping("/metrics")
+    @Operation(summary = "Get runtime metrics (continuation executor and event bus queue depth, ...)")
+    public ResponseEntity<Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("continuationExecutor", continuationExecutor.metrics());
+        metrics.put("eventBus", eventBus.metrics());
+        metrics.put("userCache", userCache.stats());
+        metrics.put("principalCache", principalCache.stats());
+        metrics.put("reportCache", reportCache.stats());
+        metrics.put("aiCache", aiService.cacheStats());
+        return ResponseEntity.ok(metrics);
+    }
+}
@@ -1,5 +1,7 @@
 package com.techforge.erp.controller;
 
+import com.techforge.erp.firebase.Pagination;
+import com.techforge.erp.model.Page;
 import com.techforge.erp.model.Task;
 import com.techforge.erp.model.User;
 import com.techforge.erp.service.TaskService;
@@ -7,12 +9,15 @@ import com.techforge.erp.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/tasks")
@@ -36,6 +41,20 @@ public class TaskController {
                 });
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create many tasks in one atomic write")
+    public CompletableFuture<ResponseEntity<Object>> createTasks(@RequestBody List<Task> tasks) {
+        if (tasks == null || tasks.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("tasks are required"));
+        }
+        return taskService.createTasks(tasks)
+                .<ResponseEntity<Object>>thenApply(saved -> ResponseEntity.ok(saved))
+                .exceptionally(ex -> {
+                    ex.printStackTrace();
+                    return ResponseEntity.status(500).body("Server error: " + ex.getMessage());
+                });
+    }
+
     /**
      * Get tasks with optional filtering.
      * - If ?projectId={id} is provided, filter by project.
@@ -44,68 +63,108 @@ public class TaskController {
      * - If user is MANAGER/ADMIN, return all (or filtered).
      */
     @GetMapping
-    @Operation(summary = "List tasks with optional filters (projectId, assignee)")
+    @Operation(summary = "List tasks with optional filters (projectId, assignee) and optional paging (limit, cursor)")
     public CompletableFuture<ResponseEntity<Object>> getAllTasks(
             @RequestParam(required = false) String assignee,
             @RequestParam(required = false) String projectId,
-            @RequestHeader(value = "X-Requester-ID", required = false) String requesterId) {
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = "X-Requester-ID", required = false) String requesterId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        // the result depends on the requester's role and email, hence the users version
+        String etag = ETags.of("tasks", assignee + "/" + projectId + "/" + limit + "/" + cursor + "/" + requesterId,
+                taskService.dataVersion(), userService.dataVersion());
+        return ETags.conditional(ifNoneMatch, etag, () -> listTasks(assignee, projectId, limit, cursor, requesterId));
+    }
 
+    private CompletableFuture<ResponseEntity<Object>> listTasks(String assignee, String projectId, Integer limit,
+                                                                String cursor, String requesterId) {
         System.out.println("[TaskController] getAllTasks called with: assignee=" + assignee + ", projectId=" + projectId + ", requesterId=" + requesterId);
 
-        return taskService.getAllTasks()
-                .thenCompose(tasks -> {
-                    System.out.println("[TaskController] Total tasks from DB: " + tasks.size());
-
-                    // PRIORITY 1: Filter by projectId if provided
-                    List<Task> filtered = tasks;
-                    if (projectId != null && !projectId.isEmpty()) {
-                        filtered = tasks.stream()
-                                .filter(t -> projectId.equals(t.getProjectId()))
-                                .collect(Collectors.toList());
-                        System.out.println("[TaskController] After projectId filter: " + filtered.size() + " tasks");
-                        // When filtering by project, return all tasks for that project regardless of user
-                        return CompletableFuture.completedFuture(filtered);
+        // Paging is opt-in: without limit/cursor the response stays a plain JSON array
+        String afterKey = null;
+        Integer pageSize = null;
+        if (Pagination.isRequested(limit, cursor)) {
+            try {
+                afterKey = Pagination.decodeCursor(cursor);
+                pageSize = Pagination.limit(limit);
+            } catch (IllegalArgumentException e) {
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(e.getMessage()));
+            }
+        }
+        final String after = afterKey;
+        final Integer size = pageSize;
+
+        // PRIORITY 1: Filter by projectId if provided
+        // When filtering by project, return all tasks for that project regardless of user
+        if (projectId != null && !projectId.isEmpty()) {
+            return respond(taskService.getTasksByProjectId(projectId).thenApply(list -> body(list, after, size)));
+        }
+
+        // If no requester ID, just return all tasks (for unauthenticated access if allowed)
+        if (requesterId == null || requesterId.isEmpty()) {
+            if (assignee != null && !assignee.isEmpty()) {
+                return respond(taskService.getTasksByAssigneeEmail(assignee).thenApply(list -> body(list, after, size)));
+            }
+            return respond(allTasks(after, size));
+        }
+
+        // Get user to check role
+        CompletableFuture<Object> tasksF = userService.getUserById(requesterId)
+                .thenCompose(user -> {
+                    if (user == null) {
+                        return allTasks(after, size); // Return all if user not found
                     }
 
-                    // If no requester ID, just return all tasks (for unauthenticated access if allowed)
-                    if (requesterId == null || requesterId.isEmpty()) {
-                        if (assignee != null && !assignee.isEmpty()) {
-                            filtered = tasks.stream()
-                                    .filter(t -> assignee.equalsIgnoreCase(t.getAssigneeEmail()))
-                                    .collect(Collectors.toList());
-                            return CompletableFuture.completedFuture(filtered);
-                        }
-                        return CompletableFuture.completedFuture(tasks);
+                    String role = user.getRole();
+
+                    // EMPLOYEE: Only see their own tasks (by user id or by email)
+                    if ("EMPLOYEE".equalsIgnoreCase(role)) {
+                        CompletableFuture<List<Task>> byIdF = taskService.getTasksByAssignedUserId(requesterId);
+                        CompletableFuture<List<Task>> byEmailF = user.getEmail() != null
+                                ? taskService.getTasksByAssigneeEmail(user.getEmail())
+                                : CompletableFuture.completedFuture(List.of());
+                        return byIdF.thenCombine(byEmailF, (byId, byEmail) -> {
+                            // merged in key order so pages follow the same order as the other listings
+                            Map<String, Task> merged = new TreeMap<>();
+                            for (Task t : byId) merged.put(t.getId(), t);
+                            for (Task t : byEmail) merged.putIfAbsent(t.getId(), t);
+                            return body(new ArrayList<>(merged.values()), after, size);
+                        });
                     }
 
-                    // Get user to check role
-                    return userService.getUserById(requesterId)
-                            .thenApply(user -> {
-                                if (user == null) {
-                                    return tasks; // Return all if user not found
-                                }
-
-                                String role = user.getRole();
-
-                                // EMPLOYEE: Only see their own tasks
-                                if ("EMPLOYEE".equalsIgnoreCase(role)) {
-                                    return tasks.stream()
-                                            .filter(t -> requesterId.equals(t.getAssignedUserId())
-                                                    || (user.getEmail() != null && user.getEmail().equalsIgnoreCase(t.getAssigneeEmail())))
-                                            .collect(Collectors.toList());
-                                }
-
-                                // MANAGER/ADMIN: See all, but can filter by assignee
-                                if (assignee != null && !assignee.isEmpty()) {
-                                    return tasks.stream()
-                                            .filter(t -> assignee.equalsIgnoreCase(t.getAssigneeEmail()))
-                                            .collect(Collectors.toList());
-                                }
-
-                                return tasks;
-                            });
+                    // MANAGER/ADMIN: See all, but can filter by assignee
+                    if (assignee != null && !assignee.isEmpty()) {
+                        return taskService.getTasksByAssigneeEmail(assignee).thenApply(list -> body(list, after, size));
+                    }
+
+                    return allTasks(after, size);
+                });
+
+        return respond(tasksF);
+    }
+
+    /**
+     * The whole collection, or one page of it straight from the key-ordered store.
+     */
+    private CompletableFuture<Object> allTasks(String afterKey, Integer pageSize) {
+        if (pageSize == null) return taskService.getAllTasks().thenApply(list -> list);
+        return taskService.getTasksPage(afterKey, pageSize).thenApply(page -> page);
+    }
+
+    private Object body(List<Task> list, String afterKey, Integer pageSize) {
+        return pageSize == null ? list : Pagination.slice(list, Task::getId, afterKey, pageSize);
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> respond(CompletableFuture<Object> tasksF) {
+        return tasksF
+                .thenApply(body -> {
+                    int count = body instanceof Page ? ((Page<?>) body).getItems().size() : ((List<?>) body).size();
+                    System.out.println("[TaskController] Returning " + count + " tasks");
+                    return body;
                 })
-                .<ResponseEntity<Object>>thenApply(list -> ResponseEntity.ok(list))
+                .<ResponseEntity<Object>>thenApply(body -> ResponseEntity.ok(body))
                 .exceptionally(ex -> {
                     ex.printStackTrace();
                     return ResponseEntity.status(500).body("Server error: " + ex.getMessage());
@@ -113,8 +172,10 @@ public class TaskController {
     }
 
     @GetMapping("/{id}")
-    public CompletableFuture<ResponseEntity<Object>> getTaskById(@PathVariable String id) {
-        return taskService.getTaskById(id)
+    public CompletableFuture<ResponseEntity<Object>> getTaskById(@PathVariable String id,
+                                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.of("task", id, taskService.dataVersion());
+        return ETags.conditional(ifNoneMatch, etag, () -> taskService.getTaskById(id)
                 .<ResponseEntity<Object>>thenApply(t -> {
                     if (t == null) return ResponseEntity.notFound().build();
                     return ResponseEntity.ok(t);
@@ -122,41 +183,18 @@ public class TaskController {
                 .exceptionally(ex -> {
                     ex.printStackTrace();
                     return ResponseEntity.status(500).body("Server error: " + ex.getMessage());
-                });
+                }));
     }
 
-    // POST endpoint for updating task status (used by Kanban drag & drop)
-    @PostMapping("/{id}")
+    // PATCH (and legacy POST) endpoint for partial updates, used by Kanban drag & drop.
+    // Only the fields present in the payload are written.
+    @RequestMapping(value = "/{id}", method = {RequestMethod.PATCH, RequestMethod.POST})
     @Operation(summary = "Update task fields or status (used by Kanban)")
-    public CompletableFuture<ResponseEntity<Object>> updateTaskStatus(@PathVariable String id, @RequestBody java.util.Map<String, Object> payload) {
-        return taskService.getTaskById(id)
-                .thenCompose(existingTask -> {
-                    if (existingTask == null) {
-                        return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
-                    }
-
-                    // Update only the fields provided in the payload
-                    if (payload.containsKey("status")) {
-                        existingTask.setStatus((String) payload.get("status"));
-                    }
-                    if (payload.containsKey("title")) {
-                        existingTask.setTitle((String) payload.get("title"));
-                    }
-                    if (payload.containsKey("priority")) {
-                        existingTask.setPriority((String) payload.get("priority"));
-                    }
-                    if (payload.containsKey("description")) {
-                        existingTask.setDescription((String) payload.get("description"));
-                    }
-                    if (payload.containsKey("assigneeEmail")) {
-                        existingTask.setAssigneeEmail((String) payload.get("assigneeEmail"));
-                    }
-                    if (payload.containsKey("assignedUserId")) {
-                        existingTask.setAssignedUserId((String) payload.get("assignedUserId"));
-                    }
-
-                    return taskService.updateTask(existingTask)
-                            .<ResponseEntity<Object>>thenApply(v -> ResponseEntity.ok(existingTask));
+    public CompletableFuture<ResponseEntity<Object>> updateTaskStatus(@PathVariable String id, @RequestBody Map<String, Object> payload) {
+        return taskService.patchTask(id, payload)
+                .<ResponseEntity<Object>>thenApply(updated -> {
+                    if (updated == null) return ResponseEntity.notFound().build();
+                    return ResponseEntity.ok(updated);
                 })
                 .exceptionally(ex -> {
                     ex.printStackTrace();
@@ -5,6 +5,7 @@ import com.techforge.erp.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -35,12 +36,13 @@ public class UserController {
 
     @GetMapping
     @Operation(summary = "Get all users")
-    public CompletableFuture<ResponseEntity<Object>> getAllUsers() {
-        return userService.getAllUsers()
+    public CompletableFuture<ResponseEntity<Object>> getAllUsers(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.of("users", null, userService.dataVersion());
+        return ETags.conditional(ifNoneMatch, etag, () -> userService.getAllUsers()
                 .<ResponseEntity<Object>>thenApply(list -> ResponseEntity.ok(list))
                 .exceptionally(ex -> {
                     ex.printStackTrace();
                     return ResponseEntity.status(500).body("Server error: " + ex.getMessage());
-                });
+                }));
     }
 }
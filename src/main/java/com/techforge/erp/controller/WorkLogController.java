@@ -1,13 +1,16 @@
 package com.techforge.erp.controller;
 
+import com.techforge.erp.firebase.Pagination;
 import com.techforge.erp.model.WorkLog;
 import com.techforge.erp.service.WorkLogService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 @RestController
@@ -29,9 +32,46 @@ public class WorkLogController {
                 });
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create many work log entries in one atomic write")
+    public CompletableFuture<ResponseEntity<Object>> createWorkLogs(@RequestBody List<WorkLog> workLogs) {
+        if (workLogs == null || workLogs.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("worklogs are required"));
+        }
+        return workLogService.createWorkLogs(workLogs)
+                .<ResponseEntity<Object>>thenApply(saved -> ResponseEntity.ok(saved))
+                .exceptionally(ex -> {
+                    ex.printStackTrace();
+                    return ResponseEntity.status(500).body("Server error: " + ex.getMessage());
+                });
+    }
+
     @GetMapping
-    @Operation(summary = "Get all work logs")
-    public CompletableFuture<ResponseEntity<Object>> getAllWorkLogs() {
+    @Operation(summary = "Get all work logs, or one page of them when limit/cursor is given")
+    public CompletableFuture<ResponseEntity<Object>> getAllWorkLogs(@RequestParam(required = false) Integer limit,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.of("worklogs", limit + "/" + cursor, workLogService.dataVersion());
+        return ETags.conditional(ifNoneMatch, etag, () -> listWorkLogs(limit, cursor));
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> listWorkLogs(Integer limit, String cursor) {
+        if (Pagination.isRequested(limit, cursor)) {
+            String afterKey;
+            int pageSize;
+            try {
+                afterKey = Pagination.decodeCursor(cursor);
+                pageSize = Pagination.limit(limit);
+            } catch (IllegalArgumentException e) {
+                return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(e.getMessage()));
+            }
+            return workLogService.getWorkLogsPage(afterKey, pageSize)
+                    .<ResponseEntity<Object>>thenApply(page -> ResponseEntity.ok(page))
+                    .exceptionally(ex -> {
+                        ex.printStackTrace();
+                        return ResponseEntity.status(500).body("Server error: " + ex.getMessage());
+                    });
+        }
         return workLogService.getAllWorkLogs()
                 .<ResponseEntity<Object>>thenApply(list -> ResponseEntity.ok(list))
                 .exceptionally(ex -> {
@@ -41,8 +81,10 @@ public class WorkLogController {
     }
 
     @GetMapping("/{id}")
-    public CompletableFuture<ResponseEntity<Object>> getWorkLogById(@PathVariable String id) {
-        return workLogService.getWorkLogById(id)
+    public CompletableFuture<ResponseEntity<Object>> getWorkLogById(@PathVariable String id,
+                                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.of("worklog", id, workLogService.dataVersion());
+        return ETags.conditional(ifNoneMatch, etag, () -> workLogService.getWorkLogById(id)
                 .<ResponseEntity<Object>>thenApply(w -> {
                     if (w == null) return ResponseEntity.notFound().build();
                     return ResponseEntity.ok(w);
@@ -50,6 +92,6 @@ public class WorkLogController {
                 .exceptionally(ex -> {
                     ex.printStackTrace();
                     return ResponseEntity.status(500).body("Server error: " + ex.getMessage());
-                });
+                }));
     }
 }
@@ -0,0 +1,78 @@
+package com.techforge.erp.event;
+
+/**
+ * A record in one LTUD10 collection was added, changed or removed.
+ *
+ * Task, worklog, project, client and user events are published by FirebaseMirror for every applied
+ * change, local or remote, and carry both values: previous is null only for ADDED, current only for
+ * REMOVED. PayrollChanged is published by FinanceService for a newly written record (ADDED).
+ * Values are shared with the mirror, do not mutate.
+ */
+public abstract class ChangeEvent<T> {
+
+    private final ChangeType type;
+    private final String id;
+    private final T previous;
+    private final T current;
+    private final long timestamp = System.currentTimeMillis();
+
+    protected ChangeEvent(ChangeType type, String id, T previous, T current) {
+        this.type = type;
+        this.id = id;
+        this.previous = previous;
+        this.current = current;
+    }
+
+    /**
+     * Name of the LTUD10 collection, e.g. "tasks".
+     */
+    public abstract String getCollection();
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public T getPrevious() {
+        return previous;
+    }
+
+    public T getCurrent() {
+        return current;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public boolean isAdded() {
+        return type == ChangeType.ADDED;
+    }
+
+    public boolean isRemoved() {
+        return type == ChangeType.REMOVED;
+    }
+
+    /**
+     * Events with the same key are delivered in publish order.
+     */
+    public String orderingKey() {
+        return getCollection() + "/" + id;
+    }
+
+    /**
+     * ADDED, CHANGED or REMOVED depending on which side is present.
+     */
+    protected static ChangeType typeOf(Object previous, Object current) {
+        if (previous == null) return current == null ? ChangeType.CHANGED : ChangeType.ADDED;
+        return current == null ? ChangeType.REMOVED : ChangeType.CHANGED;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" + type + " " + orderingKey() + "}";
+    }
+}
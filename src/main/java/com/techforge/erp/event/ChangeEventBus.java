@@ -0,0 +1,152 @@
+package com.techforge.erp.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-process bus for {@link ChangeEvent}s, fed by the Firebase mirrors and by service write paths.
+ *
+ * Events are spread over a fixed number of lanes by {@link ChangeEvent#orderingKey()}; each lane is
+ * one thread draining a bounded queue, so events for the same record are delivered in publish order
+ * while different records are handled in parallel. When a lane is full, publish waits up to
+ * publishTimeoutMillis (back-pressure on the Firebase event thread) and then drops the event with an error.
+ *
+ * Handlers run on the lane thread: they must be quick and must not block on Firebase.
+ */
+public class ChangeEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeEventBus.class);
+
+    private final List<Subscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+    private final Lane[] lanes;
+    private final int queueCapacity;
+    private final long publishTimeoutMillis;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong handlerErrors = new AtomicLong();
+    private final AtomicInteger maxQueued = new AtomicInteger();
+
+    private volatile boolean running = true;
+
+    public ChangeEventBus(int laneCount, int queueCapacity, long publishTimeoutMillis) {
+        this.queueCapacity = queueCapacity;
+        this.publishTimeoutMillis = publishTimeoutMillis;
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i, queueCapacity);
+            lanes[i].thread.start();
+        }
+    }
+
+    /**
+     * Receive every event of the given type (and its subtypes).
+     *
+     * @return a handle that removes the subscription when run
+     */
+    public <E extends ChangeEvent<?>> Runnable subscribe(Class<E> type, Consumer<? super E> handler) {
+        Subscription<E> subscription = new Subscription<>(type, handler);
+        subscriptions.add(subscription);
+        return () -> subscriptions.remove(subscription);
+    }
+
+    public void publish(ChangeEvent<?> event) {
+        if (event == null || !running) return;
+        Lane lane = lanes[Math.floorMod(event.orderingKey().hashCode(), lanes.length)];
+        published.incrementAndGet();
+        try {
+            if (!lane.queue.offer(event, publishTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                dropped.incrementAndGet();
+                logger.error("Change event lane {} full for {}ms, dropped {}", lane.index, publishTimeoutMillis, event);
+                return;
+            }
+            maxQueued.accumulateAndGet(lane.queue.size(), Math::max);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void dispatch(ChangeEvent<?> event) {
+        for (Subscription<?> subscription : subscriptions) {
+            try {
+                subscription.deliver(event);
+            } catch (Exception e) {
+                handlerErrors.incrementAndGet();
+                logger.warn("Change event handler failed for {}: {}", event, e.getMessage(), e);
+            }
+        }
+        delivered.incrementAndGet();
+    }
+
+    public Map<String, Object> metrics() {
+        int depth = 0;
+        for (Lane lane : lanes) depth += lane.queue.size();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("lanes", lanes.length);
+        m.put("queueCapacity", queueCapacity);
+        m.put("queueDepth", depth);
+        m.put("maxLaneDepth", maxQueued.get());
+        m.put("subscriptions", subscriptions.size());
+        m.put("published", published.get());
+        m.put("delivered", delivered.get());
+        m.put("dropped", dropped.get());
+        m.put("handlerErrors", handlerErrors.get());
+        return m;
+    }
+
+    public void shutdown() {
+        running = false;
+        for (Lane lane : lanes) lane.thread.interrupt();
+    }
+
+    private final class Lane implements Runnable {
+        private final int index;
+        private final BlockingQueue<ChangeEvent<?>> queue;
+        private final Thread thread;
+
+        Lane(int index, int capacity) {
+            this.index = index;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(this, "change-events-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    dispatch(queue.take());
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class Subscription<E extends ChangeEvent<?>> {
+        private final Class<E> type;
+        private final Consumer<? super E> handler;
+
+        Subscription(Class<E> type, Consumer<? super E> handler) {
+            this.type = type;
+            this.handler = handler;
+        }
+
+        void deliver(ChangeEvent<?> event) {
+            if (type.isInstance(event)) handler.accept(type.cast(event));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.techforge.erp.event;
+
+public enum ChangeType {
+    ADDED,
+    CHANGED,
+    REMOVED
+}
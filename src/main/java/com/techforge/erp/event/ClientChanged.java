@@ -0,0 +1,15 @@
+package com.techforge.erp.event;
+
+import com.techforge.erp.model.Client;
+
+public class ClientChanged extends ChangeEvent<Client> {
+
+    public ClientChanged(String id, Client previous, Client current) {
+        super(typeOf(previous, current), id, previous, current);
+    }
+
+    @Override
+    public String getCollection() {
+        return "clients";
+    }
+}
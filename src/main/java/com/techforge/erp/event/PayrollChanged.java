@@ -0,0 +1,15 @@
+package com.techforge.erp.event;
+
+import com.techforge.erp.model.Payroll;
+
+public class PayrollChanged extends ChangeEvent<Payroll> {
+
+    public PayrollChanged(String id, Payroll previous, Payroll current) {
+        super(typeOf(previous, current), id, previous, current);
+    }
+
+    @Override
+    public String getCollection() {
+        return "payrolls";
+    }
+}
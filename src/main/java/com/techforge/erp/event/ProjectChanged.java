@@ -0,0 +1,15 @@
+package com.techforge.erp.event;
+
+import com.techforge.erp.model.Project;
+
+public class ProjectChanged extends ChangeEvent<Project> {
+
+    public ProjectChanged(String id, Project previous, Project current) {
+        super(typeOf(previous, current), id, previous, current);
+    }
+
+    @Override
+    public String getCollection() {
+        return "projects";
+    }
+}
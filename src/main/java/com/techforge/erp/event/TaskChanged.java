@@ -0,0 +1,15 @@
+package com.techforge.erp.event;
+
+import com.techforge.erp.model.Task;
+
+public class TaskChanged extends ChangeEvent<Task> {
+
+    public TaskChanged(String id, Task previous, Task current) {
+        super(typeOf(previous, current), id, previous, current);
+    }
+
+    @Override
+    public String getCollection() {
+        return "tasks";
+    }
+}
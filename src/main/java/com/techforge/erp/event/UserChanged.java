@@ -0,0 +1,15 @@
+package com.techforge.erp.event;
+
+import com.techforge.erp.model.User;
+
+public class UserChanged extends ChangeEvent<User> {
+
+    public UserChanged(String id, User previous, User current) {
+        super(typeOf(previous, current), id, previous, current);
+    }
+
+    @Override
+    public String getCollection() {
+        return "users";
+    }
+}
@@ -0,0 +1,15 @@
+package com.techforge.erp.event;
+
+import com.techforge.erp.model.WorkLog;
+
+public class WorkLogChanged extends ChangeEvent<WorkLog> {
+
+    public WorkLogChanged(String id, WorkLog previous, WorkLog current) {
+        super(typeOf(previous, current), id, previous, current);
+    }
+
+    @Override
+    public String getCollection() {
+        return "worklogs";
+    }
+}
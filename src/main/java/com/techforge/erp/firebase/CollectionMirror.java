@@ -0,0 +1,342 @@
+package com.techforge.erp.firebase;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.ValueEventListener;
+import com.techforge.erp.firebase.codec.SnapshotCodec;
+import com.techforge.erp.model.Page;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Live in-memory copy of one LTUD10 collection.
+ *
+ * A persistent ChildEventListener keeps the map in sync with Firebase, so reads are answered
+ * from memory instead of downloading the whole collection on every request.
+ * Entries are kept in Firebase key order (push keys sort chronologically).
+ * Returned records are shared with the mirror: callers must copy before mutating.
+ *
+ * A mirror can be preloaded from a local snapshot before it starts. It then serves reads right away
+ * and the live sync reconciles on top: changed records are overwritten as their child events arrive
+ * and records deleted in the meantime are dropped once the initial sync completes.
+ * Write paths read through {@link #getSynced} / {@link #findBySynced}, never from the preloaded state.
+ */
+public class CollectionMirror<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CollectionMirror.class);
+
+    private final String name;
+    private final DatabaseReference ref;
+    private final SnapshotCodec<T> codec;
+
+    private final ConcurrentSkipListMap<String, T> entries = new ConcurrentSkipListMap<>();
+    private final Map<String, SecondaryIndex<T>> indexes = new ConcurrentHashMap<>();
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+    private final CompletableFuture<Void> synced = new CompletableFuture<>();
+    private final List<ChangeListener<T>> listeners = new CopyOnWriteArrayList<>();
+    // bumped after every applied change, see version()
+    private final AtomicLong version = new AtomicLong();
+    private boolean started = false;
+
+    /**
+     * Called on the Firebase event thread after a record was added (previous null), changed or removed (current null).
+     */
+    public interface ChangeListener<T> {
+        void changed(String key, T previous, T current);
+    }
+
+    public CollectionMirror(String name, DatabaseReference ref, SnapshotCodec<T> codec) {
+        this.name = name;
+        this.ref = ref;
+        this.codec = codec;
+    }
+
+    /**
+     * Register a secondary index. Must be called before {@link #start()}.
+     */
+    public CollectionMirror<T> addIndex(String indexName, Function<T, String> keyExtractor) {
+        indexes.put(indexName, new SecondaryIndex<>(indexName, keyExtractor));
+        return this;
+    }
+
+    /**
+     * Register a listener for live changes. Preloaded records and unchanged re-deliveries are not reported.
+     */
+    public CollectionMirror<T> onChange(ChangeListener<T> listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Fill the mirror from a local snapshot. Must be called before {@link #start()}.
+     * The mirror is ready immediately; it is synced once the live data has been reconciled.
+     */
+    public synchronized void preload(Map<String, T> records) {
+        if (started) throw new IllegalStateException("Mirror '" + name + "' already started");
+        for (Map.Entry<String, T> e : records.entrySet()) {
+            T previous = entries.put(e.getKey(), e.getValue());
+            updateIndexes(e.getKey(), previous, e.getValue());
+        }
+        version.incrementAndGet();
+        ready.complete(null);
+        logger.info("Mirror '{}' preloaded {} entries from snapshot", name, records.size());
+    }
+
+    /**
+     * Attach the Firebase listeners. The mirror becomes ready once the initial sync is done
+     * (or right away when it was preloaded).
+     */
+    public synchronized void start() {
+        if (started) return;
+        started = true;
+
+        ref.addChildEventListener(new ChildEventListener() {
+            @Override
+            public void onChildAdded(DataSnapshot snapshot, String previousChildName) {
+                apply(snapshot);
+            }
+
+            @Override
+            public void onChildChanged(DataSnapshot snapshot, String previousChildName) {
+                apply(snapshot);
+            }
+
+            @Override
+            public void onChildRemoved(DataSnapshot snapshot) {
+                remove(snapshot.getKey());
+            }
+
+            @Override
+            public void onChildMoved(DataSnapshot snapshot, String previousChildName) {
+                // ordering is by key, nothing to do
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                logger.error("Mirror '{}' listener cancelled: {}", name, error.getMessage());
+                RuntimeException ex = new RuntimeException("Firebase cancelled: " + error.getMessage());
+                ready.completeExceptionally(ex);
+                synced.completeExceptionally(ex);
+            }
+        });
+
+        // Value events are raised after the child events of the same sync, so this marks the end of the initial load
+        ref.addListenerForSingleValueEvent(new ValueEventListener() {
+            @Override
+            public void onDataChange(DataSnapshot snapshot) {
+                completeSync(snapshot::hasChild);
+            }
+
+            @Override
+            public void onCancelled(DatabaseError error) {
+                RuntimeException ex = new RuntimeException("Firebase cancelled: " + error.getMessage());
+                ready.completeExceptionally(ex);
+                synced.completeExceptionally(ex);
+            }
+        });
+    }
+
+    private void apply(DataSnapshot snapshot) {
+        String key = snapshot.getKey();
+        try {
+            apply(key, codec.decode(snapshot));
+        } catch (Exception e) {
+            logger.warn("Mirror '{}': error parsing record {}: {}", name, key, e.getMessage());
+        }
+    }
+
+    /**
+     * Apply one live record (a child added or changed event); a null value removes it.
+     */
+    void apply(String key, T value) {
+        if (value == null) {
+            remove(key);
+            return;
+        }
+        T previous = entries.put(key, value);
+        updateIndexes(key, previous, value);
+        // the initial sync re-delivers every preloaded record
+        if (!value.equals(previous)) {
+            version.incrementAndGet();
+            notifyListeners(key, previous, value);
+        }
+    }
+
+    /**
+     * End of the initial sync: drop preloaded records that are not in the live data, then mark the mirror synced.
+     */
+    void completeSync(Predicate<String> live) {
+        for (String key : entries.keySet()) {
+            if (!live.test(key)) remove(key);
+        }
+        logger.info("Mirror '{}' synced with {} entries", name, entries.size());
+        ready.complete(null);
+        synced.complete(null);
+    }
+
+    void remove(String key) {
+        T previous = entries.remove(key);
+        if (previous != null) {
+            updateIndexes(key, previous, null);
+            version.incrementAndGet();
+            notifyListeners(key, previous, null);
+        }
+    }
+
+    private void notifyListeners(String key, T previous, T current) {
+        for (ChangeListener<T> listener : listeners) {
+            try {
+                listener.changed(key, previous, current);
+            } catch (Exception e) {
+                logger.warn("Mirror '{}': change listener failed for {}: {}", name, key, e.getMessage());
+            }
+        }
+    }
+
+    private void updateIndexes(String key, T previous, T current) {
+        for (SecondaryIndex<T> index : indexes.values()) {
+            index.update(key, previous, current);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SnapshotCodec<T> getCodec() {
+        return codec;
+    }
+
+    public CompletableFuture<Void> ready() {
+        return ready;
+    }
+
+    /**
+     * Completes once the live data has been loaded and reconciled with any preloaded snapshot.
+     */
+    public CompletableFuture<Void> synced() {
+        return synced.isDone() ? synced : Continuations.handoff(synced);
+    }
+
+    /**
+     * True once the mirror can answer reads (preloaded or initial sync completed).
+     */
+    public boolean isReady() {
+        return ready.isDone() && !ready.isCompletedExceptionally();
+    }
+
+    /**
+     * True once the live data has been loaded and reconciled with any preloaded snapshot.
+     */
+    public boolean isSynced() {
+        return synced.isDone() && !synced.isCompletedExceptionally();
+    }
+
+    /**
+     * Read-only view of the current entries, in key order.
+     */
+    public Map<String, T> entries() {
+        return Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * All entries in key order, once the initial sync has completed.
+     */
+    public CompletableFuture<List<T>> values() {
+        return whenReady().thenApply(v -> new ArrayList<>(entries.values()));
+    }
+
+    /**
+     * Up to limit entries with keys strictly after afterKey (null for the first page), in key order.
+     */
+    public CompletableFuture<Page<T>> page(String afterKey, int limit) {
+        return whenReady().thenApply(v -> {
+            NavigableMap<String, T> tail = afterKey == null ? entries : entries.tailMap(afterKey, false);
+            List<T> items = new ArrayList<>(Math.min(limit, 64));
+            String lastKey = null;
+            boolean more = false;
+            for (Map.Entry<String, T> e : tail.entrySet()) {
+                if (items.size() == limit) {
+                    more = true;
+                    break;
+                }
+                items.add(e.getValue());
+                lastKey = e.getKey();
+            }
+            return new Page<>(items, more ? Pagination.encodeCursor(lastKey) : null, entries.size(), limit);
+        });
+    }
+
+    public CompletableFuture<T> get(String id) {
+        return whenReady().thenApply(v -> id == null ? null : entries.get(id));
+    }
+
+    /**
+     * Records whose indexed attribute equals the given value, in key order.
+     */
+    public CompletableFuture<List<T>> findBy(String indexName, String value) {
+        SecondaryIndex<T> index = indexes.get(indexName);
+        if (index == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown index '" + indexName + "' on " + name));
+        }
+        return whenReady().thenApply(v -> {
+            List<T> result = new ArrayList<>();
+            for (String id : index.ids(value)) {
+                T t = entries.get(id);
+                // re-check in case the record changed between the index and the map lookup
+                if (t != null && value.equals(index.keyOf(t))) result.add(t);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Like {@link #get(String)}, but only once the live sync has completed. For write paths that derive
+     * deltas (stats increments, bucket moves) from the previous record: a preloaded snapshot may be stale.
+     */
+    public CompletableFuture<T> getSynced(String id) {
+        return synced().thenCompose(v -> get(id));
+    }
+
+    /**
+     * Like {@link #findBy(String, String)}, but only once the live sync has completed (see {@link #getSynced}).
+     */
+    public CompletableFuture<List<T>> findBySynced(String indexName, String value) {
+        return synced().thenCompose(v -> findBy(indexName, value));
+    }
+
+    /**
+     * Once ready, reads complete on the caller's thread; before that they are handed off
+     * so they do not run on the Firebase thread that completes the initial sync.
+     */
+    private CompletableFuture<Void> whenReady() {
+        return ready.isDone() ? ready : Continuations.handoff(ready);
+    }
+
+    /**
+     * Change counter of this mirror. It is incremented after a change has been applied,
+     * so data read after reading version v contains at least every change up to v.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,117 @@
+package com.techforge.erp.firebase;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor that service continuations are handed off to, so work chained on Firebase results
+ * (report aggregation, payroll math, JSON handling) does not run on the Firebase event thread.
+ *
+ * Mode "platform" uses a fixed pool with a bounded queue; when the queue is full the task runs on an
+ * overflow virtual thread instead, never on the submitting thread (usually the Firebase event thread).
+ * Mode "virtual" starts one virtual thread per task.
+ *
+ * After {@link #shutdown()} execute throws RejectedExecutionException, so the continuation fails
+ * instead of waiting forever.
+ */
+public class ContinuationExecutor implements Executor {
+
+    public static final String MODE_PLATFORM = "platform";
+    public static final String MODE_VIRTUAL = "virtual";
+
+    private final String mode;
+    private final ExecutorService delegate;
+    // platform mode only: runs tasks the full pool queue rejected
+    private final ExecutorService overflow;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxQueued = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong overflowRuns = new AtomicLong();
+
+    public ContinuationExecutor(String mode, int poolSize, int queueCapacity) {
+        this.mode = MODE_VIRTUAL.equalsIgnoreCase(mode) ? MODE_VIRTUAL : MODE_PLATFORM;
+        if (MODE_VIRTUAL.equals(this.mode)) {
+            this.delegate = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("continuation-", 0).factory());
+            this.overflow = null;
+        } else {
+            this.overflow = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("continuation-overflow-", 0).factory());
+            AtomicInteger threadIndex = new AtomicInteger();
+            this.delegate = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    r -> {
+                        Thread t = new Thread(r, "continuation-" + threadIndex.getAndIncrement());
+                        t.setDaemon(true);
+                        return t;
+                    },
+                    (r, executor) -> {
+                        if (executor.isShutdown()) throw new RejectedExecutionException("Continuation executor is shut down");
+                        overflowRuns.incrementAndGet();
+                        overflow.execute(r);
+                    });
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        maxQueued.accumulateAndGet(queued.incrementAndGet(), Math::max);
+        try {
+            delegate.execute(() -> {
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    command.run();
+                } finally {
+                    active.decrementAndGet();
+                    completed.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // never started: not queued either
+            queued.decrementAndGet();
+            throw e;
+        }
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    /**
+     * Tasks submitted but not started yet.
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    public Map<String, Object> metrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("mode", mode);
+        m.put("queueDepth", queued.get());
+        m.put("maxQueueDepth", maxQueued.get());
+        m.put("active", active.get());
+        m.put("completed", completed.get());
+        m.put("overflowRuns", overflowRuns.get());
+        if (delegate instanceof ThreadPoolExecutor) {
+            ThreadPoolExecutor pool = (ThreadPoolExecutor) delegate;
+            m.put("poolSize", pool.getPoolSize());
+            m.put("queueCapacity", pool.getQueue().size() + pool.getQueue().remainingCapacity());
+        }
+        return m;
+    }
+
+    public void shutdown() {
+        delegate.shutdown();
+        if (overflow != null) overflow.shutdown();
+    }
+}
@@ -0,0 +1,48 @@
+package com.techforge.erp.firebase;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Access point for the continuation executor, so plain helpers (batches, queries, mirrors) can use it
+ * the same way services use FirebaseDatabase.getInstance().
+ * Until the configured executor is installed, the common pool is used.
+ */
+public final class Continuations {
+
+    private static volatile ContinuationExecutor installed;
+
+    private Continuations() {
+    }
+
+    public static void install(ContinuationExecutor executor) {
+        installed = executor;
+    }
+
+    public static ContinuationExecutor installed() {
+        return installed;
+    }
+
+    public static Executor executor() {
+        ContinuationExecutor e = installed;
+        return e != null ? e : ForkJoinPool.commonPool();
+    }
+
+    /**
+     * A future with the same outcome whose dependents run on the continuation executor
+     * instead of the thread that completes the source (typically the Firebase event thread).
+     * Results and failures are both handed off; if the executor rejects the hand-off (shut down),
+     * the returned future fails with that rejection.
+     */
+    public static <T> CompletableFuture<T> handoff(CompletableFuture<T> source) {
+        CompletableFuture<T> out = new CompletableFuture<>();
+        source.whenCompleteAsync((value, ex) -> {
+            if (ex != null) out.completeExceptionally(ex);
+            else out.complete(value);
+        }, executor()).whenComplete((v, ex) -> {
+            if (ex != null) out.completeExceptionally(ex);
+        });
+        return out;
+    }
+}
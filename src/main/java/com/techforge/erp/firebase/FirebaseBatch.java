@@ -0,0 +1,93 @@
+package com.techforge.erp.firebase;
+
+import com.google.api.core.ApiFuture;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.ServerValue;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Collects writes under one root and commits them as a single atomic multi-path update
+ * (updateChildrenAsync). Either every path is written or none is, in one round trip.
+ *
+ * Paths are relative to the root, e.g. "tasks/{id}". Deleting a path stages a null value.
+ * Increments to the same path add up and are sent as one server-side ServerValue.increment.
+ */
+public class FirebaseBatch {
+
+    private final DatabaseReference root;
+    private final Map<String, Object> updates = new LinkedHashMap<>();
+    private final Map<String, Double> increments = new LinkedHashMap<>();
+
+    public FirebaseBatch(DatabaseReference root) {
+        this.root = root;
+    }
+
+    public FirebaseBatch set(String path, Object value) {
+        updates.put(path, value);
+        return this;
+    }
+
+    public FirebaseBatch delete(String path) {
+        updates.put(path, null);
+        return this;
+    }
+
+    public FirebaseBatch increment(String path, double delta) {
+        increments.merge(path, delta, Double::sum);
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return toUpdateMap().isEmpty();
+    }
+
+    public int size() {
+        return toUpdateMap().size();
+    }
+
+    public Map<String, Object> getUpdates() {
+        return Collections.unmodifiableMap(toUpdateMap());
+    }
+
+    private Map<String, Object> toUpdateMap() {
+        Map<String, Object> all = new LinkedHashMap<>(updates);
+        for (Map.Entry<String, Double> e : increments.entrySet()) {
+            double delta = e.getValue();
+            // increments that cancel out are not sent
+            if (delta == 0.0 || updates.containsKey(e.getKey())) continue;
+            all.put(e.getKey(), delta == Math.rint(delta) ? ServerValue.increment((long) delta) : ServerValue.increment(delta));
+        }
+        return all;
+    }
+
+    public CompletableFuture<Void> commit() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        Map<String, Object> all = toUpdateMap();
+        if (all.isEmpty()) {
+            future.complete(null);
+            return future;
+        }
+        try {
+            ApiFuture<Void> write = root.updateChildrenAsync(all);
+            write.addListener(() -> {
+                try {
+                    write.get();
+                    future.complete(null);
+                } catch (ExecutionException e) {
+                    future.completeExceptionally(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.completeExceptionally(e);
+                }
+            }, Continuations.executor());
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+}
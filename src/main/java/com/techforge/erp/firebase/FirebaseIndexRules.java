@@ -0,0 +1,68 @@
+package com.techforge.erp.firebase;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single source of truth for the child keys the backend queries with orderByChild,
+ * and a small tool that writes the matching ".indexOn" entries into database.rules.json.
+ *
+ * Usage: java -cp app.jar com.techforge.erp.firebase.FirebaseIndexRules [output] [existing-rules]
+ * When an existing rules file is given, its rules are kept and only the ".indexOn" entries are replaced.
+ */
+public final class FirebaseIndexRules {
+
+    public static final String ROOT = "LTUD10";
+
+    /**
+     * collection -> indexed child paths
+     */
+    public static final Map<String, List<String>> INDEXES = new LinkedHashMap<>();
+
+    static {
+        INDEXES.put("users", List.of("email"));
+        INDEXES.put("tasks", List.of("projectId", "assignedUserId", "assigneeEmail"));
+        // java.util.Date is stored as a bean, "time" holds the epoch millis
+        INDEXES.put("worklogs", List.of("userId", "projectId", "workDate/time"));
+        INDEXES.put("payrolls", List.of("year"));
+    }
+
+    private FirebaseIndexRules() {
+    }
+
+    /**
+     * Build the rules tree, merging into an existing one if provided.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> buildRules(Map<String, Object> existing) {
+        Map<String, Object> doc = existing != null ? existing : new LinkedHashMap<>();
+        Map<String, Object> rules = (Map<String, Object>) doc.computeIfAbsent("rules", k -> new LinkedHashMap<>());
+        Map<String, Object> root = (Map<String, Object>) rules.computeIfAbsent(ROOT, k -> new LinkedHashMap<>());
+        for (Map.Entry<String, List<String>> e : INDEXES.entrySet()) {
+            Map<String, Object> collection = (Map<String, Object>) root.computeIfAbsent(e.getKey(), k -> new LinkedHashMap<>());
+            collection.put(".indexOn", new ArrayList<>(e.getValue()));
+        }
+        return doc;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void main(String[] args) throws IOException {
+        File output = new File(args.length > 0 ? args[0] : "database.rules.json");
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+        Map<String, Object> existing = null;
+        if (args.length > 1) {
+            existing = mapper.readValue(new File(args[1]), LinkedHashMap.class);
+        }
+
+        mapper.writeValue(output, buildRules(existing));
+        System.out.println("Wrote index rules to " + output.getAbsolutePath());
+    }
+}
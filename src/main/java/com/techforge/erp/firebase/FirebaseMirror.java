@@ -0,0 +1,169 @@
+package com.techforge.erp.firebase;
+
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.techforge.erp.event.ChangeEventBus;
+import com.techforge.erp.event.ClientChanged;
+import com.techforge.erp.event.ProjectChanged;
+import com.techforge.erp.event.TaskChanged;
+import com.techforge.erp.event.UserChanged;
+import com.techforge.erp.event.WorkLogChanged;
+import com.techforge.erp.firebase.codec.Codecs;
+import com.techforge.erp.model.Client;
+import com.techforge.erp.model.Project;
+import com.techforge.erp.model.Task;
+import com.techforge.erp.model.User;
+import com.techforge.erp.model.WorkLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subscription-based mirror of the LTUD10 tree.
+ * Holds one {@link CollectionMirror} per collection that services answer reads from.
+ *
+ * The mirrored data is periodically written to a local snapshot file and preloaded from it
+ * on startup, so a restart does not begin with cold, full-collection reads. Users are mirrored
+ * but never written to the snapshot: their records hold passwords and OTPs.
+ *
+ * Live changes are published on the {@link ChangeEventBus} as TaskChanged, WorkLogChanged, ProjectChanged,
+ * ClientChanged and UserChanged.
+ */
+@Component
+@DependsOn("continuationExecutor")
+public class FirebaseMirror {
+
+    private static final Logger logger = LoggerFactory.getLogger(FirebaseMirror.class);
+
+    // Secondary index names
+    public static final String BY_PROJECT = "projectId";
+    public static final String BY_ASSIGNEE_EMAIL = "assigneeEmail";
+    public static final String BY_ASSIGNED_USER = "assignedUserId";
+    public static final String BY_USER = "userId";
+    public static final String BY_EMAIL = "email";
+
+    private final CollectionMirror<Task> tasks;
+    private final CollectionMirror<WorkLog> worklogs;
+    private final CollectionMirror<Project> projects;
+    private final CollectionMirror<Client> clients;
+    private final CollectionMirror<User> users;
+
+    private final boolean snapshotEnabled;
+    private final MirrorSnapshotStore snapshotStore;
+    private final long snapshotIntervalSeconds;
+    private final long snapshotMaxAgeHours;
+    private ScheduledExecutorService snapshotScheduler;
+
+    public FirebaseMirror(@Value("${techforge.snapshot.enabled:true}") boolean snapshotEnabled,
+                          @Value("${techforge.snapshot.path:data/ltud10-snapshot.bin}") String snapshotPath,
+                          @Value("${techforge.snapshot.interval-seconds:300}") long snapshotIntervalSeconds,
+                          @Value("${techforge.snapshot.max-age-hours:24}") long snapshotMaxAgeHours,
+                          ChangeEventBus eventBus) {
+        DatabaseReference root = FirebaseDatabase.getInstance().getReference("LTUD10");
+        this.tasks = new CollectionMirror<>("tasks", root.child("tasks"), Codecs.TASK)
+                .addIndex(BY_PROJECT, Task::getProjectId)
+                // assignee lookups are case-insensitive
+                .addIndex(BY_ASSIGNEE_EMAIL, t -> t.getAssigneeEmail() == null ? null : t.getAssigneeEmail().toLowerCase())
+                .addIndex(BY_ASSIGNED_USER, Task::getAssignedUserId);
+        this.worklogs = new CollectionMirror<>("worklogs", root.child("worklogs"), Codecs.WORKLOG)
+                .addIndex(BY_USER, WorkLog::getUserId)
+                .addIndex(BY_PROJECT, WorkLog::getProjectId);
+        this.projects = new CollectionMirror<>("projects", root.child("projects"), Codecs.PROJECT);
+        this.clients = new CollectionMirror<>("clients", root.child("clients"), Codecs.CLIENT);
+        // exact match, like the Firebase email query
+        this.users = new CollectionMirror<>("users", root.child("users"), Codecs.USER)
+                .addIndex(BY_EMAIL, User::getEmail);
+
+        // every live change (including our own writes, which Firebase raises locally) goes to the event bus
+        tasks.onChange((id, previous, current) -> eventBus.publish(new TaskChanged(id, previous, current)));
+        worklogs.onChange((id, previous, current) -> eventBus.publish(new WorkLogChanged(id, previous, current)));
+        projects.onChange((id, previous, current) -> eventBus.publish(new ProjectChanged(id, previous, current)));
+        clients.onChange((id, previous, current) -> eventBus.publish(new ClientChanged(id, previous, current)));
+        users.onChange((id, previous, current) -> eventBus.publish(new UserChanged(id, previous, current)));
+
+        this.snapshotEnabled = snapshotEnabled;
+        this.snapshotStore = new MirrorSnapshotStore(snapshotPath);
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+        this.snapshotMaxAgeHours = snapshotMaxAgeHours;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (snapshotEnabled) {
+            snapshotStore.load(all(), TimeUnit.HOURS.toMillis(snapshotMaxAgeHours));
+        }
+
+        tasks.start();
+        worklogs.start();
+        projects.start();
+        clients.start();
+        users.start();
+
+        if (snapshotEnabled) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "mirror-snapshot");
+                t.setDaemon(true);
+                return t;
+            });
+            snapshotScheduler.scheduleWithFixedDelay(this::saveSnapshot,
+                    snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (snapshotScheduler != null) {
+            snapshotScheduler.shutdownNow();
+            saveSnapshot();
+        }
+    }
+
+    /**
+     * Write the mirrors to disk. Skipped until every mirror has reconciled with live data,
+     * so a stale preloaded state is never written back.
+     */
+    public void saveSnapshot() {
+        for (CollectionMirror<?> m : all()) {
+            if (!m.isSynced()) return;
+        }
+        try {
+            snapshotStore.save(all());
+        } catch (Exception e) {
+            logger.warn("Could not write snapshot {}: {}", snapshotStore.getPath(), e.getMessage());
+        }
+    }
+
+    // the collections written to the snapshot file (not users)
+    private List<CollectionMirror<?>> all() {
+        return List.of(tasks, worklogs, projects, clients);
+    }
+
+    public CollectionMirror<Task> tasks() {
+        return tasks;
+    }
+
+    public CollectionMirror<WorkLog> worklogs() {
+        return worklogs;
+    }
+
+    public CollectionMirror<Project> projects() {
+        return projects;
+    }
+
+    public CollectionMirror<Client> clients() {
+        return clients;
+    }
+
+    public CollectionMirror<User> users() {
+        return users;
+    }
+}
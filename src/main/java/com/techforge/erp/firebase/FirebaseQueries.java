@@ -0,0 +1,133 @@
+package com.techforge.erp.firebase;
+
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.ValueEventListener;
+import com.techforge.erp.model.Page;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Runs a server-side filtered query (orderByChild/equalTo/startAt/endAt) once and decodes the matching rows.
+ * The fields used here must be listed in {@link FirebaseIndexRules} so Firebase filters on the server.
+ * Results are handed off to the continuation executor, so callers never chain work on the Firebase thread.
+ */
+public final class FirebaseQueries {
+
+    private static final Logger logger = LoggerFactory.getLogger(FirebaseQueries.class);
+
+    private FirebaseQueries() {
+    }
+
+    public static <T> CompletableFuture<List<T>> fetchList(Query query, Function<DataSnapshot, T> decoder) {
+        CompletableFuture<List<T>> future = new CompletableFuture<>();
+        try {
+            query.addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(DataSnapshot snapshot) {
+                    List<T> list = new ArrayList<>();
+                    if (snapshot.exists()) {
+                        for (DataSnapshot child : snapshot.getChildren()) {
+                            try {
+                                T value = decoder.apply(child);
+                                if (value != null) list.add(value);
+                            } catch (Exception e) {
+                                logger.warn("Error parsing record {}: {}", child.getKey(), e.getMessage());
+                            }
+                        }
+                    }
+                    future.complete(list);
+                }
+
+                @Override
+                public void onCancelled(DatabaseError error) {
+                    future.completeExceptionally(new RuntimeException("Firebase cancelled: " + error.getMessage()));
+                }
+            });
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return Continuations.handoff(future);
+    }
+
+    /**
+     * Reads a single node once. Completes with null when the node does not exist.
+     */
+    public static <T> CompletableFuture<T> fetchOne(DatabaseReference ref, Function<DataSnapshot, T> decoder) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            ref.addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(DataSnapshot snapshot) {
+                    try {
+                        future.complete(snapshot.exists() ? decoder.apply(snapshot) : null);
+                    } catch (Exception e) {
+                        future.completeExceptionally(e);
+                    }
+                }
+
+                @Override
+                public void onCancelled(DatabaseError error) {
+                    future.completeExceptionally(new RuntimeException("Firebase cancelled: " + error.getMessage()));
+                }
+            });
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return Continuations.handoff(future);
+    }
+
+    /**
+     * One page in key order: orderByKey().startAt(afterKey).limitToFirst(limit + 2).
+     * The cursor row itself is skipped and the extra row only signals that there is a next page.
+     * The total size is not known from a single page, so it is left null.
+     */
+    public static <T> CompletableFuture<Page<T>> fetchPage(DatabaseReference ref, String afterKey, int limit,
+                                                           Function<DataSnapshot, T> decoder) {
+        Query query = ref.orderByKey();
+        if (afterKey != null) query = query.startAt(afterKey);
+        query = query.limitToFirst(limit + 2);
+
+        CompletableFuture<Page<T>> future = new CompletableFuture<>();
+        try {
+            query.addListenerForSingleValueEvent(new ValueEventListener() {
+                @Override
+                public void onDataChange(DataSnapshot snapshot) {
+                    List<T> items = new ArrayList<>();
+                    String lastKey = null;
+                    boolean more = false;
+                    for (DataSnapshot child : snapshot.getChildren()) {
+                        if (child.getKey().equals(afterKey)) continue;
+                        if (items.size() == limit) {
+                            more = true;
+                            break;
+                        }
+                        try {
+                            T value = decoder.apply(child);
+                            if (value != null) items.add(value);
+                        } catch (Exception e) {
+                            logger.warn("Error parsing record {}: {}", child.getKey(), e.getMessage());
+                        }
+                        lastKey = child.getKey();
+                    }
+                    future.complete(new Page<>(items, more ? Pagination.encodeCursor(lastKey) : null, null, limit));
+                }
+
+                @Override
+                public void onCancelled(DatabaseError error) {
+                    future.completeExceptionally(new RuntimeException("Firebase cancelled: " + error.getMessage()));
+                }
+            });
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return Continuations.handoff(future);
+    }
+}
@@ -0,0 +1,164 @@
+package com.techforge.erp.firebase;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techforge.erp.firebase.codec.SnapshotCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local disk snapshot of the mirrored collections, used to warm the mirrors on startup.
+ *
+ * File layout (big endian):
+ * magic, version, savedAt millis, collection count, then per collection its name, record count
+ * and per record its key and the codec field map as JSON. Strings and JSON are length-prefixed UTF-8.
+ * The file is written to a temp file and moved into place, and is memory-mapped when loaded.
+ */
+public class MirrorSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(MirrorSnapshotStore.class);
+
+    private static final int MAGIC = 0x4C543130; // "LT10"
+    private static final int VERSION = 1;
+
+    private final Path path;
+    private final ObjectMapper json = new ObjectMapper();
+
+    public MirrorSnapshotStore(String path) {
+        this.path = Paths.get(path);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Write the current content of the given mirrors.
+     */
+    public void save(List<CollectionMirror<?>> mirrors) throws IOException {
+        Path dir = path.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        int records = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(mirrors.size());
+            for (CollectionMirror<?> mirror : mirrors) {
+                records += writeCollection(out, mirror);
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.info("Snapshot saved to {} ({} records)", path, records);
+    }
+
+    private <T> int writeCollection(DataOutputStream out, CollectionMirror<T> mirror) throws IOException {
+        // copy first so the count matches the records written
+        Map<String, T> entries = new LinkedHashMap<>(mirror.entries());
+        SnapshotCodec<T> codec = mirror.getCodec();
+        writeBytes(out, mirror.getName().getBytes(StandardCharsets.UTF_8));
+        out.writeInt(entries.size());
+        for (Map.Entry<String, T> e : entries.entrySet()) {
+            writeBytes(out, e.getKey().getBytes(StandardCharsets.UTF_8));
+            writeBytes(out, json.writeValueAsBytes(codec.encode(e.getValue())));
+        }
+        return entries.size();
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Preload the given mirrors from the snapshot file.
+     * Nothing is preloaded if the file is missing, unreadable or older than maxAgeMillis.
+     *
+     * @return true if the mirrors were preloaded
+     */
+    public boolean load(List<CollectionMirror<?>> mirrors, long maxAgeMillis) {
+        if (!Files.isRegularFile(path)) {
+            logger.info("No snapshot at {}, mirrors start cold", path);
+            return false;
+        }
+        Map<String, CollectionMirror<?>> byName = new HashMap<>();
+        for (CollectionMirror<?> m : mirrors) byName.put(m.getName(), m);
+
+        // decode everything first so a corrupt file never leaves the mirrors half loaded
+        Map<CollectionMirror<?>, Map<String, ?>> decoded = new LinkedHashMap<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                logger.warn("Snapshot {} has an unknown format, ignoring it", path);
+                return false;
+            }
+            long savedAt = buf.getLong();
+            long age = System.currentTimeMillis() - savedAt;
+            if (age > maxAgeMillis) {
+                logger.info("Snapshot {} is {} min old, ignoring it", path, age / 60000);
+                return false;
+            }
+            int collections = buf.getInt();
+            for (int i = 0; i < collections; i++) {
+                String name = new String(readBytes(buf), StandardCharsets.UTF_8);
+                CollectionMirror<?> mirror = byName.get(name);
+                Map<String, ?> records = readCollection(buf, mirror);
+                if (mirror != null) decoded.put(mirror, records);
+            }
+        } catch (Exception e) {
+            logger.warn("Could not read snapshot {}: {}", path, e.getMessage());
+            return false;
+        }
+
+        for (Map.Entry<CollectionMirror<?>, Map<String, ?>> e : decoded.entrySet()) {
+            preload(e.getKey(), e.getValue());
+        }
+        return true;
+    }
+
+    /**
+     * Decode one collection. Records of a collection that is no longer mirrored are skipped.
+     */
+    private <T> Map<String, T> readCollection(ByteBuffer buf, CollectionMirror<T> mirror) throws IOException {
+        int count = buf.getInt();
+        Map<String, T> records = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String key = new String(readBytes(buf), StandardCharsets.UTF_8);
+            byte[] fields = readBytes(buf);
+            if (mirror == null) continue;
+            T value = mirror.getCodec().decode(key, json.readValue(fields, new TypeReference<Map<String, Object>>() {}));
+            if (value != null) records.put(key, value);
+        }
+        return records;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void preload(CollectionMirror<T> mirror, Map<String, ?> records) {
+        mirror.preload((Map<String, T>) records);
+    }
+
+    private static byte[] readBytes(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getInt()];
+        buf.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,84 @@
+package com.techforge.erp.firebase;
+
+import com.techforge.erp.model.Page;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cursor pagination over Firebase keys.
+ * A cursor is the opaque (base64url) form of the last key of the previous page.
+ */
+public final class Pagination {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private Pagination() {
+    }
+
+    /**
+     * Listings stay unpaged (plain JSON array) unless the client asks for a limit or a cursor.
+     */
+    public static boolean isRequested(Integer limit, String cursor) {
+        return limit != null || (cursor != null && !cursor.isEmpty());
+    }
+
+    public static int limit(Integer requested) {
+        if (requested == null) return DEFAULT_LIMIT;
+        if (requested < 1) throw new IllegalArgumentException("limit must be positive");
+        return Math.min(requested, MAX_LIMIT);
+    }
+
+    public static String encodeCursor(String key) {
+        if (key == null) return null;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Key to continue after, or null for the first page.
+     */
+    public static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) return null;
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Page of an already materialized list (filtered lookups, custom sort orders).
+     * Continues right after the record whose key is afterKey; if that record is gone,
+     * continues at the first key greater than afterKey, which is exact for key-ordered lists.
+     */
+    public static <T> Page<T> slice(List<T> ordered, Function<T, String> keyFn, String afterKey, int limit) {
+        int start = 0;
+        if (afterKey != null) {
+            start = -1;
+            for (int i = 0; i < ordered.size(); i++) {
+                if (afterKey.equals(keyFn.apply(ordered.get(i)))) {
+                    start = i + 1;
+                    break;
+                }
+            }
+            if (start < 0) {
+                start = ordered.size();
+                for (int i = 0; i < ordered.size(); i++) {
+                    String key = keyFn.apply(ordered.get(i));
+                    if (key != null && key.compareTo(afterKey) > 0) {
+                        start = i;
+                        break;
+                    }
+                }
+            }
+        }
+        int end = Math.min(ordered.size(), start + limit);
+        List<T> items = new ArrayList<>(ordered.subList(start, end));
+        String next = end < ordered.size() && !items.isEmpty() ? encodeCursor(keyFn.apply(items.get(items.size() - 1))) : null;
+        return new Page<>(items, next, ordered.size(), limit);
+    }
+}
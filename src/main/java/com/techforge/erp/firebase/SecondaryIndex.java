@@ -0,0 +1,61 @@
+package com.techforge.erp.firebase;
+
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Function;
+
+/**
+ * Maps an attribute value (e.g. projectId) to the keys of the mirrored records that carry it.
+ * Maintained by {@link CollectionMirror} on every add/change/remove, so a filtered lookup
+ * costs O(result) instead of a scan of the whole collection.
+ */
+public class SecondaryIndex<T> {
+
+    private final String name;
+    private final Function<T, String> keyExtractor;
+    private final ConcurrentHashMap<String, NavigableSet<String>> buckets = new ConcurrentHashMap<>();
+
+    public SecondaryIndex(String name, Function<T, String> keyExtractor) {
+        this.name = name;
+        this.keyExtractor = keyExtractor;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Index value for a record, or null if the record is not indexed.
+     */
+    public String keyOf(T value) {
+        return value == null ? null : keyExtractor.apply(value);
+    }
+
+    void update(String id, T previous, T current) {
+        String oldKey = keyOf(previous);
+        String newKey = keyOf(current);
+        if (Objects.equals(oldKey, newKey)) return;
+
+        if (oldKey != null) {
+            buckets.computeIfPresent(oldKey, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+        if (newKey != null) {
+            buckets.computeIfAbsent(newKey, k -> new ConcurrentSkipListSet<>()).add(id);
+        }
+    }
+
+    /**
+     * Record keys carrying the given value, in key order.
+     */
+    NavigableSet<String> ids(String value) {
+        if (value == null) return Collections.emptyNavigableSet();
+        NavigableSet<String> ids = buckets.get(value);
+        return ids == null ? Collections.emptyNavigableSet() : ids;
+    }
+}
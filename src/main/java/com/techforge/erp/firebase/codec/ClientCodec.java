@@ -0,0 +1,34 @@
+package com.techforge.erp.firebase.codec;
+
+import com.techforge.erp.model.Client;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.techforge.erp.firebase.codec.SnapshotValues.*;
+
+public class ClientCodec implements SnapshotCodec<Client> {
+
+    @Override
+    public Client decode(String key, Map<String, Object> fields) {
+        Client v = new Client();
+        // clients are addressed by their key
+        v.setId(key);
+        v.setName(string(fields, "name"));
+        v.setEmail(string(fields, "email"));
+        v.setPhone(string(fields, "phone"));
+        v.setCompany(string(fields, "company"));
+        return v;
+    }
+
+    @Override
+    public Map<String, Object> encode(Client v) {
+        Map<String, Object> m = new HashMap<>(8);
+        put(m, "id", v.getId());
+        put(m, "name", v.getName());
+        put(m, "email", v.getEmail());
+        put(m, "phone", v.getPhone());
+        put(m, "company", v.getCompany());
+        return m;
+    }
+}
@@ -0,0 +1,20 @@
+package com.techforge.erp.firebase.codec;
+
+/**
+ * Shared codec instances. Codecs are stateless and thread-safe.
+ */
+public final class Codecs {
+
+    public static final TaskCodec TASK = new TaskCodec();
+    public static final WorkLogCodec WORKLOG = new WorkLogCodec();
+    public static final ProjectCodec PROJECT = new ProjectCodec();
+    public static final InvoiceCodec INVOICE = new InvoiceCodec();
+    public static final ExpenseCodec EXPENSE = new ExpenseCodec();
+    public static final PayrollCodec PAYROLL = new PayrollCodec();
+    public static final ClientCodec CLIENT = new ClientCodec();
+    public static final UserCodec USER = new UserCodec();
+    public static final ProjectStatsCodec PROJECT_STATS = new ProjectStatsCodec();
+
+    private Codecs() {
+    }
+}
@@ -0,0 +1,33 @@
+package com.techforge.erp.firebase.codec;
+
+import com.techforge.erp.model.Expense;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.techforge.erp.firebase.codec.SnapshotValues.*;
+
+public class ExpenseCodec implements SnapshotCodec<Expense> {
+
+    @Override
+    public Expense decode(String key, Map<String, Object> fields) {
+        Expense v = new Expense();
+        v.setId(id(key, fields));
+        v.setProjectId(string(fields, "projectId"));
+        v.setCategory(string(fields, "category"));
+        v.setAmount(doubleValue(fields, "amount"));
+        v.setExpenseDate(date(fields, "expenseDate"));
+        return v;
+    }
+
+    @Override
+    public Map<String, Object> encode(Expense v) {
+        Map<String, Object> m = new HashMap<>(8);
+        put(m, "id", v.getId());
+        put(m, "projectId", v.getProjectId());
+        put(m, "category", v.getCategory());
+        put(m, "amount", v.getAmount());
+        putDate(m, "expenseDate", v.getExpenseDate());
+        return m;
+    }
+}
@@ -0,0 +1,35 @@
+package com.techforge.erp.firebase.codec;
+
+import com.techforge.erp.model.Invoice;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.techforge.erp.firebase.codec.SnapshotValues.*;
+
+public class InvoiceCodec implements SnapshotCodec<Invoice> {
+
+    @Override
+    public Invoice decode(String key, Map<String, Object> fields) {
+        Invoice v = new Invoice();
+        v.setId(id(key, fields));
+        v.setProjectId(string(fields, "projectId"));
+        v.setClientId(string(fields, "clientId"));
+        v.setAmount(doubleValue(fields, "amount"));
+        v.setIssueDate(date(fields, "issueDate"));
+        v.setStatus(string(fields, "status"));
+        return v;
+    }
+
+    @Override
+    public Map<String, Object> encode(Invoice v) {
+        Map<String, Object> m = new HashMap<>(8);
+        put(m, "id", v.getId());
+        put(m, "projectId", v.getProjectId());
+        put(m, "clientId", v.getClientId());
+        put(m, "amount", v.getAmount());
+        putDate(m, "issueDate", v.getIssueDate());
+        put(m, "status", v.getStatus());
+        return m;
+    }
+}
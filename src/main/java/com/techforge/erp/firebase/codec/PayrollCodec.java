@@ -0,0 +1,42 @@
+package com.techforge.erp.firebase.codec;
+
+import com.techforge.erp.model.Payroll;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.techforge.erp.firebase.codec.SnapshotValues.*;
+
+public class PayrollCodec implements SnapshotCodec<Payroll> {
+
+    @Override
+    public Payroll decode(String key, Map<String, Object> fields) {
+        Payroll v = new Payroll();
+        v.setId(id(key, fields));
+        v.setUserId(string(fields, "userId"));
+        v.setMonth(intValue(fields, "month", 0));
+        v.setYear(intValue(fields, "year", 0));
+        v.setBaseSalary(doubleValue(fields, "baseSalary"));
+        v.setOvertimePay(doubleValue(fields, "overtimePay"));
+        v.setTotalPay(doubleValue(fields, "totalPay"));
+        // bean mapping writes the isPaid getter as "paid"
+        v.setPaid(booleanValue(fields, "paid") || booleanValue(fields, "isPaid"));
+        v.setTransactionId(string(fields, "transactionId"));
+        return v;
+    }
+
+    @Override
+    public Map<String, Object> encode(Payroll v) {
+        Map<String, Object> m = new HashMap<>(16);
+        put(m, "id", v.getId());
+        put(m, "userId", v.getUserId());
+        m.put("month", v.getMonth());
+        m.put("year", v.getYear());
+        put(m, "baseSalary", v.getBaseSalary());
+        put(m, "overtimePay", v.getOvertimePay());
+        put(m, "totalPay", v.getTotalPay());
+        m.put("paid", v.isPaid());
+        put(m, "transactionId", v.getTransactionId());
+        return m;
+    }
+}
@@ -0,0 +1,41 @@
+package com.techforge.erp.firebase.codec;
+
+import com.techforge.erp.model.Project;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.techforge.erp.firebase.codec.SnapshotValues.*;
+
+public class ProjectCodec implements SnapshotCodec<Project> {
+
+    @Override
+    public Project decode(String key, Map<String, Object> fields) {
+        Project v = new Project();
+        v.setId(id(key, fields));
+        v.setClientId(string(fields, "clientId"));
+        v.setName(string(fields, "name"));
+        v.setDescription(string(fields, "description"));
+        v.setBudget(doubleValue(fields, "budget"));
+        v.setStartDate(date(fields, "startDate"));
+        v.setEndDate(date(fields, "endDate"));
+        v.setStatus(string(fields, "status"));
+        v.setMemberUserIds(stringList(fields, "memberUserIds"));
+        return v;
+    }
+
+    @Override
+    public Map<String, Object> encode(Project v) {
+        Map<String, Object> m = new HashMap<>(16);
+        put(m, "id", v.getId());
+        put(m, "clientId", v.getClientId());
+        put(m, "name", v.getName());
+        put(m, "description", v.getDescription());
+        put(m, "budget", v.getBudget());
+        putDate(m, "startDate", v.getStartDate());
+        putDate(m, "endDate", v.getEndDate());
+        put(m, "status", v.getStatus());
+        put(m, "memberUserIds", v.getMemberUserIds());
+        return m;
+    }
+}
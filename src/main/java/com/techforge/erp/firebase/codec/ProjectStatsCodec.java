@@ -0,0 +1,37 @@
+package com.techforge.erp.firebase.codec;
+
+import com.techforge.erp.model.ProjectStats;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.techforge.erp.firebase.codec.SnapshotValues.*;
+
+public class ProjectStatsCodec implements SnapshotCodec<ProjectStats> {
+
+    @Override
+    public ProjectStats decode(String key, Map<String, Object> fields) {
+        ProjectStats v = new ProjectStats();
+        v.setProjectId(key);
+        v.setTotalTasks(intValue(fields, "totalTasks", 0));
+        v.setCompletedTasks(intValue(fields, "completedTasks", 0));
+        v.setBudgetUsed(doubleOrZero(fields, "budgetUsed"));
+        Map<String, Integer> statusCounts = new LinkedHashMap<>();
+        doubleMap(fields, "statusCounts").forEach((k, n) -> statusCounts.put(k, n.intValue()));
+        v.setStatusCounts(statusCounts);
+        v.setWorkerHours(doubleMap(fields, "workerHours"));
+        return v;
+    }
+
+    @Override
+    public Map<String, Object> encode(ProjectStats v) {
+        Map<String, Object> m = new HashMap<>(8);
+        put(m, "totalTasks", v.getTotalTasks());
+        put(m, "completedTasks", v.getCompletedTasks());
+        put(m, "budgetUsed", v.getBudgetUsed());
+        put(m, "statusCounts", v.getStatusCounts());
+        put(m, "workerHours", v.getWorkerHours());
+        return m;
+    }
+}
@@ -0,0 +1,33 @@
+package com.techforge.erp.firebase.codec;
+
+import com.google.firebase.database.DataSnapshot;
+
+import java.util.Map;
+
+/**
+ * Explicit, reflection-free mapping between a model and its Firebase representation.
+ *
+ * Decoding works on the plain field map of a record, so the same codec serves
+ * DataSnapshots and any other source of Firebase-shaped maps.
+ */
+public interface SnapshotCodec<T> {
+
+    /**
+     * @param key    the Firebase key of the record
+     * @param fields the record's children as plain Java values (Map/List/String/Long/Double/Boolean)
+     */
+    T decode(String key, Map<String, Object> fields);
+
+    /**
+     * Plain map for setValueAsync/updateChildrenAsync. Null fields are left out.
+     */
+    Map<String, Object> encode(T value);
+
+    @SuppressWarnings("unchecked")
+    default T decode(DataSnapshot snapshot) {
+        if (snapshot == null || !snapshot.exists()) return null;
+        Object raw = snapshot.getValue();
+        if (!(raw instanceof Map)) return null;
+        return decode(snapshot.getKey(), (Map<String, Object>) raw);
+    }
+}
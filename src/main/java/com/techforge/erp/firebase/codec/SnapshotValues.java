@@ -0,0 +1,167 @@
+package com.techforge.erp.firebase.codec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Type coercion shared by all codecs.
+ * Firebase numbers come back as Long or Double depending on how they were written,
+ * and older records may hold numbers as Strings, so every accessor is lenient.
+ */
+public final class SnapshotValues {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotValues.class);
+
+    private SnapshotValues() {
+    }
+
+    public static String string(Map<String, Object> fields, String name) {
+        Object val = fields.get(name);
+        return val == null ? null : val.toString();
+    }
+
+    /**
+     * Long, Double and String representations are all accepted. Returns null when missing or unparseable.
+     */
+    public static Double doubleValue(Map<String, Object> fields, String name) {
+        Object val = fields.get(name);
+        if (val == null) return null;
+        if (val instanceof Number) return ((Number) val).doubleValue();
+
+        String strVal = val.toString().trim();
+        if (strVal.isEmpty()) return null;
+        try {
+            return Double.parseDouble(strVal);
+        } catch (NumberFormatException e) {
+            logger.warn("Could not parse '{}' as Double for field '{}'", strVal, name);
+            return null;
+        }
+    }
+
+    /**
+     * STRICT DATA ACCURACY: missing, empty or unparseable values become 0.0, never a fake default.
+     */
+    public static Double doubleOrZero(Map<String, Object> fields, String name) {
+        Double d = doubleValue(fields, name);
+        return d == null ? 0.0 : d;
+    }
+
+    public static int intValue(Map<String, Object> fields, String name, int defaultValue) {
+        Double d = doubleValue(fields, name);
+        return d == null ? defaultValue : d.intValue();
+    }
+
+    public static boolean booleanValue(Map<String, Object> fields, String name) {
+        Object val = fields.get(name);
+        if (val instanceof Boolean) return (Boolean) val;
+        return val != null && Boolean.parseBoolean(val.toString().trim());
+    }
+
+    /**
+     * java.util.Date is written by Firebase as a bean map whose "time" child holds the epoch millis.
+     * Epoch numbers and ISO strings (instant or yyyy-MM-dd) are accepted as well.
+     */
+    @SuppressWarnings("unchecked")
+    public static Date date(Map<String, Object> fields, String name) {
+        Object val = fields.get(name);
+        if (val == null) return null;
+        if (val instanceof Map) {
+            Object time = ((Map<String, Object>) val).get("time");
+            return time instanceof Number ? new Date(((Number) time).longValue()) : null;
+        }
+        if (val instanceof Number) return new Date(((Number) val).longValue());
+
+        String strVal = val.toString().trim();
+        if (strVal.isEmpty()) return null;
+        try {
+            return new Date(Long.parseLong(strVal));
+        } catch (NumberFormatException ignored) {
+            // not epoch millis, try ISO formats
+        }
+        try {
+            return Date.from(Instant.parse(strVal));
+        } catch (Exception ignored) {
+            // not an instant
+        }
+        try {
+            return Date.from(LocalDate.parse(strVal).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        } catch (Exception e) {
+            logger.warn("Could not parse '{}' as Date for field '{}'", strVal, name);
+            return null;
+        }
+    }
+
+    /**
+     * Firebase stores lists as arrays, which come back as a List, or as a Map when indexes are sparse.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<String> stringList(Map<String, Object> fields, String name) {
+        Object val = fields.get(name);
+        if (val == null) return null;
+        Collection<Object> items;
+        if (val instanceof Collection) {
+            items = (Collection<Object>) val;
+        } else if (val instanceof Map) {
+            items = ((Map<String, Object>) val).values();
+        } else {
+            return null;
+        }
+        List<String> list = new ArrayList<>(items.size());
+        for (Object item : items) {
+            if (item != null) list.add(item.toString());
+        }
+        return list;
+    }
+
+    /**
+     * Map of numeric children (e.g. counters keyed by status). Unparseable entries are skipped.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Double> doubleMap(Map<String, Object> fields, String name) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        Object val = fields.get(name);
+        if (!(val instanceof Map)) return result;
+        Map<String, Object> children = (Map<String, Object>) val;
+        for (String key : children.keySet()) {
+            Double d = doubleValue(children, key);
+            if (d != null) result.put(key, d);
+        }
+        return result;
+    }
+
+    /**
+     * Date in the same shape Firebase uses, so "time" stays queryable (workDate/time index).
+     */
+    public static Map<String, Object> encodeDate(Date date) {
+        Map<String, Object> m = new HashMap<>(2);
+        m.put("time", date.getTime());
+        return m;
+    }
+
+    static void put(Map<String, Object> fields, String name, Object value) {
+        if (value != null) fields.put(name, value);
+    }
+
+    static void putDate(Map<String, Object> fields, String name, Date value) {
+        if (value != null) fields.put(name, encodeDate(value));
+    }
+
+    /**
+     * Stored id, falling back to the Firebase key.
+     */
+    static String id(String key, Map<String, Object> fields) {
+        String id = string(fields, "id");
+        return id != null ? id : key;
+    }
+}
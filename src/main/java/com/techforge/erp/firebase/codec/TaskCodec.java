@@ -0,0 +1,41 @@
+package com.techforge.erp.firebase.codec;
+
+import com.techforge.erp.model.Task;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.techforge.erp.firebase.codec.SnapshotValues.*;
+
+public class TaskCodec implements SnapshotCodec<Task> {
+
+    @Override
+    public Task decode(String key, Map<String, Object> fields) {
+        Task v = new Task();
+        v.setId(id(key, fields));
+        v.setProjectId(string(fields, "projectId"));
+        v.setAssignedUserId(string(fields, "assignedUserId"));
+        v.setAssigneeEmail(string(fields, "assigneeEmail"));
+        v.setTitle(string(fields, "title"));
+        v.setDescription(string(fields, "description"));
+        v.setPriority(string(fields, "priority"));
+        v.setStatus(string(fields, "status"));
+        v.setEstimatedHours(doubleValue(fields, "estimatedHours"));
+        return v;
+    }
+
+    @Override
+    public Map<String, Object> encode(Task v) {
+        Map<String, Object> m = new HashMap<>(16);
+        put(m, "id", v.getId());
+        put(m, "projectId", v.getProjectId());
+        put(m, "assignedUserId", v.getAssignedUserId());
+        put(m, "assigneeEmail", v.getAssigneeEmail());
+        put(m, "title", v.getTitle());
+        put(m, "description", v.getDescription());
+        put(m, "priority", v.getPriority());
+        put(m, "status", v.getStatus());
+        put(m, "estimatedHours", v.getEstimatedHours());
+        return m;
+    }
+}
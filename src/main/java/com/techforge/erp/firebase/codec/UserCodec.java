@@ -0,0 +1,48 @@
+package com.techforge.erp.firebase.codec;
+
+import com.techforge.erp.model.User;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.techforge.erp.firebase.codec.SnapshotValues.*;
+
+public class UserCodec implements SnapshotCodec<User> {
+
+    @Override
+    public User decode(String key, Map<String, Object> fields) {
+        User v = new User();
+        v.setId(key);
+        v.setUsername(string(fields, "username"));
+        v.setEmail(string(fields, "email"));
+        v.setPassword(string(fields, "password"));
+        v.setFullName(string(fields, "fullName"));
+        v.setPhone(string(fields, "phone"));
+        v.setRole(string(fields, "role"));
+        // STRICT DATA ACCURACY: salary fields default to 0.0 when missing
+        v.setBaseSalary(doubleOrZero(fields, "baseSalary"));
+        v.setHourlyRateOT(doubleOrZero(fields, "hourlyRateOT"));
+        v.setSalaryType(string(fields, "salaryType"));
+        v.setOtp(string(fields, "otp"));
+        v.setOtpExpiry(string(fields, "otpExpiry"));
+        return v;
+    }
+
+    @Override
+    public Map<String, Object> encode(User v) {
+        Map<String, Object> m = new HashMap<>(16);
+        put(m, "id", v.getId());
+        put(m, "username", v.getUsername());
+        put(m, "email", v.getEmail());
+        put(m, "password", v.getPassword());
+        put(m, "fullName", v.getFullName());
+        put(m, "phone", v.getPhone());
+        put(m, "role", v.getRole());
+        put(m, "baseSalary", v.getBaseSalary());
+        put(m, "hourlyRateOT", v.getHourlyRateOT());
+        put(m, "salaryType", v.getSalaryType());
+        put(m, "otp", v.getOtp());
+        put(m, "otpExpiry", v.getOtpExpiry());
+        return m;
+    }
+}
@@ -0,0 +1,45 @@
+package com.techforge.erp.firebase.codec;
+
+import com.techforge.erp.model.WorkLog;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.techforge.erp.firebase.codec.SnapshotValues.*;
+
+public class WorkLogCodec implements SnapshotCodec<WorkLog> {
+
+    @Override
+    public WorkLog decode(String key, Map<String, Object> fields) {
+        WorkLog v = new WorkLog();
+        v.setId(id(key, fields));
+        v.setTaskId(string(fields, "taskId"));
+        v.setUserId(string(fields, "userId"));
+        v.setProjectId(string(fields, "projectId"));
+        v.setHours(doubleValue(fields, "hours"));
+        v.setRegularHours(doubleValue(fields, "regularHours"));
+        v.setOvertimeHours(doubleValue(fields, "overtimeHours"));
+        v.setWorkDate(date(fields, "workDate"));
+        v.setDescription(string(fields, "description"));
+        v.setBaseSalarySnapshot(doubleValue(fields, "baseSalarySnapshot"));
+        v.setHourlyRateOTSnapshot(doubleValue(fields, "hourlyRateOTSnapshot"));
+        return v;
+    }
+
+    @Override
+    public Map<String, Object> encode(WorkLog v) {
+        Map<String, Object> m = new HashMap<>(16);
+        put(m, "id", v.getId());
+        put(m, "taskId", v.getTaskId());
+        put(m, "userId", v.getUserId());
+        put(m, "projectId", v.getProjectId());
+        put(m, "hours", v.getHours());
+        put(m, "regularHours", v.getRegularHours());
+        put(m, "overtimeHours", v.getOvertimeHours());
+        putDate(m, "workDate", v.getWorkDate());
+        put(m, "description", v.getDescription());
+        put(m, "baseSalarySnapshot", v.getBaseSalarySnapshot());
+        put(m, "hourlyRateOTSnapshot", v.getHourlyRateOTSnapshot());
+        return m;
+    }
+}
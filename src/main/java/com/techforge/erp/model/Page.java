@@ -0,0 +1,21 @@
+package com.techforge.erp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a listing. Pass nextCursor back as ?cursor= to get the following page;
+ * it is null on the last page. total is null when the size of the listing is not known.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Page<T> {
+    private List<T> items;
+    private String nextCursor;
+    private Integer total;
+    private int limit;
+}
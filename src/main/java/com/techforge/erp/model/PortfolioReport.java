@@ -0,0 +1,24 @@
+package com.techforge.erp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Project reports of all projects plus their totals, for dashboards.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PortfolioReport {
+    private Integer totalProjects;
+    private Integer totalTasks;
+    private Integer completedTasks;
+    private Double totalBudget;
+    private Double budgetUsed;
+    private List<Map<String, Object>> taskBreakdown; // status -> count over all projects
+    private List<ProjectReport> projects;
+}
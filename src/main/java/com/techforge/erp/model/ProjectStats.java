@@ -0,0 +1,22 @@
+package com.techforge.erp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Aggregate stored at projectStats/{projectId}, kept up to date by task and worklog writes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectStats {
+    private String projectId;
+    private Integer totalTasks;
+    private Integer completedTasks;
+    private Double budgetUsed; // labor cost from worklog salary snapshots
+    private Map<String, Integer> statusCounts; // status -> number of tasks
+    private Map<String, Double> workerHours; // userId -> hours logged
+}
@@ -2,6 +2,7 @@ package com.techforge.erp.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techforge.erp.cache.LruCache;
 import com.techforge.erp.model.Project;
 import com.techforge.erp.model.Task;
 import com.techforge.erp.model.User;
@@ -17,10 +18,16 @@ import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +36,10 @@ import java.util.stream.Collectors;
  * STRICT COMPLIANCE NOTE:
  * - User.skills was REMOVED from model per Class Diagram constraint.
  * - Recommendations now based on: User.role + WorkLog history (hours on similar projects).
+ *
+ * Answers are memoized by a SHA-256 hash of the full request (prompt, maxTokens, temperature), so
+ * the same task/user set or project state is not sent to Gemini twice within the TTL.
+ * gemini.url can point at a local stub server.
  */
 @Service
 public class AIService {
@@ -39,11 +50,22 @@ public class AIService {
     @Autowired(required = false)
     private WorkLogService workLogService;
 
-    @Value("${gemini.api-key:}")
-    private String apiKey;
-
-    @Value("${gemini.url:}")
-    private String apiUrl;
+    private final String apiKey;
+    private final String apiUrl;
+
+    // cleaned JSON answers by request hash; each caller parses its own copy
+    private final LruCache<String, String> responses;
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AIService(@Value("${techforge.cache.ai.max-size:200}") int cacheMaxSize,
+                     @Value("${techforge.cache.ai.ttl-seconds:600}") long cacheTtlSeconds,
+                     @Value("${gemini.url:}") String apiUrl,
+                     @Value("${gemini.api-key:}") String apiKey) {
+        this.responses = new LruCache<>(cacheMaxSize, TimeUnit.SECONDS.toMillis(cacheTtlSeconds));
+        this.apiUrl = apiUrl;
+        this.apiKey = apiKey;
+    }
 
     /**
      * Suggest the best assignee for a task based on Role and WorkLog history.
@@ -54,7 +76,7 @@ public class AIService {
      * 3. Send context to AI for intelligent recommendation
      */
     public CompletableFuture<AISuggestion> suggestAssignee(Task task, List<User> users) {
-        return CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<String> prompt = CompletableFuture.supplyAsync(() -> {
             try {
                 // Build user context with role and workload (without skills)
                 List<Map<String, Object>> userContext = users.stream().map(u -> {
@@ -94,7 +116,7 @@ public class AIService {
                 String taskJson = objectMapper.writeValueAsString(task);
 
                 // Updated prompt - no skills, use Role and WorkLog experience
-                String prompt = "Act as a Project Manager. Select the best user for this task.\n"
+                return "Act as a Project Manager. Select the best user for this task.\n"
                         + "Selection criteria:\n"
                         + "1. User Role should match task complexity (MANAGER for high-priority, EMPLOYEE for standard)\n"
                         + "2. Prefer users with more totalHoursWorked (indicates experience)\n"
@@ -102,78 +124,101 @@ public class AIService {
                         + "\nTask: " + taskJson + "\n"
                         + "Available Users: " + usersJson + "\n"
                         + "Return ONLY raw JSON (no markdown). Structure: { \"userId\": \"...\", \"reason\": \"...\", \"confidenceScore\": 0.0-1.0 }";
-
-                GeminiRequest gr = new GeminiRequest();
-                gr.setPrompt(prompt);
-                gr.setMaxTokens(300);
-                gr.setTemperature(0.2);
-
-                String body = objectMapper.writeValueAsString(gr);
-
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                if (apiKey != null && !apiKey.isEmpty()) {
-                    headers.setBearerAuth(apiKey);
-                }
-
-                HttpEntity<String> req = new HttpEntity<>(body, headers);
-                ResponseEntity<String> resp = restTemplate.postForEntity(apiUrl, req, String.class);
-
-                String raw = resp.getBody();
-                String cleaned = cleanJsonResponse(raw);
-
-                AISuggestion suggestion = objectMapper.readValue(cleaned, AISuggestion.class);
-                return suggestion;
             } catch (JsonProcessingException e) {
                 logger.error("JSON processing error in suggestAssignee", e);
                 throw new RuntimeException(e);
-            } catch (Exception e) {
-                logger.error("Error calling Gemini API for suggestAssignee", e);
-                throw new RuntimeException(e);
             }
         });
+        return prompt.thenCompose(p -> complete(p, 300, 0.2, AISuggestion.class, "suggestAssignee"));
     }
 
     public CompletableFuture<AIRiskAnalysis> analyzeProjectRisk(Project project, List<Task> tasks) {
-        return CompletableFuture.supplyAsync(() -> {
+        CompletableFuture<String> prompt = CompletableFuture.supplyAsync(() -> {
             try {
                 String projectJson = objectMapper.writeValueAsString(project);
                 String tasksJson = objectMapper.writeValueAsString(tasks);
 
-                String prompt = "Analyze project risk based on budget/deadline/task status.\n"
+                return "Analyze project risk based on budget/deadline/task status.\n"
                         + "Project: " + projectJson + "\n"
                         + "Tasks: " + tasksJson + "\n"
                         + "Return ONLY raw JSON (no markdown). Structure: { \"riskLevel\", \"message\", \"suggestedAction\" }";
+            } catch (JsonProcessingException e) {
+                logger.error("JSON processing error in analyzeProjectRisk", e);
+                throw new RuntimeException(e);
+            }
+        });
+        return prompt.thenCompose(p -> complete(p, 400, 0.2, AIRiskAnalysis.class, "analyzeProjectRisk"));
+    }
+
+    /**
+     * The answer for a prompt, parsed as type. Answers are cached by a hash of the request, and identical
+     * requests in flight at the same time share one upstream call. Only answers that parse are cached;
+     * failed calls and malformed answers are asked again next time.
+     */
+    private <T> CompletableFuture<T> complete(String prompt, int maxTokens, double temperature,
+                                              Class<T> type, String operation) {
+        String key = requestHash(prompt, maxTokens, temperature);
+        String cached = responses.get(key);
+        if (cached != null) return CompletableFuture.completedFuture(parse(cached, type, operation));
+
+        CompletableFuture<String> call = inFlight.computeIfAbsent(key,
+                k -> CompletableFuture.supplyAsync(() -> callGemini(prompt, maxTokens, temperature)));
+        call.whenComplete((json, ex) -> inFlight.remove(key, call));
+        return call.thenApply(json -> {
+            T value = parse(json, type, operation);
+            responses.put(key, json);
+            return value;
+        });
+    }
 
-                GeminiRequest gr = new GeminiRequest();
-                gr.setPrompt(prompt);
-                gr.setMaxTokens(400);
-                gr.setTemperature(0.2);
+    private String callGemini(String prompt, int maxTokens, double temperature) {
+        try {
+            GeminiRequest gr = new GeminiRequest();
+            gr.setPrompt(prompt);
+            gr.setMaxTokens(maxTokens);
+            gr.setTemperature(temperature);
 
-                String body = objectMapper.writeValueAsString(gr);
+            String body = objectMapper.writeValueAsString(gr);
 
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.APPLICATION_JSON);
-                if (apiKey != null && !apiKey.isEmpty()) {
-                    headers.setBearerAuth(apiKey);
-                }
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            if (apiKey != null && !apiKey.isEmpty()) {
+                headers.setBearerAuth(apiKey);
+            }
 
-                HttpEntity<String> req = new HttpEntity<>(body, headers);
-                ResponseEntity<String> resp = restTemplate.postForEntity(apiUrl, req, String.class);
+            HttpEntity<String> req = new HttpEntity<>(body, headers);
+            ResponseEntity<String> resp = restTemplate.postForEntity(apiUrl, req, String.class);
 
-                String raw = resp.getBody();
-                String cleaned = cleanJsonResponse(raw);
+            return cleanJsonResponse(resp.getBody());
+        } catch (Exception e) {
+            logger.error("Error calling Gemini API", e);
+            throw new RuntimeException(e);
+        }
+    }
 
-                AIRiskAnalysis analysis = objectMapper.readValue(cleaned, AIRiskAnalysis.class);
-                return analysis;
-            } catch (JsonProcessingException e) {
-                logger.error("JSON processing error in analyzeProjectRisk", e);
-                throw new RuntimeException(e);
-            } catch (Exception e) {
-                logger.error("Error calling Gemini API for analyzeProjectRisk", e);
-                throw new RuntimeException(e);
-            }
-        });
+    private <T> T parse(String json, Class<T> type, String operation) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            logger.error("JSON processing error in {}", operation, e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String requestHash(String prompt, int maxTokens, double temperature) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((maxTokens + "|" + temperature + "|" + prompt).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Map<String, Object> cacheStats() {
+        Map<String, Object> s = responses.stats();
+        s.put("inFlight", inFlight.size());
+        return s;
     }
 
     /**
@@ -2,11 +2,17 @@ package com.techforge.erp.service;
 
 import com.google.firebase.database.DatabaseReference;
 import com.google.firebase.database.FirebaseDatabase;
+import com.techforge.erp.event.ChangeEventBus;
+import com.techforge.erp.event.PayrollChanged;
+import com.techforge.erp.firebase.Continuations;
+import com.techforge.erp.firebase.FirebaseQueries;
+import com.techforge.erp.firebase.Pagination;
+import com.techforge.erp.firebase.codec.Codecs;
 import com.techforge.erp.model.Expense;
 import com.techforge.erp.model.Invoice;
+import com.techforge.erp.model.Page;
 import com.techforge.erp.model.Payroll;
 import com.techforge.erp.model.User;
-import com.techforge.erp.model.WorkLog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,14 +20,13 @@ import org.springframework.stereotype.Service;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 @Service
 public class FinanceService {
 
     private static final Logger logger = LoggerFactory.getLogger(FinanceService.class);
+    private static final long FIREBASE_TIMEOUT_SECONDS = 5;
 
     private final DatabaseReference payrollsRef;
     private final DatabaseReference invoicesRef;
@@ -29,22 +34,24 @@ public class FinanceService {
 //Nguyên tắc Single Responsibility nên không gọi thẳng vào user/workload
     private final WorkLogService workLogService;
     private final UserService userService;
+    private final ChangeEventBus eventBus;
 
     @Autowired
-    public FinanceService(UserService userService, WorkLogService workLogService) {
+    public FinanceService(UserService userService, WorkLogService workLogService, ChangeEventBus eventBus) {
         DatabaseReference root = FirebaseDatabase.getInstance().getReference("LTUD10");
         this.payrollsRef = root.child("payrolls");
         this.invoicesRef = root.child("invoices");
         this.expensesRef = root.child("expenses");
         this.userService = userService;
         this.workLogService = workLogService;
+        this.eventBus = eventBus;
     }
 
     /**
      * Calculate payroll for a given user/month/year, save to LTUD10/payrolls and return the created Payroll.
      */
-    //1. Lấy TẤT CẢ worklogs
-    //2. Filter theo user + month + year
+    //1. Lấy worklogs của tháng (bucket worklogsByMonth/{yyyy-MM})
+    //2. Filter theo userId
     //3. Lấy User (để biết salaryType)
     /**4. Tính:
     *  - regular pay
@@ -57,56 +64,27 @@ public class FinanceService {
         CompletableFuture<Payroll> future = new CompletableFuture<>();
 
         try {
-            // fetch all worklogs then filter by userId and month/year
-            workLogService.getAllWorkLogs().thenCompose(all -> {
-                List<WorkLog> filtered = (all == null) ? Collections.emptyList() :
-                        all.stream().filter(w -> {
-                            if (w == null || w.getUserId() == null) return false;
-                            if (!w.getUserId().equals(userId)) return false;
-                            if (w.getWorkDate() == null) return false;
-                            Calendar c = Calendar.getInstance();
-                            c.setTime(w.getWorkDate());
-                            int wm = c.get(Calendar.MONTH) + 1; // Calendar.MONTH is 0-based
-                            int wy = c.get(Calendar.YEAR);
-                            return wm == month && wy == year;
-                        }).collect(Collectors.toList());
+            // fetch only this month's bucket then keep the user's totals
+            workLogService.getWorkLogsForMonth(month, year).thenCompose(monthLogs -> {
+                WorkAggregation.UserGroup totals = WorkAggregation.of(Collections.emptyList(),
+                        monthLogs == null ? Collections.emptyList() : monthLogs).user(userId);
 
                 // fetch user once
                 return userService.getUserById(userId)
-                        .thenApply(user -> new AbstractMap.SimpleEntry<>(user, filtered));
+                        .thenApply(user -> new AbstractMap.SimpleEntry<>(user, totals));
             }).thenAccept(pair -> {
                 User user = pair.getKey();
-                List<WorkLog> logs = pair.getValue();
-
-                double totalRegular = 0.0;
-                double totalOvertime = 0.0;
-
-                for (WorkLog wl : logs) {
-                    if (wl == null) continue;
-
-                    double regularHours = wl.getRegularHours() == null ? 0.0 : wl.getRegularHours();
-                    double overtimeHours = wl.getOvertimeHours() == null ? 0.0 : wl.getOvertimeHours();
-// get base salary snapshot from worklog
-                    double baseSnapshot = wl.getBaseSalarySnapshot() == null ? 0.0 : wl.getBaseSalarySnapshot();
-
-                    // determine hourly rate based on user's salaryType if available, else assume monthly
-                    String salaryType = (user != null) ? user.getSalaryType() : null;
-                    double hourlyRate;
-                    if ("hourly".equalsIgnoreCase(salaryType)) {
-                        hourlyRate = baseSnapshot; // snapshot already hourly rate
-                    } else {
-                        // default to monthly
-                        hourlyRate = baseSnapshot / 160.0; //Cho startup làm việc ngày sấp sĩ 5h thoii
-                    }
-
-                    double regPay = hourlyRate * regularHours;
+                WorkAggregation.UserGroup totals = pair.getValue();
 
-                    double otRate = wl.getHourlyRateOTSnapshot() == null ? hourlyRate : wl.getHourlyRateOTSnapshot();
-                    double otPay = otRate * overtimeHours;
+                // determine hourly rate based on user's salaryType if available, else assume monthly:
+                // the base salary snapshot is either the hourly rate or a monthly salary over 160h
+                String salaryType = (user != null) ? user.getSalaryType() : null;
+                double hoursPerBase = "hourly".equalsIgnoreCase(salaryType) ? 1.0 : 160.0; //Cho startup làm việc ngày sấp sĩ 5h thoii
 
-                    totalRegular += regPay;
-                    totalOvertime += otPay;
-                }
+                // pay is linear in the snapshots, so it is computed from the per-user sums
+                double totalRegular = totals.baseTimesRegularHours / hoursPerBase;
+                // overtime at the OT snapshot rate, or at the regular hourly rate when a log has none
+                double totalOvertime = totals.overtimePayAtOtRate + totals.baseTimesOvertimeHoursNoOtRate / hoursPerBase;
 
                 double totalPay = totalRegular + totalOvertime;
 
@@ -128,10 +106,11 @@ public class FinanceService {
 
                 // Write to Firebase Realtime Database asynchronously.
                 try {
-                    payrollsRef.child(key).setValueAsync(payroll).addListener(() -> {
+                    payrollsRef.child(key).setValueAsync(Codecs.PAYROLL.encode(payroll)).addListener(() -> {
                         logger.info("Payroll saved (user={}, month={}, year={}, id={})", userId, month, year, key);
+                        eventBus.publish(new PayrollChanged(key, null, payroll));
                         future.complete(payroll);
-                    }, Runnable::run);
+                    }, Continuations.executor());
                 } catch (Exception e) {
                     logger.error("Failed to save payroll to Firebase", e);
                     future.completeExceptionally(e);
@@ -164,10 +143,10 @@ public class FinanceService {
                 return future;
             }
             invoice.setId(key);
-            invoicesRef.child(key).setValueAsync(invoice).addListener(() -> {
+            invoicesRef.child(key).setValueAsync(Codecs.INVOICE.encode(invoice)).addListener(() -> {
                 logger.info("Invoice saved id={}", key);
                 future.complete(invoice);
-            }, Runnable::run);
+            }, Continuations.executor());
         } catch (Exception e) {
             logger.error("Error creating invoice", e);
             future.completeExceptionally(e);
@@ -187,14 +166,22 @@ public class FinanceService {
         );
     }
 
+    /**
+     * Version of the data the payroll table is computed from (the users and their rates), for ETags.
+     */
+    public long payrollVersion() {
+        return userService.dataVersion();
+    }
+
     /**
      * Get payroll for ALL employees for a specific month/year.
      *
      * CRITICAL: Uses CURRENT user rates (from User object), NOT historical WorkLog snapshots.
-     * This ensures that when admin edits hourlyRateOT in Firebase, the payroll recalculates immediately.
+     * This ensures that when admin edits hourlyRateOT in Firebase, the payroll recalculates immediately:
+     * the user snapshot is kept current by the users listener, so no full reload is needed per call.
      *
      * Logic:
-     * 1. FORCE RELOAD all Users from Firebase (fresh data)
+     * 1. Take the current user snapshot (see {@link UserService#getUserSnapshot()})
      * 2. Filter to role == "EMPLOYEE"
      * 3. Fetch WorkLogs for the specified month/year
      * 4. Loop through User List (not WorkLogs):
@@ -204,20 +191,15 @@ public class FinanceService {
      * 5. Return a list of Payroll records for everyone
      */
     public CompletableFuture<List<Map<String, Object>>> getAllPayrollForMonth(int month, int year) {
-        CompletableFuture<List<Map<String, Object>>> future = new CompletableFuture<>();
+        logger.info("===== PAYROLL CALCULATION START (TEST MODE) =====");
+        logger.info("getAllPayrollForMonth (TEST MODE): month={}, year={}", month, year);
 
-        try {
-            logger.info("===== PAYROLL CALCULATION START (TEST MODE) =====");
-            logger.info("getAllPayrollForMonth (TEST MODE): month={}, year={}", month, year);
-
-            // Force reload users to get fresh rates from Firebase
-            List<User> freshUsers = userService.forceReloadUsers();
-            logger.info("getAllPayrollForMonth (TEST MODE): Loaded {} users", freshUsers.size());
+        // Current rates, as of the latest user change delivered by Firebase
+        return userService.getUserSnapshot().thenApply(snapshot -> {
+            logger.info("getAllPayrollForMonth (TEST MODE): {} users at version {}", snapshot.size(), snapshot.getVersion());
 
             // Filter to employees
-            List<User> employees = freshUsers.stream()
-                .filter(u -> u != null && "EMPLOYEE".equalsIgnoreCase(u.getRole()))
-                .collect(Collectors.toList());
+            List<User> employees = snapshot.withRole("EMPLOYEE");
 
             List<Map<String, Object>> payrollList = new ArrayList<>();
 
@@ -260,82 +242,46 @@ public class FinanceService {
             }
 
             logger.info("Payroll calculation complete (TEST MODE): {} records", payrollList.size());
-            future.complete(payrollList);
-
-        } catch (Exception e) {
-            logger.error("Error in getAllPayrollForMonth (TEST MODE)", e);
-            future.completeExceptionally(e);
-        }
-
-        return future;
+            return payrollList;
+        }).whenComplete((list, ex) -> {
+            if (ex != null) logger.error("Error in getAllPayrollForMonth (TEST MODE)", ex);
+        });
     }
 
     /**
-     * Return all payroll records stored in Firebase (transaction history).
-     * This method blocks briefly while waiting for the async Firebase callback (timeout 5s).
+     * Return all paid payroll records stored in Firebase (transaction history), newest first.
+     * Fails with a TimeoutException when Firebase does not answer within {@value #FIREBASE_TIMEOUT_SECONDS}s.
      */
-    public List<Payroll> getTransactionHistory() {
-        List<Payroll> result = new ArrayList<>();
-        CountDownLatch latch = new CountDownLatch(1);
-
-        try {
-            payrollsRef.addListenerForSingleValueEvent(new com.google.firebase.database.ValueEventListener() {
-                @Override
-                public void onDataChange(com.google.firebase.database.DataSnapshot snapshot) {
-                    try {
-                        if (snapshot != null && snapshot.exists()) {
-                            for (com.google.firebase.database.DataSnapshot child : snapshot.getChildren()) {
-                                try {
-                                    Payroll p = child.getValue(Payroll.class);
-                                    if (p != null) result.add(p);
-                                } catch (Exception ex) {
-                                    logger.warn("Failed to parse payroll child: {}", ex.getMessage());
-                                }
-                            }
-                        }
-                    } finally {
-                        latch.countDown();
-                    }
-                }
-
-                @Override
-                public void onCancelled(com.google.firebase.database.DatabaseError error) {
-                    logger.error("Firebase read cancelled for payrolls: {}", error.getMessage());
-                    latch.countDown();
-                }
-            });
-
-            // Wait up to 5 seconds for Firebase callback
-            latch.await(5, TimeUnit.SECONDS);
-        } catch (InterruptedException ie) {
-            Thread.currentThread().interrupt();
-        } catch (Exception e) {
-            logger.error("Error while fetching transaction history", e);
-        }
+    public CompletableFuture<List<Payroll>> getTransactionHistory() {
+        return FirebaseQueries.fetchList(payrollsRef, Codecs.PAYROLL::decode)
+                .orTimeout(FIREBASE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .thenApply(result -> {
+                    // Keep only paid records
+                    result.removeIf(p -> !Boolean.TRUE.equals(p.isPaid()));
+
+                    // Sort by year desc, then month desc
+                    result.sort((a, b) -> {
+                        int cmp = Integer.compare(b.getYear(), a.getYear()); // descending year
+                        if (cmp != 0) return cmp;
+                        return Integer.compare(b.getMonth(), a.getMonth()); // descending month
+                    });
+                    return result;
+                });
+    }
 
-        // Filter to only PAID payrolls and sort newest-first by year, then month
-        try {
-            // Remove nulls just in case
-            result.removeIf(Objects::isNull);
-
-            // Keep only paid records
-            result.removeIf(p -> !Boolean.TRUE.equals(p.isPaid()));
-
-            // Sort by year desc, then month desc
-            result.sort((a, b) -> {
-                int ay = a == null ? Integer.MIN_VALUE : a.getYear();
-                int by = b == null ? Integer.MIN_VALUE : b.getYear();
-                int cmp = Integer.compare(by, ay); // descending year
-                if (cmp != 0) return cmp;
-                int am = a == null ? Integer.MIN_VALUE : a.getMonth();
-                int bm = b == null ? Integer.MIN_VALUE : b.getMonth();
-                return Integer.compare(bm, am); // descending month
-            });
-        } catch (Exception ex) {
-            logger.warn("Error filtering/sorting payrolls: {}", ex.getMessage());
-        }
+    /**
+     * One page of the transaction history (newest first), continuing after the payroll with id afterKey.
+     */
+    public CompletableFuture<Page<Payroll>> getTransactionHistoryPage(String afterKey, int limit) {
+        return getTransactionHistory().thenApply(list -> Pagination.slice(list, Payroll::getId, afterKey, limit));
+    }
 
-        return result;
+    /**
+     * All payroll records (paid or not) of one year, read from Firebase with the payrolls "year" index; for exports.
+     */
+    public CompletableFuture<List<Payroll>> getPayrollsForYear(int year) {
+        return FirebaseQueries.fetchList(payrollsRef.orderByChild("year").equalTo(year), Codecs.PAYROLL::decode)
+                .orTimeout(FIREBASE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
     }
 
     public CompletableFuture<Expense> createExpense(Expense expense) {
@@ -352,10 +298,10 @@ public class FinanceService {
                 return future;
             }
             expense.setId(key);
-            expensesRef.child(key).setValueAsync(expense).addListener(() -> {
+            expensesRef.child(key).setValueAsync(Codecs.EXPENSE.encode(expense)).addListener(() -> {
                 logger.info("Expense saved id={}", key);
                 future.complete(expense);
-            }, Runnable::run);
+            }, Continuations.executor());
         } catch (Exception e) {
             logger.error("Error creating expense", e);
             future.completeExceptionally(e);
@@ -387,7 +333,7 @@ public class FinanceService {
                         return;
                     }
 
-                    Invoice invoice = snapshot.getValue(Invoice.class);
+                    Invoice invoice = Codecs.INVOICE.decode(snapshot);
                     if (invoice == null) {
                         future.completeExceptionally(new IllegalStateException("Failed to parse invoice"));
                         return;
@@ -404,10 +350,10 @@ public class FinanceService {
                     invoice.setStatus("PAID");
 
                     // Save back to Firebase
-                    invoicesRef.child(invoiceId).setValueAsync(invoice).addListener(() -> {
+                    invoicesRef.child(invoiceId).setValueAsync(Codecs.INVOICE.encode(invoice)).addListener(() -> {
                         logger.info("Invoice {} marked as PAID", invoiceId);
                         future.complete(invoice);
-                    }, Runnable::run);
+                    }, Continuations.executor());
                 }
 
                 @Override
@@ -421,6 +367,6 @@ public class FinanceService {
             future.completeExceptionally(e);
         }
 
-        return future;
+        return Continuations.handoff(future);
     }
 }
@@ -1,23 +1,40 @@
 package com.techforge.erp.service;
 
 import com.google.firebase.database.*;
+import com.techforge.erp.firebase.Continuations;
+import com.techforge.erp.firebase.FirebaseBatch;
+import com.techforge.erp.firebase.FirebaseMirror;
+import com.techforge.erp.firebase.FirebaseQueries;
+import com.techforge.erp.firebase.codec.Codecs;
+import com.techforge.erp.model.Page;
 import com.techforge.erp.model.Project;
+import com.techforge.erp.model.Task;
+import com.techforge.erp.model.WorkLog;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ProjectService {
 
+    private final DatabaseReference root;
     private final DatabaseReference projectsRef;
-    private final DatabaseReference tasksRef;
+    private final FirebaseMirror mirror;
+    private final TaskService taskService;
+    private final WorkLogService workLogService;
 
-    public ProjectService() {
-        DatabaseReference root = FirebaseDatabase.getInstance().getReference("LTUD10");
+    @Autowired
+    public ProjectService(FirebaseMirror mirror, TaskService taskService, WorkLogService workLogService) {
+        this.root = FirebaseDatabase.getInstance().getReference("LTUD10");
         this.projectsRef = root.child("projects");
-        this.tasksRef = root.child("tasks");
+        this.mirror = mirror;
+        this.taskService = taskService;
+        this.workLogService = workLogService;
     }
 
     public CompletableFuture<Project> createProject(Project project) {
@@ -29,7 +46,7 @@ public class ProjectService {
                 return future;
             }
             project.setId(key);
-            projectsRef.child(key).setValueAsync(project).addListener(() -> future.complete(project), Runnable::run);
+            projectsRef.child(key).setValueAsync(Codecs.PROJECT.encode(project)).addListener(() -> future.complete(project), Continuations.executor());
         } catch (Exception e) {
             future.completeExceptionally(e);
         }
@@ -37,55 +54,26 @@ public class ProjectService {
     }
 
     public CompletableFuture<Project> getProjectById(String id) {
-        CompletableFuture<Project> future = new CompletableFuture<>();
-        try {
-            projectsRef.child(id).addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(DataSnapshot snapshot) {
-                    if (snapshot.exists()) {
-                        Project p = snapshot.getValue(Project.class);
-                        future.complete(p);
-                    } else {
-                        future.complete(null);
-                    }
-                }
-
-                @Override
-                public void onCancelled(DatabaseError error) {
-                    future.completeExceptionally(new RuntimeException("Firebase cancelled: " + error.getMessage()));
-                }
-            });
-        } catch (Exception e) {
-            future.completeExceptionally(e);
-        }
-        return future;
+        return mirror.projects().get(id);
     }
 
     public CompletableFuture<List<Project>> getAllProjects() {
-        CompletableFuture<List<Project>> future = new CompletableFuture<>();
-        try {
-            projectsRef.addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(DataSnapshot snapshot) {
-                    List<Project> list = new ArrayList<>();
-                    if (snapshot.exists()) {
-                        for (DataSnapshot child : snapshot.getChildren()) {
-                            Project p = child.getValue(Project.class);
-                            if (p != null) list.add(p);
-                        }
-                    }
-                    future.complete(list);
-                }
+        return mirror.projects().values();
+    }
 
-                @Override
-                public void onCancelled(DatabaseError error) {
-                    future.completeExceptionally(new RuntimeException("Firebase cancelled: " + error.getMessage()));
-                }
-            });
-        } catch (Exception e) {
-            future.completeExceptionally(e);
-        }
-        return future;
+    /**
+     * Version of the projects data for ETags, or -1 while the mirror has not synced.
+     */
+    public long dataVersion() {
+        return mirror.projects().isSynced() ? mirror.projects().version() : -1;
+    }
+
+    /**
+     * Projects in key order after the given key (null for the first page).
+     */
+    public CompletableFuture<Page<Project>> getProjectsPage(String afterKey, int limit) {
+        if (!mirror.projects().isReady()) return FirebaseQueries.fetchPage(projectsRef, afterKey, limit, Codecs.PROJECT::decode);
+        return mirror.projects().page(afterKey, limit);
     }
 
     public CompletableFuture<Void> updateProject(Project project) {
@@ -95,7 +83,7 @@ public class ProjectService {
                 future.completeExceptionally(new IllegalArgumentException("Project id is required for update"));
                 return future;
             }
-            projectsRef.child(project.getId()).setValueAsync(project).addListener(() -> future.complete(null), Runnable::run);
+            projectsRef.child(project.getId()).setValueAsync(Codecs.PROJECT.encode(project)).addListener(() -> future.complete(null), Continuations.executor());
         } catch (Exception e) {
             future.completeExceptionally(e);
         }
@@ -103,52 +91,66 @@ public class ProjectService {
     }
 
     /**
-     * Delete a project and all its associated tasks (Cascade Delete).
-     * This prevents ConstraintViolationException by removing dependent tasks first.
+     * Create a project together with its initial tasks in one atomic multi-path write.
+     * Each task gets its own key and the new project's id.
      */
-    public CompletableFuture<Void> deleteProject(String id) {
-        CompletableFuture<Void> future = new CompletableFuture<>();
+    public CompletableFuture<Map<String, Object>> createProjectWithTasks(Project project, List<Task> tasks) {
+        CompletableFuture<Map<String, Object>> future = new CompletableFuture<>();
         try {
-            // Step 1: Find and delete all tasks associated with this project
-            tasksRef.orderByChild("projectId").equalTo(id)
-                    .addListenerForSingleValueEvent(new ValueEventListener() {
-                        @Override
-                        public void onDataChange(DataSnapshot snapshot) {
-                            // Collect all task deletion futures
-                            List<CompletableFuture<Void>> deletionFutures = new ArrayList<>();
-
-                            if (snapshot.exists()) {
-                                for (DataSnapshot taskSnapshot : snapshot.getChildren()) {
-                                    String taskId = taskSnapshot.getKey();
-                                    if (taskId != null) {
-                                        CompletableFuture<Void> taskFuture = new CompletableFuture<>();
-                                        tasksRef.child(taskId).removeValueAsync()
-                                                .addListener(() -> taskFuture.complete(null), Runnable::run);
-                                        deletionFutures.add(taskFuture);
-                                    }
-                                }
-                            }
-
-                            // Step 2: After all tasks are deleted, delete the project
-                            CompletableFuture.allOf(deletionFutures.toArray(new CompletableFuture[0]))
-                                    .thenRun(() -> {
-                                        projectsRef.child(id).removeValueAsync()
-                                                .addListener(() -> future.complete(null), Runnable::run);
-                                    })
-                                    .exceptionally(ex -> {
-                                        future.completeExceptionally(ex);
-                                        return null;
-                                    });
-                        }
-
-                        @Override
-                        public void onCancelled(DatabaseError error) {
-                            future.completeExceptionally(new RuntimeException("Firebase cancelled: " + error.getMessage()));
-                        }
-                    });
+            String key = (project.getId() != null && !project.getId().isEmpty()) ? project.getId() : projectsRef.push().getKey();
+            if (key == null) {
+                future.completeExceptionally(new IllegalStateException("Unable to generate key for project"));
+                return future;
+            }
+            project.setId(key);
+
+            FirebaseBatch batch = new FirebaseBatch(root);
+            batch.set("projects/" + key, Codecs.PROJECT.encode(project));
+            List<Task> staged = new ArrayList<>();
+            if (tasks != null) {
+                for (Task task : tasks) {
+                    if (task == null) continue;
+                    task.setProjectId(key);
+                    staged.add(taskService.stageCreate(batch, task));
+                }
+            }
+
+            batch.commit().thenRun(() -> {
+                Map<String, Object> result = new HashMap<>();
+                result.put("project", project);
+                result.put("tasks", staged);
+                future.complete(result);
+            }).exceptionally(ex -> {
+                future.completeExceptionally(ex);
+                return null;
+            });
         } catch (Exception e) {
             future.completeExceptionally(e);
         }
         return future;
     }
+
+    /**
+     * Delete a project with all its tasks and worklogs (Cascade Delete).
+     * Everything is removed in a single atomic multi-path write, so an interrupted delete
+     * can no longer leave a half-deleted project behind.
+     */
+    public CompletableFuture<Void> deleteProject(String id) {
+        // live data only: a preloaded snapshot could miss records created since it was written
+        CompletableFuture<List<Task>> tasksF = mirror.tasks().findBySynced(FirebaseMirror.BY_PROJECT, id);
+        CompletableFuture<List<WorkLog>> worklogsF = mirror.worklogs().findBySynced(FirebaseMirror.BY_PROJECT, id);
+
+        return CompletableFuture.allOf(tasksF, worklogsF).thenCompose(v -> {
+            FirebaseBatch batch = new FirebaseBatch(root);
+            for (Task task : tasksF.join()) {
+                taskService.stageDelete(batch, task);
+            }
+            for (WorkLog workLog : worklogsF.join()) {
+                workLogService.stageDelete(batch, workLog);
+            }
+            batch.delete("projects/" + id);
+            batch.delete(ProjectStatsService.NODE + "/" + id);
+            return batch.commit();
+        });
+    }
 }
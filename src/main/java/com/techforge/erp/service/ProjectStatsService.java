@@ -0,0 +1,261 @@
+package com.techforge.erp.service;
+
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.FirebaseDatabase;
+import com.techforge.erp.firebase.FirebaseBatch;
+import com.techforge.erp.firebase.FirebaseMirror;
+import com.techforge.erp.firebase.FirebaseQueries;
+import com.techforge.erp.firebase.codec.Codecs;
+import com.techforge.erp.model.Project;
+import com.techforge.erp.model.ProjectStats;
+import com.techforge.erp.model.Task;
+import com.techforge.erp.model.WorkLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Maintains projectStats/{projectId}: task counts, status breakdown, labor cost and hours per worker.
+ *
+ * Task and worklog writes stage the difference between the old and the new record into the same
+ * batch as server-side increments, so a project report is one small read instead of a recomputation.
+ * The old record comes from the mirror; if two writes to the same record race the aggregate can drift.
+ * {@link #reconcile()} (run periodically by ProjectStatsReconciler) compares every stored aggregate with
+ * one computed from the mirror and rebuilds the projects that stay off; {@link #rebuild(String)}
+ * recomputes one project from the source data.
+ */
+@Service
+public class ProjectStatsService {
+
+    public static final String NODE = "projectStats";
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectStatsService.class);
+
+    private final DatabaseReference statsRef;
+    private final FirebaseMirror mirror;
+    private volatile boolean backfilled;
+    // projects whose stored counters disagreed with the mirror on the last reconcile pass
+    private Set<String> suspects = Set.of();
+
+    @Autowired
+    public ProjectStatsService(FirebaseMirror mirror) {
+        this.statsRef = FirebaseDatabase.getInstance().getReference("LTUD10").child(NODE);
+        this.mirror = mirror;
+    }
+
+    /**
+     * Stage the stats change for a task going from previous to current (either may be null).
+     * The batch must be rooted at LTUD10.
+     */
+    public void stageTaskChange(FirebaseBatch batch, Task previous, Task current) {
+        if (previous != null) addTask(batch, previous, -1);
+        if (current != null) addTask(batch, current, 1);
+    }
+
+    /**
+     * Stage the stats change for a worklog going from previous to current (either may be null).
+     * The batch must be rooted at LTUD10.
+     */
+    public void stageWorkLogChange(FirebaseBatch batch, WorkLog previous, WorkLog current) {
+        if (previous != null) addWorkLog(batch, previous, -1);
+        if (current != null) addWorkLog(batch, current, 1);
+    }
+
+    private void addTask(FirebaseBatch batch, Task task, int sign) {
+        if (task.getProjectId() == null) return;
+        String base = NODE + "/" + task.getProjectId();
+        batch.increment(base + "/totalTasks", sign);
+        if (isCompleted(task)) batch.increment(base + "/completedTasks", sign);
+        batch.increment(base + "/statusCounts/" + statusKey(task), sign);
+    }
+
+    private void addWorkLog(FirebaseBatch batch, WorkLog w, int sign) {
+        if (w.getProjectId() == null) return;
+        String base = NODE + "/" + w.getProjectId();
+        batch.increment(base + "/budgetUsed", sign * laborCost(w));
+        double hours = w.getHours() == null ? 0.0 : w.getHours();
+        batch.increment(base + "/workerHours/" + workerKey(w), sign * hours);
+    }
+
+    /**
+     * Stats of one project in a single read. A project that has no stats yet is rebuilt first.
+     * Until the one-time backfill (see ProjectStatsBackfill) has run, stored nodes may only hold the
+     * deltas of writes made since this aggregate was introduced, so they are rebuilt instead of read.
+     */
+    public CompletableFuture<ProjectStats> getStats(String projectId) {
+        if (!backfilled) return rebuild(projectId);
+        return FirebaseQueries.fetchOne(statsRef.child(projectId), Codecs.PROJECT_STATS::decode)
+                .thenCompose(stats -> stats != null ? CompletableFuture.completedFuture(stats) : rebuild(projectId));
+    }
+
+    /**
+     * Called once every project's stats have been rebuilt (or were found rebuilt on an earlier run).
+     */
+    public void markBackfilled() {
+        backfilled = true;
+    }
+
+    /**
+     * Recompute a project's stats from its tasks and worklogs and overwrite the stored aggregate.
+     * Fails when the write fails, so callers never treat an unsaved rebuild as done.
+     */
+    public CompletableFuture<ProjectStats> rebuild(String projectId) {
+        // rebuild from live data, never from a preloaded snapshot
+        CompletableFuture<List<Task>> tasksF = mirror.tasks().synced()
+                .thenCompose(v -> mirror.tasks().findBy(FirebaseMirror.BY_PROJECT, projectId));
+        CompletableFuture<List<WorkLog>> worklogsF = mirror.worklogs().synced()
+                .thenCompose(v -> mirror.worklogs().findBy(FirebaseMirror.BY_PROJECT, projectId));
+
+        return CompletableFuture.allOf(tasksF, worklogsF).thenCompose(v -> {
+            ProjectStats stats = compute(projectId, tasksF.join(), worklogsF.join());
+            // an update of the whole child replaces it, like setValue, and reports write failures
+            return new FirebaseBatch(statsRef)
+                    .set(projectId, Codecs.PROJECT_STATS.encode(stats))
+                    .commit()
+                    .thenApply(done -> {
+                        logger.info("Rebuilt projectStats for project {}", projectId);
+                        return stats;
+                    });
+        });
+    }
+
+    /**
+     * Rebuild the stats of every project. Completes with the number of projects rebuilt.
+     */
+    public CompletableFuture<Integer> rebuildAll() {
+        return mirror.projects().synced().thenCompose(v -> mirror.projects().values()).thenCompose(projects -> {
+            List<CompletableFuture<ProjectStats>> all = new ArrayList<>();
+            for (Project p : projects) {
+                if (p.getId() != null) all.add(rebuild(p.getId()));
+            }
+            return CompletableFuture.allOf(all.toArray(new CompletableFuture[0])).thenApply(v -> all.size());
+        });
+    }
+
+    /**
+     * Compare every project's stored aggregate with one computed from the synced mirror and rebuild the
+     * projects that disagreed on this pass and on the previous one. A single mismatch can be a write whose
+     * increments are stored before the mirror has the record; drift left by racing writes persists.
+     * Does nothing until the backfill is done. Completes with the ids of the rebuilt projects.
+     */
+    public CompletableFuture<List<String>> reconcile() {
+        if (!backfilled) return CompletableFuture.completedFuture(List.of());
+        CompletableFuture<Void> synced = CompletableFuture.allOf(
+                mirror.projects().synced(), mirror.tasks().synced(), mirror.worklogs().synced());
+
+        return synced.thenCompose(v -> FirebaseQueries.fetchList(statsRef, Codecs.PROJECT_STATS::decode)).thenCompose(storedList -> {
+            Map<String, ProjectStats> stored = new HashMap<>();
+            for (ProjectStats s : storedList) stored.put(s.getProjectId(), s);
+            WorkAggregation aggregation = WorkAggregation.of(
+                    mirror.tasks().entries().values(), mirror.worklogs().entries().values());
+
+            Set<String> mismatched = new HashSet<>();
+            for (String projectId : mirror.projects().entries().keySet()) {
+                ProjectStats expected = aggregation.project(projectId).toStats(projectId);
+                if (!sameCounters(expected, stored.get(projectId))) mismatched.add(projectId);
+            }
+
+            List<String> drifted = new ArrayList<>();
+            synchronized (this) {
+                for (String projectId : mismatched) {
+                    if (suspects.contains(projectId)) drifted.add(projectId);
+                }
+                Set<String> next = new HashSet<>(mismatched);
+                drifted.forEach(next::remove);
+                suspects = next;
+            }
+
+            List<CompletableFuture<ProjectStats>> rebuilds = new ArrayList<>();
+            for (String projectId : drifted) {
+                logger.warn("projectStats of project {} drifted from its tasks and worklogs, rebuilding", projectId);
+                rebuilds.add(rebuild(projectId));
+            }
+            return CompletableFuture.allOf(rebuilds.toArray(new CompletableFuture[0])).thenApply(done -> drifted);
+        });
+    }
+
+    /**
+     * Whether a stored aggregate (null when missing) holds the expected counters. Zero entries left
+     * behind by increments are ignored; amounts are compared with a small tolerance.
+     */
+    static boolean sameCounters(ProjectStats expected, ProjectStats stored) {
+        if (stored == null) stored = new ProjectStats(expected.getProjectId(), 0, 0, 0.0, Map.of(), Map.of());
+        if (intOrZero(expected.getTotalTasks()) != intOrZero(stored.getTotalTasks())) return false;
+        if (intOrZero(expected.getCompletedTasks()) != intOrZero(stored.getCompletedTasks())) return false;
+        if (!close(doubleOrZero(expected.getBudgetUsed()), doubleOrZero(stored.getBudgetUsed()))) return false;
+
+        Map<String, Integer> expectedCounts = nonZero(expected.getStatusCounts());
+        if (!expectedCounts.equals(nonZero(stored.getStatusCounts()))) return false;
+
+        Map<String, Double> expectedHours = expected.getWorkerHours() == null ? Map.of() : expected.getWorkerHours();
+        Map<String, Double> storedHours = stored.getWorkerHours() == null ? Map.of() : stored.getWorkerHours();
+        Set<String> workers = new HashSet<>(expectedHours.keySet());
+        workers.addAll(storedHours.keySet());
+        for (String worker : workers) {
+            if (!close(doubleOrZero(expectedHours.get(worker)), doubleOrZero(storedHours.get(worker)))) return false;
+        }
+        return true;
+    }
+
+    private static Map<String, Integer> nonZero(Map<String, Integer> counts) {
+        Map<String, Integer> m = new HashMap<>();
+        if (counts != null) counts.forEach((k, n) -> {
+            if (n != null && n != 0) m.put(k, n);
+        });
+        return m;
+    }
+
+    private static int intOrZero(Integer v) {
+        return v == null ? 0 : v;
+    }
+
+    private static double doubleOrZero(Double v) {
+        return v == null ? 0.0 : v;
+    }
+
+    private static boolean close(double a, double b) {
+        return Math.abs(a - b) <= 1e-6 * Math.max(1.0, Math.max(Math.abs(a), Math.abs(b)));
+    }
+
+    static ProjectStats compute(String projectId, List<Task> tasks, List<WorkLog> worklogs) {
+        return WorkAggregation.of(tasks, worklogs).project(projectId).toStats(projectId);
+    }
+
+    public static boolean isCompleted(Task t) {
+        return "DONE".equalsIgnoreCase(t.getStatus()) || "COMPLETED".equalsIgnoreCase(t.getStatus());
+    }
+
+    /**
+     * Labor cost of a worklog from its salary snapshots (monthly base spread over 160h, OT at the OT rate).
+     */
+    public static double laborCost(WorkLog w) {
+        double base = w.getBaseSalarySnapshot() == null ? 0.0 : w.getBaseSalarySnapshot();
+        double hourly = w.getHourlyRateOTSnapshot() == null ? 0.0 : w.getHourlyRateOTSnapshot();
+        double regRate = base > 0 ? base / 160.0 : 0.0; // assumption
+        double reg = w.getRegularHours() == null ? 0.0 : w.getRegularHours();
+        double ot = w.getOvertimeHours() == null ? 0.0 : w.getOvertimeHours();
+        return reg * regRate + ot * hourly;
+    }
+
+    static String statusKey(Task t) {
+        return safeKey(t.getStatus() == null ? "UNKNOWN" : t.getStatus());
+    }
+
+    static String workerKey(WorkLog w) {
+        return safeKey(w.getUserId() == null ? "unknown" : w.getUserId());
+    }
+
+    // Firebase keys cannot contain . # $ [ ] /
+    private static String safeKey(String key) {
+        return key.replaceAll("[.#$\\[\\]/]", "_");
+    }
+}
@@ -0,0 +1,192 @@
+package com.techforge.erp.service;
+
+import com.techforge.erp.cache.LruCache;
+import com.techforge.erp.event.ChangeEventBus;
+import com.techforge.erp.event.ProjectChanged;
+import com.techforge.erp.event.TaskChanged;
+import com.techforge.erp.event.WorkLogChanged;
+import com.techforge.erp.model.Task;
+import com.techforge.erp.model.WorkLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Computed reports keyed by report type and parameters.
+ *
+ * Each entry is stored with the dependencies it was computed from (a project, a month, or everything).
+ * Task, worklog and project change events drop exactly the entries that depend on the changed record
+ * (and the reports over everything).
+ * The TTL only bounds staleness of time-based fields such as daysRemaining.
+ * Cached reports are shared between callers and must not be modified.
+ */
+@Component
+public class ReportCache {
+
+    private static final String ALL = "all";
+
+    private final LruCache<String, Object> results;
+    // dependency -> keys of the entries computed from it; guarded by this
+    private final Map<String, Set<String>> keysByDependency = new HashMap<>();
+    // dependency -> number of invalidations so far; a report is only stored if none of its
+    // dependencies was invalidated while it was computed. Guarded by this
+    private final Map<String, Long> generations = new HashMap<>();
+    // bumped by clear(), which invalidates every dependency at once; guarded by this
+    private long epoch;
+    // computations in progress by key, shared by concurrent misses; guarded by this
+    private final Map<String, Flight> inFlight = new HashMap<>();
+
+    private static final class Flight {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        final long epoch;
+        final Map<String, Long> generations;
+
+        Flight(long epoch, Map<String, Long> generations) {
+            this.epoch = epoch;
+            this.generations = generations;
+        }
+    }
+
+    @Autowired
+    public ReportCache(@Value("${techforge.cache.reports.max-size:500}") int maxSize,
+                       @Value("${techforge.cache.reports.ttl-seconds:300}") long ttlSeconds,
+                       ChangeEventBus eventBus) {
+        this.results = new LruCache<>(maxSize, TimeUnit.SECONDS.toMillis(ttlSeconds));
+        eventBus.subscribe(TaskChanged.class, this::onTaskChanged);
+        eventBus.subscribe(WorkLogChanged.class, this::onWorkLogChanged);
+        eventBus.subscribe(ProjectChanged.class, this::onProjectChanged);
+    }
+
+    public static String project(String projectId) {
+        return "project:" + projectId;
+    }
+
+    public static String month(String monthKey) {
+        return "month:" + monthKey;
+    }
+
+    /**
+     * Dependency of reports that read every task or worklog.
+     */
+    public static String all() {
+        return ALL;
+    }
+
+    /**
+     * The cached report for key, or compute it and cache the result under the given dependencies.
+     * Concurrent misses for the same key share one computation, unless one of its dependencies was
+     * invalidated after it started; then the next caller starts a fresh one.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> get(String key, Set<String> dependencies, Supplier<CompletableFuture<T>> compute) {
+        Object cached = results.get(key);
+        if (cached != null) return CompletableFuture.completedFuture((T) cached);
+
+        Flight flight;
+        boolean owner = false;
+        synchronized (this) {
+            flight = inFlight.get(key);
+            if (flight == null || !isCurrent(flight)) {
+                Map<String, Long> started = new HashMap<>();
+                for (String dependency : dependencies) {
+                    started.put(dependency, generations.getOrDefault(dependency, 0L));
+                }
+                flight = new Flight(epoch, started);
+                inFlight.put(key, flight);
+                owner = true;
+            }
+        }
+        if (owner) run(key, flight, compute);
+        // a dependent stage, so callers cannot complete the shared future
+        return flight.future.thenApply(value -> (T) value);
+    }
+
+    private <T> void run(String key, Flight flight, Supplier<CompletableFuture<T>> compute) {
+        CompletableFuture<T> computation;
+        try {
+            computation = compute.get();
+        } catch (Exception e) {
+            computation = CompletableFuture.failedFuture(e);
+        }
+        computation.whenComplete((value, ex) -> {
+            synchronized (this) {
+                if (inFlight.get(key) == flight) inFlight.remove(key);
+                if (ex == null) store(key, flight, value);
+            }
+            if (ex != null) flight.future.completeExceptionally(ex);
+            else flight.future.complete(value);
+        });
+    }
+
+    // caller holds the lock
+    private boolean isCurrent(Flight flight) {
+        if (flight.epoch != epoch) return false;
+        for (Map.Entry<String, Long> e : flight.generations.entrySet()) {
+            if (!e.getValue().equals(generations.getOrDefault(e.getKey(), 0L))) return false;
+        }
+        return true;
+    }
+
+    // caller holds the lock
+    private void store(String key, Flight flight, Object value) {
+        if (value == null || !isCurrent(flight)) return;
+        results.put(key, value);
+        for (String dependency : flight.generations.keySet()) {
+            keysByDependency.computeIfAbsent(dependency, d -> new HashSet<>()).add(key);
+        }
+    }
+
+    public synchronized void invalidate(String dependency) {
+        generations.merge(dependency, 1L, Long::sum);
+        Set<String> keys = keysByDependency.remove(dependency);
+        if (keys == null) return;
+        for (String key : keys) {
+            results.remove(key);
+        }
+    }
+
+    public void invalidateProject(String projectId) {
+        if (projectId != null) invalidate(project(projectId));
+    }
+
+    public synchronized void clear() {
+        epoch++;
+        keysByDependency.clear();
+        results.clear();
+    }
+
+    private void onTaskChanged(TaskChanged event) {
+        Task previous = event.getPrevious();
+        Task current = event.getCurrent();
+        if (previous != null) invalidateProject(previous.getProjectId());
+        if (current != null) invalidateProject(current.getProjectId());
+        invalidate(ALL);
+    }
+
+    private void onWorkLogChanged(WorkLogChanged event) {
+        for (WorkLog w : new WorkLog[]{event.getPrevious(), event.getCurrent()}) {
+            if (w == null) continue;
+            invalidateProject(w.getProjectId());
+            if (w.getWorkDate() != null) invalidate(month(WorkLogService.monthKey(w.getWorkDate())));
+        }
+        invalidate(ALL);
+    }
+
+    private void onProjectChanged(ProjectChanged event) {
+        invalidateProject(event.getId());
+        // reports over all projects list names and budgets
+        invalidate(ALL);
+    }
+
+    public Map<String, Object> stats() {
+        return results.stats();
+    }
+}
@@ -0,0 +1,225 @@
+package com.techforge.erp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techforge.erp.model.Payroll;
+import com.techforge.erp.model.WorkLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Report exports (worklogs or payroll records of a date range) as CSV or NDJSON rows written to a stream.
+ *
+ * Worklogs are read one month at a time, only for the months of the range (see
+ * WorkLogService#getWorkLogsForMonth). Payroll records are read from Firebase one year at a time with the
+ * payrolls "year" index, and filtered to the months of the range. Each month or year is written and flushed
+ * before the next one is read: memory use is bounded by one month of worklogs or one year of payroll
+ * records, and the client receives rows while the export is still running.
+ */
+@Service
+public class ReportExportService {
+
+    public enum Dataset {
+        WORKLOGS, PAYROLL;
+
+        /**
+         * "payroll", otherwise worklogs: the desktop export dialog sends its period (daily, weekly, ...) as type.
+         */
+        public static Dataset of(String type) {
+            return type != null && "payroll".equalsIgnoreCase(type.trim()) ? PAYROLL : WORKLOGS;
+        }
+    }
+
+    public enum Format {
+        CSV("text/csv"), NDJSON("application/x-ndjson");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public static Format of(String format) {
+            if (format == null || format.isBlank()) return CSV;
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported format: " + format + " (csv or ndjson)");
+            }
+        }
+    }
+
+    private static final long READ_TIMEOUT_SECONDS = 30;
+
+    private static final List<String> WORKLOG_COLUMNS = List.of(
+            "id", "workDate", "userId", "projectId", "taskId",
+            "hours", "regularHours", "overtimeHours", "laborCost", "description");
+    private static final List<String> PAYROLL_COLUMNS = List.of(
+            "id", "userId", "month", "year", "baseSalary", "overtimePay", "totalPay", "paid", "transactionId");
+
+    private final WorkLogService workLogService;
+    private final FinanceService financeService;
+    private final ObjectMapper json = new ObjectMapper();
+
+    @Autowired
+    public ReportExportService(WorkLogService workLogService, FinanceService financeService) {
+        this.workLogService = workLogService;
+        this.financeService = financeService;
+    }
+
+    /**
+     * Write the rows of the dataset within [startDate, endDate] (both inclusive) to out.
+     * Worklogs are matched on their work date (server time zone), payroll records on their month.
+     * Blocks while months or pages are read, so call it from a request thread, never from a continuation.
+     *
+     * @return the number of rows written
+     */
+    public long export(Dataset dataset, Format format, LocalDate startDate, LocalDate endDate,
+                       OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long rows;
+        if (dataset == Dataset.PAYROLL) {
+            rows = writePayroll(writer, format, YearMonth.from(startDate), YearMonth.from(endDate));
+        } else {
+            rows = writeWorkLogs(writer, format, startDate, endDate);
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private long writeWorkLogs(Writer writer, Format format, LocalDate startDate, LocalDate endDate) throws IOException {
+        ZoneId zone = ZoneId.systemDefault();
+        long from = startDate.atStartOfDay(zone).toInstant().toEpochMilli();
+        long until = endDate.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        Predicate<WorkLog> inRange = w -> w.getWorkDate() != null
+                && w.getWorkDate().getTime() >= from
+                && w.getWorkDate().getTime() < until;
+
+        writeHeader(writer, format, WORKLOG_COLUMNS);
+        long rows = 0;
+        // only the month buckets the range touches; the first and last month are cut to the range
+        for (YearMonth m = YearMonth.from(startDate); !m.isAfter(YearMonth.from(endDate)); m = m.plusMonths(1)) {
+            List<WorkLog> month = await(workLogService.getWorkLogsForMonth(m.getMonthValue(), m.getYear()));
+            rows += writeRows(writer, format, WORKLOG_COLUMNS, month, inRange, ReportExportService::worklogRow);
+        }
+        return rows;
+    }
+
+    private long writePayroll(Writer writer, Format format, YearMonth from, YearMonth to) throws IOException {
+        Predicate<Payroll> inRange = p -> {
+            YearMonth m = YearMonth.of(p.getYear(), Math.max(1, Math.min(12, p.getMonth())));
+            return !m.isBefore(from) && !m.isAfter(to);
+        };
+
+        writeHeader(writer, format, PAYROLL_COLUMNS);
+        long rows = 0;
+        // only the years the range touches; the first and last year are cut to the range
+        for (int year = from.getYear(); year <= to.getYear(); year++) {
+            List<Payroll> records = await(financeService.getPayrollsForYear(year));
+            records.sort(Comparator.comparing(Payroll::getId, Comparator.nullsLast(Comparator.naturalOrder())));
+            rows += writeRows(writer, format, PAYROLL_COLUMNS, records, inRange, ReportExportService::payrollRow);
+        }
+        return rows;
+    }
+
+    private static void writeHeader(Writer writer, Format format, List<String> columns) throws IOException {
+        if (format == Format.CSV) {
+            writer.write(String.join(",", columns));
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Write the matching records as rows and flush them to the client before the caller reads more.
+     */
+    private <T> long writeRows(Writer writer, Format format, List<String> columns, List<T> records,
+                               Predicate<T> filter, Function<T, Map<String, Object>> toRow) throws IOException {
+        long rows = 0;
+        for (T record : records) {
+            if (record == null || !filter.test(record)) continue;
+            Map<String, Object> row = toRow.apply(record);
+            if (format == Format.CSV) writeCsv(writer, columns, row);
+            else writer.write(json.writeValueAsString(row));
+            writer.write('\n');
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Export interrupted", e);
+        } catch (Exception e) {
+            throw new IOException("Failed to read export data: " + e.getMessage(), e);
+        }
+    }
+
+    private static Map<String, Object> worklogRow(WorkLog w) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", w.getId());
+        row.put("workDate", w.getWorkDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate().toString());
+        row.put("userId", w.getUserId());
+        row.put("projectId", w.getProjectId());
+        row.put("taskId", w.getTaskId());
+        row.put("hours", w.getHours());
+        row.put("regularHours", w.getRegularHours());
+        row.put("overtimeHours", w.getOvertimeHours());
+        row.put("laborCost", ProjectStatsService.laborCost(w));
+        row.put("description", w.getDescription());
+        return row;
+    }
+
+    private static Map<String, Object> payrollRow(Payroll p) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", p.getId());
+        row.put("userId", p.getUserId());
+        row.put("month", p.getMonth());
+        row.put("year", p.getYear());
+        row.put("baseSalary", p.getBaseSalary());
+        row.put("overtimePay", p.getOvertimePay());
+        row.put("totalPay", p.getTotalPay());
+        row.put("paid", p.isPaid());
+        row.put("transactionId", p.getTransactionId());
+        return row;
+    }
+
+    private static void writeCsv(Writer writer, List<String> columns, Map<String, Object> row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) writer.write(',');
+            Object value = row.get(columns.get(i));
+            if (value != null) writer.write(csvField(value.toString()));
+        }
+    }
+
+    private static String csvField(String value) {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
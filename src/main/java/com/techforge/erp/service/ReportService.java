@@ -18,106 +18,182 @@ public class ReportService {
     private final ProjectService projectService;
     private final TaskService taskService;
     private final WorkLogService workLogService;
+    private final ProjectStatsService projectStatsService;
+    private final ReportCache reportCache;
 
     @Autowired
-    public ReportService(ProjectService projectService, TaskService taskService, WorkLogService workLogService) {
+    public ReportService(ProjectService projectService, TaskService taskService, WorkLogService workLogService,
+                         ProjectStatsService projectStatsService, ReportCache reportCache) {
         this.projectService = projectService;
         this.taskService = taskService;
         this.workLogService = workLogService;
+        this.projectStatsService = projectStatsService;
+        this.reportCache = reportCache;
     }
 
+    // Reports are served from ReportCache and recomputed only after a change to something they depend on
+
+    /**
+     * All tasks and worklogs grouped by project, user and month. Computed once per change to either
+     * collection and shared by the reports over all projects (portfolio, all progress, all activities).
+     */
+    private CompletableFuture<WorkAggregation> aggregation() {
+        return reportCache.get("aggregation", Set.of(ReportCache.all()), () -> {
+            CompletableFuture<List<Task>> tasksF = taskService.getAllTasks();
+            CompletableFuture<List<WorkLog>> worklogsF = workLogService.getAllWorkLogs();
+            return CompletableFuture.allOf(tasksF, worklogsF)
+                    .thenApply(v -> WorkAggregation.of(tasksF.join(), worklogsF.join()));
+        });
+    }
+
+    /**
+     * The tasks and worklogs of one project only (mirror indexes), so a change elsewhere
+     * does not make a per-project report regroup every record.
+     */
+    private CompletableFuture<WorkAggregation.ProjectGroup> projectGroup(String projectId) {
+        CompletableFuture<List<Task>> tasksF = taskService.getTasksByProjectId(projectId);
+        CompletableFuture<List<WorkLog>> worklogsF = workLogService.getWorkLogsByProjectId(projectId);
+        return CompletableFuture.allOf(tasksF, worklogsF)
+                .thenApply(v -> WorkAggregation.of(tasksF.join(), worklogsF.join()).project(projectId));
+    }
+
+    /**
+     * Drop the cached reports of a project, e.g. after its projectStats aggregate was rebuilt.
+     */
+    public void invalidateProject(String projectId) {
+        reportCache.invalidateProject(projectId);
+    }
+
+    public void invalidateAll() {
+        reportCache.clear();
+    }
+
+    /**
+     * Project report from the maintained projectStats aggregate (one small read, see ProjectStatsService).
+     */
     public CompletableFuture<ProjectReport> generateProjectReport(String projectId) {
+        return reportCache.get("project-report:" + projectId, Set.of(ReportCache.project(projectId)),
+                () -> computeProjectReport(projectId));
+    }
+
+    private CompletableFuture<ProjectReport> computeProjectReport(String projectId) {
         CompletableFuture<Project> projectF = projectService.getProjectById(projectId);
-        CompletableFuture<List<Task>> tasksF = taskService.getAllTasks()
-                .thenApply(list -> list.stream().filter(t -> projectId.equals(t.getProjectId())).collect(Collectors.toList()));
-        CompletableFuture<List<WorkLog>> worklogsF = workLogService.getAllWorkLogs()
-                .thenApply(list -> list.stream().filter(w -> projectId.equals(w.getProjectId())).collect(Collectors.toList()));
+        CompletableFuture<ProjectStats> statsF = projectStatsService.getStats(projectId);
 
-        return CompletableFuture.allOf(projectF, tasksF, worklogsF)
+        return CompletableFuture.allOf(projectF, statsF)
                 .thenApply(v -> {
                     Project project = projectF.join();
                     if (project == null) throw new IllegalStateException("Project not found: " + projectId);
 
-                    List<Task> tasks = tasksF.join();
-                    List<WorkLog> worklogs = worklogsF.join();
-
-                    int totalTasks = tasks.size();
-                    int completedTasks = (int) tasks.stream().filter(t -> "DONE".equalsIgnoreCase(t.getStatus()) || "COMPLETED".equalsIgnoreCase(t.getStatus())).count();
-                    double progress = totalTasks == 0 ? 0.0 : (completedTasks * 100.0 / totalTasks);
-
-                    // budgetUsed: estimate from worklogs using snapshots
-                    double budgetUsed = 0.0;
-                    for (WorkLog w : worklogs) {
-                        double base = w.getBaseSalarySnapshot() == null ? 0.0 : w.getBaseSalarySnapshot();
-                        double hourly = w.getHourlyRateOTSnapshot() == null ? 0.0 : w.getHourlyRateOTSnapshot();
-                        double regRate = base > 0 ? base / 160.0 : 0.0; // assumption
-                        double reg = w.getRegularHours() == null ? 0.0 : w.getRegularHours();
-                        double ot = w.getOvertimeHours() == null ? 0.0 : w.getOvertimeHours();
-                        budgetUsed += reg * regRate + ot * hourly;
-                    }
-                    double projectBudget = project.getBudget() == null ? 0.0 : project.getBudget();
-                    double budgetRemaining = projectBudget - budgetUsed;
-
-                    Map<String, Long> breakdown = tasks.stream().collect(Collectors.groupingBy(t -> t.getStatus() == null ? "UNKNOWN" : t.getStatus(), Collectors.counting()));
-                    List<Map<String, Object>> taskBreakdown = breakdown.entrySet().stream().map(e -> {
-                        Map<String, Object> m = new HashMap<>();
-                        m.put("status", e.getKey());
-                        m.put("count", e.getValue());
-                        return m;
-                    }).collect(Collectors.toList());
-
-                    Map<String, Double> contribution = new HashMap<>();
-                    for (WorkLog w : worklogs) {
-                        String userId = w.getUserId() == null ? "unknown" : w.getUserId();
-                        double hrs = w.getHours() == null ? 0.0 : w.getHours();
-                        contribution.put(userId, contribution.getOrDefault(userId, 0.0) + hrs);
-                    }
-                    List<Map<String, Object>> workerContribution = contribution.entrySet().stream().map(e -> {
-                        Map<String, Object> m = new HashMap<>();
-                        m.put("userId", e.getKey());
-                        m.put("hours", e.getValue());
-                        return m;
-                    }).collect(Collectors.toList());
-
-                    ProjectReport report = new ProjectReport();
-                    report.setProjectId(project.getId());
-                    report.setProjectName(project.getName());
-                    report.setProgress(round(progress));
-                    report.setBudgetUsed(round(budgetUsed));
-                    report.setBudgetRemaining(round(budgetRemaining));
-                    report.setTotalTasks(totalTasks);
-                    report.setCompletedTasks(completedTasks);
-                    report.setTaskBreakdown(taskBreakdown);
-                    report.setWorkerContribution(workerContribution);
-
-                    return report;
+                    return toProjectReport(project, statsF.join());
                 });
     }
 
-    public CompletableFuture<MonthlyReport> generateMonthlyReport(int month, int year) {
+    private ProjectReport toProjectReport(Project project, ProjectStats stats) {
+        int totalTasks = stats.getTotalTasks() == null ? 0 : stats.getTotalTasks();
+        int completedTasks = stats.getCompletedTasks() == null ? 0 : stats.getCompletedTasks();
+        double progress = totalTasks == 0 ? 0.0 : (completedTasks * 100.0 / totalTasks);
+
+        // budgetUsed: estimate from worklogs using snapshots
+        double budgetUsed = stats.getBudgetUsed() == null ? 0.0 : stats.getBudgetUsed();
+        double projectBudget = project.getBudget() == null ? 0.0 : project.getBudget();
+        double budgetRemaining = projectBudget - budgetUsed;
+
+        // counters that went back to zero stay in the aggregate, skip them
+        List<Map<String, Object>> taskBreakdown = breakdown(stats.getStatusCounts());
+
+        List<Map<String, Object>> workerContribution = stats.getWorkerHours().entrySet().stream()
+                .filter(e -> Math.abs(e.getValue()) > 1e-9)
+                .map(e -> {
+                    Map<String, Object> m = new HashMap<>();
+                    m.put("userId", e.getKey());
+                    m.put("hours", e.getValue());
+                    return m;
+                }).collect(Collectors.toList());
+
+        ProjectReport report = new ProjectReport();
+        report.setProjectId(project.getId());
+        report.setProjectName(project.getName());
+        report.setProgress(round(progress));
+        report.setBudgetUsed(round(budgetUsed));
+        report.setBudgetRemaining(round(budgetRemaining));
+        report.setTotalTasks(totalTasks);
+        report.setCompletedTasks(completedTasks);
+        report.setTaskBreakdown(taskBreakdown);
+        report.setWorkerContribution(workerContribution);
+
+        return report;
+    }
+
+    private static List<Map<String, Object>> breakdown(Map<String, Integer> statusCounts) {
+        return statusCounts.entrySet().stream()
+                .filter(e -> e.getValue() > 0)
+                .map(e -> {
+                    Map<String, Object> m = new HashMap<>();
+                    m.put("status", e.getKey());
+                    m.put("count", e.getValue().longValue());
+                    return m;
+                }).collect(Collectors.toList());
+    }
+
+    /**
+     * Project reports of all projects, from the grouped tasks and worklogs
+     * instead of one report request (and scan) per project.
+     */
+    public CompletableFuture<PortfolioReport> generatePortfolioReport() {
+        return reportCache.get("portfolio", Set.of(ReportCache.all()), this::computePortfolioReport);
+    }
+
+    private CompletableFuture<PortfolioReport> computePortfolioReport() {
         CompletableFuture<List<Project>> projectsF = projectService.getAllProjects();
-        CompletableFuture<List<WorkLog>> worklogsF = workLogService.getAllWorkLogs();
-
-        return CompletableFuture.allOf(projectsF, worklogsF).thenApply(v -> {
-            List<Project> projects = projectsF.join();
-            List<WorkLog> allWorklogs = worklogsF.join();
-
-            List<WorkLog> filtered = allWorklogs.stream().filter(w -> {
-                if (w.getWorkDate() == null) return false;
-                LocalDate ld = Instant.ofEpochMilli(w.getWorkDate().getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
-                return ld.getMonthValue() == month && ld.getYear() == year;
-            }).collect(Collectors.toList());
-
-            double totalPayroll = 0.0;
-            for (WorkLog w : filtered) {
-                double base = w.getBaseSalarySnapshot() == null ? 0.0 : w.getBaseSalarySnapshot();
-                double hourlyOT = w.getHourlyRateOTSnapshot() == null ? 0.0 : w.getHourlyRateOTSnapshot();
-                double regRate = base > 0 ? base / 160.0 : 0.0;
-                double reg = w.getRegularHours() == null ? 0.0 : w.getRegularHours();
-                double ot = w.getOvertimeHours() == null ? 0.0 : w.getOvertimeHours();
-                totalPayroll += reg * regRate + ot * hourlyOT;
+        CompletableFuture<WorkAggregation> aggregationF = aggregation();
+
+        return CompletableFuture.allOf(projectsF, aggregationF).thenApply(v -> {
+            WorkAggregation aggregation = aggregationF.join();
+
+            List<ProjectReport> reports = new ArrayList<>();
+            Map<String, Integer> statusCounts = new HashMap<>();
+            int totalTasks = 0;
+            int completedTasks = 0;
+            double totalBudget = 0.0;
+            double budgetUsed = 0.0;
+            for (Project project : projectsF.join()) {
+                if (project.getId() == null) continue;
+                WorkAggregation.ProjectGroup group = aggregation.project(project.getId());
+                reports.add(toProjectReport(project, group.toStats(project.getId())));
+
+                totalTasks += group.totalTasks();
+                completedTasks += group.completedTasks;
+                totalBudget += project.getBudget() == null ? 0.0 : project.getBudget();
+                budgetUsed += group.budgetUsed;
+                group.statusCounts.forEach((status, count) -> statusCounts.merge(status, count.value, Integer::sum));
             }
 
+            PortfolioReport report = new PortfolioReport();
+            report.setTotalProjects(reports.size());
+            report.setTotalTasks(totalTasks);
+            report.setCompletedTasks(completedTasks);
+            report.setTotalBudget(round(totalBudget));
+            report.setBudgetUsed(round(budgetUsed));
+            report.setTaskBreakdown(breakdown(statusCounts));
+            report.setProjects(reports);
+            return report;
+        });
+    }
+
+    public CompletableFuture<MonthlyReport> generateMonthlyReport(int month, int year) {
+        String monthKey = WorkLogService.monthKey(month, year);
+        return reportCache.get("monthly:" + monthKey, Set.of(ReportCache.month(monthKey)),
+                () -> computeMonthlyReport(month, year));
+    }
+
+    private CompletableFuture<MonthlyReport> computeMonthlyReport(int month, int year) {
+        // only the worklogs of that month, from its worklogsByMonth bucket
+        return workLogService.getWorkLogsForMonth(month, year).thenApply(logs -> {
+            WorkAggregation.MonthGroup monthGroup = WorkAggregation.of(Collections.emptyList(), logs)
+                    .month(WorkLogService.monthKey(month, year));
+
+            double totalPayroll = monthGroup.laborCost;
             double totalRevenue = 0.0; // requires invoices integration
             double totalExpense = 0.0; // requires expense integration
             double profit = totalRevenue - totalExpense - totalPayroll;
@@ -130,8 +206,7 @@ public class ReportService {
             report.setTotalPayroll(round(totalPayroll));
             report.setProfit(round(profit));
 
-            List<String> projectIds = filtered.stream().map(WorkLog::getProjectId).filter(Objects::nonNull).distinct().collect(Collectors.toList());
-            report.setProjects(projectIds);
+            report.setProjects(new ArrayList<>(monthGroup.projectIds));
             report.setPayrolls(Collections.emptyList());
 
             return report;
@@ -139,42 +214,74 @@ public class ReportService {
     }
 
     public CompletableFuture<ProgressReport> getProjectProgress(String projectId) {
-        CompletableFuture<List<Task>> tasksF = taskService.getAllTasks().thenApply(list -> list.stream().filter(t -> projectId.equals(t.getProjectId())).collect(Collectors.toList()));
-        CompletableFuture<List<WorkLog>> worklogsF = workLogService.getAllWorkLogs().thenApply(list -> list.stream().filter(w -> projectId.equals(w.getProjectId())).collect(Collectors.toList()));
-        CompletableFuture<Project> projectF = projectService.getProjectById(projectId);
+        return reportCache.get("progress:" + projectId, Set.of(ReportCache.project(projectId)),
+                () -> computeProjectProgress(projectId));
+    }
 
-        return CompletableFuture.allOf(tasksF, worklogsF, projectF).thenApply(v -> {
-            List<Task> tasks = tasksF.join();
-            List<WorkLog> worklogs = worklogsF.join();
-            Project project = projectF.join();
-
-            int totalTasks = tasks.size();
-            int completedTasks = (int) tasks.stream().filter(t -> "DONE".equalsIgnoreCase(t.getStatus()) || "COMPLETED".equalsIgnoreCase(t.getStatus())).count();
-            double progress = totalTasks == 0 ? 0.0 : (completedTasks * 100.0 / totalTasks);
-
-            Integer daysRemaining = null;
-            if (project != null && project.getEndDate() != null) {
-                LocalDate end = Instant.ofEpochMilli(project.getEndDate().getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
-                LocalDate today = LocalDate.now();
-                long days = ChronoUnit.DAYS.between(today, end);
-                daysRemaining = (int) Math.max(days, 0);
-            }
+    private CompletableFuture<ProgressReport> computeProjectProgress(String projectId) {
+        CompletableFuture<WorkAggregation.ProjectGroup> groupF = projectGroup(projectId);
+        CompletableFuture<Project> projectF = projectService.getProjectById(projectId);
 
-            String riskLevel = "LOW";
-            if (progress < 50.0 && (daysRemaining == null || daysRemaining < 7)) riskLevel = "HIGH";
-            else if (progress < 75.0) riskLevel = "MEDIUM";
+        return CompletableFuture.allOf(groupF, projectF).thenApply(v -> {
+            WorkAggregation.ProjectGroup group = groupF.join();
+            return toProgressReport(projectId, projectF.join(), group.totalTasks(), group.completedTasks);
+        });
+    }
 
-            ProgressReport pr = new ProgressReport();
-            pr.setProjectId(projectId);
-            pr.setProgressPercentage(round(progress));
-            pr.setDaysRemaining(daysRemaining);
-            pr.setRiskLevel(riskLevel);
-            pr.setMilestones(Collections.emptyList());
+    /**
+     * Progress of many projects (all when projectIds is null or empty) from the grouped tasks.
+     * Ids that are not projects are skipped.
+     */
+    public CompletableFuture<List<ProgressReport>> getProjectsProgress(List<String> projectIds) {
+        return reportCache.get("progress:*", Set.of(ReportCache.all()), this::computeAllProgress)
+                .thenApply(all -> {
+                    if (projectIds == null || projectIds.isEmpty()) return all;
+                    Set<String> wanted = new HashSet<>(projectIds);
+                    return all.stream().filter(pr -> wanted.contains(pr.getProjectId())).collect(Collectors.toList());
+                });
+    }
 
-            return pr;
+    private CompletableFuture<List<ProgressReport>> computeAllProgress() {
+        CompletableFuture<List<Project>> projectsF = projectService.getAllProjects();
+        CompletableFuture<WorkAggregation> aggregationF = aggregation();
+
+        return CompletableFuture.allOf(projectsF, aggregationF).thenApply(v -> {
+            WorkAggregation aggregation = aggregationF.join();
+            List<ProgressReport> reports = new ArrayList<>();
+            for (Project project : projectsF.join()) {
+                if (project.getId() == null) continue;
+                WorkAggregation.ProjectGroup group = aggregation.project(project.getId());
+                reports.add(toProgressReport(project.getId(), project, group.totalTasks(), group.completedTasks));
+            }
+            return reports;
         });
     }
 
+    private ProgressReport toProgressReport(String projectId, Project project, int totalTasks, int completedTasks) {
+        double progress = totalTasks == 0 ? 0.0 : (completedTasks * 100.0 / totalTasks);
+
+        Integer daysRemaining = null;
+        if (project != null && project.getEndDate() != null) {
+            LocalDate end = Instant.ofEpochMilli(project.getEndDate().getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+            LocalDate today = LocalDate.now();
+            long days = ChronoUnit.DAYS.between(today, end);
+            daysRemaining = (int) Math.max(days, 0);
+        }
+
+        String riskLevel = "LOW";
+        if (progress < 50.0 && (daysRemaining == null || daysRemaining < 7)) riskLevel = "HIGH";
+        else if (progress < 75.0) riskLevel = "MEDIUM";
+
+        ProgressReport pr = new ProgressReport();
+        pr.setProjectId(projectId);
+        pr.setProgressPercentage(round(progress));
+        pr.setDaysRemaining(daysRemaining);
+        pr.setRiskLevel(riskLevel);
+        pr.setMilestones(Collections.emptyList());
+
+        return pr;
+    }
+
     private double round(double v) {
         return Math.round(v * 100.0) / 100.0;
     }
@@ -189,21 +296,28 @@ public class ReportService {
      * @return CompletableFuture containing list of activity strings
      */
     public CompletableFuture<List<Map<String, Object>>> getRecentActivities(String projectId) {
-        CompletableFuture<List<WorkLog>> worklogsF = workLogService.getAllWorkLogs();
-        CompletableFuture<List<Task>> tasksF = taskService.getAllTasks();
-
-        return CompletableFuture.allOf(worklogsF, tasksF).thenApply(v -> {
-            List<WorkLog> allWorklogs = worklogsF.join();
-            List<Task> allTasks = tasksF.join();
+        String dependency = projectId != null ? ReportCache.project(projectId) : ReportCache.all();
+        return reportCache.get("activities:" + (projectId != null ? projectId : "*"), Set.of(dependency),
+                () -> computeRecentActivities(projectId));
+    }
 
-            // Filter by projectId if provided
-            List<WorkLog> worklogs = projectId != null
-                ? allWorklogs.stream().filter(w -> projectId.equals(w.getProjectId())).collect(Collectors.toList())
-                : allWorklogs;
+    private CompletableFuture<List<Map<String, Object>>> computeRecentActivities(String projectId) {
+        // one project's own tasks and worklogs, or everything
+        CompletableFuture<List<Task>> tasksF;
+        CompletableFuture<List<WorkLog>> worklogsF;
+        if (projectId != null) {
+            CompletableFuture<WorkAggregation.ProjectGroup> groupF = projectGroup(projectId);
+            tasksF = groupF.thenApply(group -> group.tasks);
+            worklogsF = groupF.thenApply(group -> group.worklogs);
+        } else {
+            CompletableFuture<WorkAggregation> aggregationF = aggregation();
+            tasksF = aggregationF.thenApply(WorkAggregation::tasks);
+            worklogsF = aggregationF.thenApply(WorkAggregation::worklogs);
+        }
 
-            List<Task> tasks = projectId != null
-                ? allTasks.stream().filter(t -> projectId.equals(t.getProjectId())).collect(Collectors.toList())
-                : allTasks;
+        return CompletableFuture.allOf(worklogsF, tasksF).thenApply(v -> {
+            List<WorkLog> worklogs = worklogsF.join();
+            List<Task> tasks = tasksF.join();
 
             List<Map<String, Object>> activities = new ArrayList<>();
 
@@ -1,57 +1,72 @@
 package com.techforge.erp.service;
 
 import com.google.firebase.database.*;
+import com.techforge.erp.firebase.FirebaseBatch;
+import com.techforge.erp.firebase.FirebaseMirror;
+import com.techforge.erp.firebase.FirebaseQueries;
+import com.techforge.erp.firebase.codec.Codecs;
+import com.techforge.erp.model.Page;
 import com.techforge.erp.model.Task;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
 @Service
 public class TaskService {
 
+    // Fields that can be changed through a partial update (Kanban, quick edits)
+    private static final Set<String> PATCHABLE_FIELDS =
+            Set.of("status", "title", "priority", "description", "assigneeEmail", "assignedUserId");
+
+    private final DatabaseReference root;
     private final DatabaseReference tasksRef;
+    private final FirebaseMirror mirror;
+    private final ProjectStatsService projectStatsService;
 
-    public TaskService() {
-        DatabaseReference root = FirebaseDatabase.getInstance().getReference("LTUD10");
+    @Autowired
+    public TaskService(FirebaseMirror mirror, ProjectStatsService projectStatsService) {
+        this.root = FirebaseDatabase.getInstance().getReference("LTUD10");
         this.tasksRef = root.child("tasks");
+        this.mirror = mirror;
+        this.projectStatsService = projectStatsService;
     }
 
     public CompletableFuture<Task> createTask(Task task) {
         CompletableFuture<Task> future = new CompletableFuture<>();
         try {
-            String key = (task.getId() != null && !task.getId().isEmpty()) ? task.getId() : tasksRef.push().getKey();
-            if (key == null) {
-                future.completeExceptionally(new IllegalStateException("Unable to generate key for task"));
-                return future;
-            }
-            task.setId(key);
-            tasksRef.child(key).setValueAsync(task).addListener(() -> future.complete(task), Runnable::run);
+            // task and project stats in one write
+            FirebaseBatch batch = new FirebaseBatch(root);
+            stageCreate(batch, task);
+            batch.commit().thenRun(() -> future.complete(task)).exceptionally(ex -> {
+                future.completeExceptionally(ex);
+                return null;
+            });
         } catch (Exception e) {
             future.completeExceptionally(e);
         }
         return future;
     }
 
-    public CompletableFuture<Task> getTaskById(String id) {
-        CompletableFuture<Task> future = new CompletableFuture<>();
+    /**
+     * Create many tasks in a single multi-path write.
+     */
+    public CompletableFuture<List<Task>> createTasks(List<Task> tasks) {
+        CompletableFuture<List<Task>> future = new CompletableFuture<>();
         try {
-            tasksRef.child(id).addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(DataSnapshot snapshot) {
-                    if (snapshot.exists()) {
-                        Task t = snapshot.getValue(Task.class);
-                        future.complete(t);
-                    } else {
-                        future.complete(null);
-                    }
-                }
-
-                @Override
-                public void onCancelled(DatabaseError error) {
-                    future.completeExceptionally(new RuntimeException("Firebase cancelled: " + error.getMessage()));
-                }
+            FirebaseBatch batch = new FirebaseBatch(root);
+            List<Task> staged = new ArrayList<>();
+            for (Task task : tasks) {
+                if (task == null) continue;
+                staged.add(stageCreate(batch, task));
+            }
+            batch.commit().thenRun(() -> future.complete(staged)).exceptionally(ex -> {
+                future.completeExceptionally(ex);
+                return null;
             });
         } catch (Exception e) {
             future.completeExceptionally(e);
@@ -59,31 +74,64 @@ public class TaskService {
         return future;
     }
 
+    public CompletableFuture<Task> getTaskById(String id) {
+        return mirror.tasks().get(id);
+    }
+
     public CompletableFuture<List<Task>> getAllTasks() {
-        CompletableFuture<List<Task>> future = new CompletableFuture<>();
-        try {
-            tasksRef.addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(DataSnapshot snapshot) {
-                    List<Task> list = new ArrayList<>();
-                    if (snapshot.exists()) {
-                        for (DataSnapshot child : snapshot.getChildren()) {
-                            Task t = child.getValue(Task.class);
-                            if (t != null) list.add(t);
-                        }
-                    }
-                    future.complete(list);
-                }
-
-                @Override
-                public void onCancelled(DatabaseError error) {
-                    future.completeExceptionally(new RuntimeException("Firebase cancelled: " + error.getMessage()));
-                }
-            });
-        } catch (Exception e) {
-            future.completeExceptionally(e);
-        }
-        return future;
+        return mirror.tasks().values();
+    }
+
+    /**
+     * Version of the tasks data for ETags, or -1 while the mirror has not synced.
+     */
+    public long dataVersion() {
+        return mirror.tasks().isSynced() ? mirror.tasks().version() : -1;
+    }
+
+    /**
+     * Tasks in key order after the given key (null for the first page).
+     */
+    public CompletableFuture<Page<Task>> getTasksPage(String afterKey, int limit) {
+        if (!mirror.tasks().isReady()) return FirebaseQueries.fetchPage(tasksRef, afterKey, limit, Codecs.TASK::decode);
+        return mirror.tasks().page(afterKey, limit);
+    }
+
+    // Filtered reads use the mirror indexes; until the mirror has synced they fall back to server-side queries
+
+    public CompletableFuture<List<Task>> getTasksByProjectId(String projectId) {
+        if (!mirror.tasks().isReady()) return queryTasksByProjectId(projectId);
+        return mirror.tasks().findBy(FirebaseMirror.BY_PROJECT, projectId);
+    }
+
+    /**
+     * Tasks assigned to the given email (case-insensitive).
+     */
+    public CompletableFuture<List<Task>> getTasksByAssigneeEmail(String email) {
+        if (!mirror.tasks().isReady()) return queryTasksByAssigneeEmail(email);
+        return mirror.tasks().findBy(FirebaseMirror.BY_ASSIGNEE_EMAIL, email == null ? null : email.toLowerCase());
+    }
+
+    public CompletableFuture<List<Task>> getTasksByAssignedUserId(String userId) {
+        if (!mirror.tasks().isReady()) return queryTasksByAssignedUserId(userId);
+        return mirror.tasks().findBy(FirebaseMirror.BY_ASSIGNED_USER, userId);
+    }
+
+    // Server-side queries (indexed in database.rules.json, see FirebaseIndexRules)
+
+    public CompletableFuture<List<Task>> queryTasksByProjectId(String projectId) {
+        return FirebaseQueries.fetchList(tasksRef.orderByChild("projectId").equalTo(projectId), Codecs.TASK::decode);
+    }
+
+    public CompletableFuture<List<Task>> queryTasksByAssignedUserId(String userId) {
+        return FirebaseQueries.fetchList(tasksRef.orderByChild("assignedUserId").equalTo(userId), Codecs.TASK::decode);
+    }
+
+    /**
+     * Exact match on assigneeEmail. Firebase comparisons are case-sensitive.
+     */
+    public CompletableFuture<List<Task>> queryTasksByAssigneeEmail(String email) {
+        return FirebaseQueries.fetchList(tasksRef.orderByChild("assigneeEmail").equalTo(email), Codecs.TASK::decode);
     }
 
     public CompletableFuture<Void> updateTask(Task task) {
@@ -93,22 +141,111 @@ public class TaskService {
                 future.completeExceptionally(new IllegalArgumentException("Task id is required for update"));
                 return future;
             }
-            tasksRef.child(task.getId()).setValueAsync(task).addListener(() -> future.complete(null), Runnable::run);
+            mirror.tasks().getSynced(task.getId()).thenCompose(previous -> {
+                FirebaseBatch batch = new FirebaseBatch(root);
+                batch.set("tasks/" + task.getId(), Codecs.TASK.encode(task));
+                projectStatsService.stageTaskChange(batch, previous, task);
+                return batch.commit();
+            }).thenRun(() -> future.complete(null)).exceptionally(ex -> {
+                future.completeExceptionally(ex);
+                return null;
+            });
         } catch (Exception e) {
             future.completeExceptionally(e);
         }
         return future;
     }
 
+    /**
+     * Partial update: writes only the given fields with updateChildrenAsync, no Firebase read.
+     * Unknown fields are ignored. The existing record is taken from the in-memory mirror once it has synced.
+     *
+     * @return the task with the changes applied, or null if no task has this id
+     */
+    public CompletableFuture<Task> patchTask(String id, Map<String, Object> fields) {
+        return mirror.tasks().getSynced(id).thenCompose(existing -> {
+            if (existing == null) return CompletableFuture.completedFuture(null);
+
+            // mirror records are shared, work on a copy
+            Task patched = copyOf(existing);
+            FirebaseBatch batch = new FirebaseBatch(root);
+            for (Map.Entry<String, Object> e : fields.entrySet()) {
+                if (!PATCHABLE_FIELDS.contains(e.getKey())) continue;
+                String value = e.getValue() == null ? null : e.getValue().toString();
+                applyField(patched, e.getKey(), value);
+                batch.set("tasks/" + id + "/" + e.getKey(), value);
+            }
+            // a status change moves the task between statusCounts buckets
+            projectStatsService.stageTaskChange(batch, existing, patched);
+            return batch.commit().thenApply(v -> patched);
+        });
+    }
+
+    private static Task copyOf(Task t) {
+        return new Task(t.getId(), t.getProjectId(), t.getAssignedUserId(), t.getAssigneeEmail(),
+                t.getTitle(), t.getDescription(), t.getPriority(), t.getStatus(), t.getEstimatedHours());
+    }
+
+    private static void applyField(Task task, String field, String value) {
+        switch (field) {
+            case "status":
+                task.setStatus(value);
+                break;
+            case "title":
+                task.setTitle(value);
+                break;
+            case "priority":
+                task.setPriority(value);
+                break;
+            case "description":
+                task.setDescription(value);
+                break;
+            case "assigneeEmail":
+                task.setAssigneeEmail(value);
+                break;
+            case "assignedUserId":
+                task.setAssignedUserId(value);
+                break;
+            default:
+                break;
+        }
+    }
+
     public CompletableFuture<Void> deleteTask(String id) {
         CompletableFuture<Void> future = new CompletableFuture<>();
         try {
-            tasksRef.child(id).removeValueAsync().addListener(() -> future.complete(null), Runnable::run);
+            mirror.tasks().getSynced(id).thenCompose(previous -> {
+                FirebaseBatch batch = new FirebaseBatch(root);
+                batch.delete("tasks/" + id);
+                projectStatsService.stageTaskChange(batch, previous, null);
+                return batch.commit();
+            }).thenRun(() -> future.complete(null)).exceptionally(ex -> {
+                future.completeExceptionally(ex);
+                return null;
+            });
         } catch (Exception e) {
             future.completeExceptionally(e);
         }
         return future;
     }
-}
 
+    /**
+     * Stage a new task and its project stats increment into a batch, assigning its key. Returns the staged task.
+     */
+    public Task stageCreate(FirebaseBatch batch, Task task) {
+        String key = (task.getId() != null && !task.getId().isEmpty()) ? task.getId() : tasksRef.push().getKey();
+        if (key == null) throw new IllegalStateException("Unable to generate key for task");
+        task.setId(key);
+        batch.set("tasks/" + key, Codecs.TASK.encode(task));
+        projectStatsService.stageTaskChange(batch, null, task);
+        return task;
+    }
 
+    /**
+     * Stage a task delete. Project stats are not touched: this is used by the project cascade delete,
+     * which removes the whole projectStats node.
+     */
+    public void stageDelete(FirebaseBatch batch, Task task) {
+        batch.delete("tasks/" + task.getId());
+    }
+}
@@ -0,0 +1,108 @@
+package com.techforge.erp.service;
+
+import com.techforge.erp.cache.KeyGenerations;
+import com.techforge.erp.cache.LruCache;
+import com.techforge.erp.event.ChangeEventBus;
+import com.techforge.erp.event.UserChanged;
+import com.techforge.erp.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users by id and by email, bounded (LRU) and expiring after a TTL, in front of the users mirror.
+ *
+ * The mirror holds the users once synced; this cache is the instrumented lookup for getUserById (every
+ * authenticated request) and getUserByEmail, and also answers while the mirror is still loading, when
+ * lookups fall back to Firebase reads. UserService writes through to it; {@link UserChanged} events from
+ * the mirror (local writes and remote changes) refresh or drop entries. A lookup result is only stored
+ * if no change to its key arrived while it was being read. Returned users are shared: copy before mutating.
+ */
+@Component
+public class UserCache {
+
+    private final LruCache<String, User> byId;
+    private final LruCache<String, User> byEmail;
+    private final KeyGenerations generations = new KeyGenerations(256);
+
+    @Autowired
+    public UserCache(@Value("${techforge.cache.users.max-size:1000}") int maxSize,
+                     @Value("${techforge.cache.users.ttl-seconds:300}") long ttlSeconds,
+                     ChangeEventBus eventBus) {
+        this.byId = new LruCache<>(maxSize, TimeUnit.SECONDS.toMillis(ttlSeconds));
+        this.byEmail = new LruCache<>(maxSize, TimeUnit.SECONDS.toMillis(ttlSeconds));
+        eventBus.subscribe(UserChanged.class, this::onUserChanged);
+    }
+
+    public User getById(String id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Exact match, like the Firebase email query.
+     */
+    public User getByEmail(String email) {
+        return byEmail.get(email);
+    }
+
+    /**
+     * Generation of an id or email, to be taken before the read whose result is passed to {@link #putIfUnchanged}.
+     */
+    public long generation(String key) {
+        return generations.of(key);
+    }
+
+    /**
+     * Store a looked-up user unless a change to the looked-up key arrived since {@link #generation} was taken.
+     */
+    public synchronized void putIfUnchanged(String key, long generation, User user) {
+        if (generations.unchanged(key, generation)) put(user);
+    }
+
+    public void put(User user) {
+        if (user == null || user.getId() == null) return;
+        synchronized (this) {
+            // drop the entry under the old email if it changed
+            User old = byId.peek(user.getId());
+            if (old != null && old.getEmail() != null && !old.getEmail().equals(user.getEmail())) {
+                byEmail.remove(old.getEmail());
+            }
+            byId.put(user.getId(), user);
+            byEmail.put(user.getEmail(), user);
+        }
+    }
+
+    public synchronized void invalidate(String id) {
+        if (id == null) return;
+        generations.bump(id);
+        byId.remove(id);
+        byEmail.removeIf((email, u) -> id.equals(u.getId()));
+    }
+
+    public void clear() {
+        byId.clear();
+        byEmail.clear();
+    }
+
+    private synchronized void onUserChanged(UserChanged event) {
+        generations.bump(event.getId());
+        if (event.getPrevious() != null) generations.bump(event.getPrevious().getEmail());
+        if (event.getCurrent() != null) {
+            generations.bump(event.getCurrent().getEmail());
+            put(event.getCurrent());
+        } else {
+            invalidate(event.getId());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("byId", byId.stats());
+        s.put("byEmail", byEmail.stats());
+        return s;
+    }
+}
@@ -1,66 +1,91 @@
 package com.techforge.erp.service;
 
 import com.google.firebase.database.*;
+import com.techforge.erp.firebase.Continuations;
+import com.techforge.erp.firebase.FirebaseBatch;
+import com.techforge.erp.firebase.FirebaseMirror;
+import com.techforge.erp.firebase.codec.Codecs;
 import com.techforge.erp.model.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     private final DatabaseReference usersRef;
+    private final FirebaseMirror mirror;
+    private final UserCache userCache;
 
-    // Local cache for users (can be cleared for force reload)
-    private volatile List<User> cachedUsers = null;
-    private volatile long cacheTimestamp = 0;
-    private static final long CACHE_TTL_MS = 30000; // 30 seconds cache TTL
+    // rebuilt on the first read after a change to the users mirror
+    private volatile UserSnapshot snapshot;
+    private static final long RELOAD_TIMEOUT_SECONDS = 10;
 
-    public UserService() {
+    @Autowired
+    public UserService(FirebaseMirror mirror, UserCache userCache) {
         DatabaseReference root = FirebaseDatabase.getInstance().getReference("LTUD10");
         this.usersRef = root.child("users");
+        this.mirror = mirror;
+        this.userCache = userCache;
         logger.info("UserService initialized with Firebase path: LTUD10/users");
     }
 
     /**
-     * Force reload all users from Firebase immediately.
-     * Clears local cache and fetches fresh data.
-     * This is a BLOCKING call - waits for Firebase to return data.
-     * @return List of all users with fresh data from Firebase
+     * All users at the current version of the users data, without a Firebase read.
+     *
+     * The users mirror (see {@link FirebaseMirror#users()}) is the one in-memory copy of the users and
+     * publishes every add/change/remove as a UserChanged event, so a rate edit (from this server or made
+     * directly in Firebase) is part of the next snapshot as soon as Firebase delivers it. Before the
+     * initial load has finished this waits for it, at most {@value #RELOAD_TIMEOUT_SECONDS}s.
      */
-    public List<User> forceReloadUsers() {
-        logger.info("forceReloadUsers: Clearing cache and fetching fresh data from Firebase...");
-
-        // Clear cache
-        cachedUsers = null;
-        cacheTimestamp = 0;
-
-        try {
-            // Blocking call to get fresh data
-            CompletableFuture<List<User>> future = getAllUsersFromFirebase();
-            List<User> users = future.get(10, java.util.concurrent.TimeUnit.SECONDS); // 10 second timeout
-
-            // Update cache
-            cachedUsers = users;
-            cacheTimestamp = System.currentTimeMillis();
+    public CompletableFuture<UserSnapshot> getUserSnapshot() {
+        return mirror.users().synced()
+                .orTimeout(RELOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .thenApply(v -> currentSnapshot());
+    }
 
-            logger.info("forceReloadUsers: Successfully loaded {} users from Firebase", users.size());
-            return users;
+    private UserSnapshot currentSnapshot() {
+        UserSnapshot s = snapshot;
+        // version first: the copy then holds at least every change up to it
+        long version = mirror.users().version();
+        if (s != null && s.getVersion() == version) return s;
+        s = new UserSnapshot(version, new LinkedHashMap<>(mirror.users().entries()));
+        snapshot = s;
+        return s;
+    }
 
-        } catch (Exception e) {
-            logger.error("forceReloadUsers: Failed to reload users from Firebase", e);
-            return new ArrayList<>();
-        }
+    /**
+     * Force reload all users from Firebase.
+     * Fetches fresh data with a full read, without blocking the caller.
+     * Fails with a TimeoutException when Firebase does not answer within {@value #RELOAD_TIMEOUT_SECONDS}s.
+     * @return future of all users with fresh data from Firebase
+     */
+    public CompletableFuture<List<User>> forceReloadUsers() {
+        logger.info("forceReloadUsers: Fetching fresh data from Firebase...");
+
+        return getAllUsersFromFirebase()
+                .orTimeout(RELOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .whenComplete((users, ex) -> {
+                    if (ex != null) {
+                        logger.error("forceReloadUsers: Failed to reload users from Firebase", ex);
+                    } else {
+                        logger.info("forceReloadUsers: Successfully loaded {} users from Firebase", users.size());
+                    }
+                });
     }
 
     /**
      * Force reload all users from Firebase with a callback.
-     * Clears local cache and fetches fresh data ASYNCHRONOUSLY.
+     * Fetches fresh data ASYNCHRONOUSLY.
      * The callback is executed on the EDT (Swing Event Dispatch Thread) when data is ready.
      *
      * STRICT DATA ACCURACY: If hourlyRateOT is 0 or null in Firebase, it stays 0.0.
@@ -69,17 +94,9 @@ public class UserService {
      * @param onLoaded Callback to execute when users are loaded (runs on EDT)
      */
     public void forceReloadUsers(Runnable onLoaded) {
-        logger.info("forceReloadUsers(callback): Clearing cache and fetching fresh data from Firebase...");
-
-        // Clear cache immediately
-        cachedUsers = null;
-        cacheTimestamp = 0;
+        logger.info("forceReloadUsers(callback): Fetching fresh data from Firebase...");
 
         getAllUsersFromFirebase().thenAccept(users -> {
-            // Update cache
-            cachedUsers = users;
-            cacheTimestamp = System.currentTimeMillis();
-
             logger.info("forceReloadUsers(callback): Successfully loaded {} users from Firebase", users.size());
 
             // Log each user's hourlyRateOT for debugging
@@ -103,33 +120,45 @@ public class UserService {
     }
 
     /**
-     * Get all employees (users with role EMPLOYEE).
-     * Forces a fresh reload from Firebase.
+     * Get all employees (users with role EMPLOYEE) from the current user snapshot.
      */
-    public List<User> getEmployees() {
-        List<User> allUsers = forceReloadUsers();
-        return allUsers.stream()
-            .filter(u -> u != null && "EMPLOYEE".equalsIgnoreCase(u.getRole()))
-            .collect(java.util.stream.Collectors.toList());
+    public CompletableFuture<List<User>> getEmployees() {
+        return getUserSnapshot().thenApply(s -> s.withRole("EMPLOYEE"));
     }
 
     public CompletableFuture<User> createUser(User user) {
-        CompletableFuture<User> future = new CompletableFuture<>();
-        try {
-            String key = (user.getId() != null && !user.getId().isEmpty()) ? user.getId() : usersRef.push().getKey();
-            if (key == null) {
-                future.completeExceptionally(new IllegalStateException("Unable to generate key for user"));
-                return future;
-            }
-            user.setId(key);
-            usersRef.child(key).setValueAsync(user).addListener(() -> future.complete(user), Runnable::run);
-        } catch (Exception e) {
-            future.completeExceptionally(e);
+        String key = (user.getId() != null && !user.getId().isEmpty()) ? user.getId() : usersRef.push().getKey();
+        if (key == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Unable to generate key for user"));
         }
-        return future;
+        user.setId(key);
+        // the users mirror also picks the write up from Firebase
+        return new FirebaseBatch(usersRef).set(key, Codecs.USER.encode(user)).commit().thenApply(v -> {
+            userCache.put(user);
+            return user;
+        });
     }
 
+    /**
+     * User by email (exact match): from UserCache, else from the users mirror, else (while it loads) Firebase.
+     */
     public CompletableFuture<User> getUserByEmail(String email) {
+        if (email == null) return CompletableFuture.completedFuture(null);
+        User cached = userCache.getByEmail(email);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        long generation = userCache.generation(email);
+        return lookupUserByEmail(email).thenApply(user -> {
+            userCache.putIfUnchanged(email, generation, user);
+            return user;
+        });
+    }
+
+    private CompletableFuture<User> lookupUserByEmail(String email) {
+        if (mirror.users().isReady()) {
+            return mirror.users().findBy(FirebaseMirror.BY_EMAIL, email).thenApply(list -> list.isEmpty() ? null : list.get(0));
+        }
+
         CompletableFuture<User> future = new CompletableFuture<>();
         try {
             Query q = usersRef.orderByChild("email").equalTo(email).limitToFirst(1);
@@ -138,8 +167,7 @@ public class UserService {
                 public void onDataChange(DataSnapshot snapshot) {
                     if (snapshot.exists()) {
                         for (DataSnapshot child : snapshot.getChildren()) {
-                            User u = child.getValue(User.class);
-                            future.complete(u);
+                            future.complete(Codecs.USER.decode(child));
                             return;
                         }
                     }
@@ -154,10 +182,26 @@ public class UserService {
         } catch (Exception e) {
             future.completeExceptionally(e);
         }
-        return future;
+        return Continuations.handoff(future);
     }
 
+    /**
+     * User by id: from UserCache, else from the users mirror, else (while it loads) Firebase.
+     */
     public CompletableFuture<User> getUserById(String id) {
+        User cached = userCache.getById(id);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+
+        long generation = userCache.generation(id);
+        return lookupUserById(id).thenApply(user -> {
+            userCache.putIfUnchanged(id, generation, user);
+            return user;
+        });
+    }
+
+    private CompletableFuture<User> lookupUserById(String id) {
+        if (mirror.users().isReady()) return mirror.users().get(id);
+
         CompletableFuture<User> future = new CompletableFuture<>();
 
         logger.info("Starting Firebase fetch for userId={}", id);
@@ -168,10 +212,7 @@ public class UserService {
                 public void onDataChange(DataSnapshot snapshot) {
                     logger.info("Firebase returned data for userId={}, exists={}", id, snapshot.exists());
                     if (snapshot.exists()) {
-                        User u = snapshot.getValue(User.class);
-                        if (u != null) {
-                            u.setId(id); // Ensure ID is set
-                        }
+                        User u = Codecs.USER.decode(snapshot);
                         logger.info("Firebase returned user: id={}, role={}", id, u != null ? u.getRole() : "null");
                         future.complete(u);
                     } else {
@@ -190,17 +231,19 @@ public class UserService {
             logger.error("Exception during Firebase fetch for userId={}: {}", id, e.getMessage(), e);
             future.completeExceptionally(e);
         }
-        return future;
+        return Continuations.handoff(future);
     }
 
-    public CompletableFuture<List<User>> getAllUsers() {
-        // Check cache first (if not expired)
-        if (cachedUsers != null && (System.currentTimeMillis() - cacheTimestamp) < CACHE_TTL_MS) {
-            logger.debug("getAllUsers: Returning cached data ({} users)", cachedUsers.size());
-            return CompletableFuture.completedFuture(new ArrayList<>(cachedUsers));
-        }
+    /**
+     * Version of the users data for ETags, or -1 while the users mirror has not synced.
+     * The mirror sees every change, local or remote.
+     */
+    public long dataVersion() {
+        return mirror.users().isSynced() ? mirror.users().version() : -1;
+    }
 
-        return getAllUsersFromFirebase();
+    public CompletableFuture<List<User>> getAllUsers() {
+        return getUserSnapshot().thenApply(UserSnapshot::getUsers);
     }
 
     /**
@@ -218,7 +261,7 @@ public class UserService {
                         for (DataSnapshot child : snapshot.getChildren()) {
                             try {
                                 // Use robust parsing instead of automatic mapping
-                                User u = convertSnapshotToUser(child);
+                                User u = Codecs.USER.decode(child);
                                 if (u != null) {
                                     list.add(u);
                                     logger.debug("Loaded user: id={}, name={}, rate={}",
@@ -232,10 +275,6 @@ public class UserService {
                         }
                     }
 
-                    // Update cache
-                    cachedUsers = list;
-                    cacheTimestamp = System.currentTimeMillis();
-
                     logger.info("getAllUsersFromFirebase: Loaded {} users from Firebase", list.size());
                     future.complete(list);
                 }
@@ -248,130 +287,34 @@ public class UserService {
         } catch (Exception e) {
             future.completeExceptionally(e);
         }
-        return future;
+        return Continuations.handoff(future);
     }
 
-    /**
-     * Robust snapshot-to-User conversion with safe type handling.
-     * Handles:
-     * - Long vs Double for numeric fields (baseSalary, hourlyRateOT)
-     * - Null safety for all string fields
-     * - Data type mismatches that would crash automatic Firebase mapping
-     */
-    private User convertSnapshotToUser(DataSnapshot snapshot) {
-        if (snapshot == null || !snapshot.exists()) {
-            return null;
+    public CompletableFuture<User> updateUser(User user) {
+        if (user.getId() == null || user.getId().isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("User ID is required for update"));
         }
 
-        User user = new User();
-
-        // Set ID from snapshot key
-        user.setId(snapshot.getKey());
-
-        // String fields with null safety
-        user.setUsername(getStringValue(snapshot, "username"));
-        user.setEmail(getStringValue(snapshot, "email"));
-        user.setPassword(getStringValue(snapshot, "password"));
-        user.setFullName(getStringValue(snapshot, "fullName"));
-        user.setPhone(getStringValue(snapshot, "phone"));
-        user.setRole(getStringValue(snapshot, "role"));
-        user.setSalaryType(getStringValue(snapshot, "salaryType"));
-
-        // Numeric fields with robust Long/Double handling
-        user.setBaseSalary(getDoubleValue(snapshot, "baseSalary"));
-        user.setHourlyRateOT(getDoubleValue(snapshot, "hourlyRateOT"));
-
-        // OTP fields (if present)
-        user.setOtp(getStringValue(snapshot, "otp"));
-        user.setOtpExpiry(getStringValue(snapshot, "otpExpiry"));
-
-        return user;
-    }
-
-    /**
-     * Safely extract a String value from a DataSnapshot child.
-     */
-    private String getStringValue(DataSnapshot snapshot, String childName) {
-        Object val = snapshot.child(childName).getValue();
-        if (val == null) {
-            return null;
-        }
-        return val.toString();
+        logger.info("Updating user: id={}", user.getId());
+        return new FirebaseBatch(usersRef).set(user.getId(), Codecs.USER.encode(user)).commit().thenApply(v -> {
+            userCache.put(user);
+            logger.info("User updated successfully: id={}", user.getId());
+            return user;
+        });
     }
 
     /**
-     * Safely extract a Double value from a DataSnapshot child.
-     * Handles Long (integers), Double (decimals), and String representations.
-     * Firebase numbers can come in any of these formats depending on how they were stored.
-     *
-     * STRICT DATA ACCURACY:
-     * - If the field is NULL in Firebase -> returns 0.0 (safe default for calculations)
-     * - If the field is explicitly 0 in Firebase -> returns 0.0
-     * - If the field has a valid number -> returns that number
-     * - NO fake default values like 10.0 are ever applied
+     * Partial update: writes only the given fields with updateChildrenAsync, without reading
+     * or rewriting the whole User. A null value removes the field (e.g. clearing the OTP).
      */
-    private Double getDoubleValue(DataSnapshot snapshot, String childName) {
-        Object val = snapshot.child(childName).getValue();
-        if (val == null) {
-            // STRICT: Return 0.0 for null - no fake defaults
-            logger.debug("Field '{}' is null for user {}, returning 0.0", childName, snapshot.getKey());
-            return 0.0;
-        }
-
-        // Handle Number types (Long, Double, Integer, Float, etc.)
-        if (val instanceof Number) {
-            double result = ((Number) val).doubleValue();
-            logger.debug("Field '{}' = {} (type: {}) for user {}",
-                childName, result, val.getClass().getSimpleName(), snapshot.getKey());
-            return result;
-        }
-
-        // Handle String representation of numbers
-        if (val instanceof String) {
-            String strVal = ((String) val).trim();
-            if (strVal.isEmpty()) {
-                logger.debug("Field '{}' is empty string for user {}, returning 0.0", childName, snapshot.getKey());
-                return 0.0;
-            }
-            try {
-                double result = Double.parseDouble(strVal);
-                logger.debug("Field '{}' parsed from String = {} for user {}", childName, result, snapshot.getKey());
-                return result;
-            } catch (NumberFormatException e) {
-                logger.warn("Could not parse String '{}' as Double for field '{}' in user {}",
-                    strVal, childName, snapshot.getKey());
-                return 0.0;
-            }
-        }
-
-        // Last resort: try toString() and parse
-        try {
-            double result = Double.parseDouble(val.toString());
-            logger.debug("Field '{}' parsed via toString = {} for user {}", childName, result, snapshot.getKey());
-            return result;
-        } catch (NumberFormatException e) {
-            logger.warn("Could not parse {} as Double for user {}: {}", childName, snapshot.getKey(), val);
-            return 0.0;
-        }
-    }
-
-    public CompletableFuture<User> updateUser(User user) {
-        CompletableFuture<User> future = new CompletableFuture<>();
-        try {
-            if (user.getId() == null || user.getId().isEmpty()) {
-                future.completeExceptionally(new IllegalArgumentException("User ID is required for update"));
-                return future;
-            }
-
-            logger.info("Updating user: id={}", user.getId());
-            usersRef.child(user.getId()).setValueAsync(user).addListener(() -> {
-                logger.info("User updated successfully: id={}", user.getId());
-                future.complete(user);
-            }, Runnable::run);
-        } catch (Exception e) {
-            logger.error("Error updating user: {}", e.getMessage(), e);
-            future.completeExceptionally(e);
+    public CompletableFuture<Void> patchUser(String userId, Map<String, Object> fields) {
+        if (userId == null || userId.isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("User ID is required for update"));
         }
-        return future;
+        logger.info("Patching user: id={}, fields={}", userId, fields.keySet());
+        FirebaseBatch batch = new FirebaseBatch(usersRef.child(userId));
+        fields.forEach(batch::set);
+        // the users mirror brings the full record back in (and refreshes UserCache)
+        return batch.commit().thenRun(() -> userCache.invalidate(userId));
     }
 }
@@ -0,0 +1,50 @@
+package com.techforge.erp.service;
+
+import com.techforge.erp.model.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable view of all users at one version of the users data (see {@link UserService#getUserSnapshot()}).
+ * It holds at least every change up to its version. Users are shared with the users mirror: copy before mutating.
+ */
+public final class UserSnapshot {
+
+    private final long version;
+    private final Map<String, User> byId;
+
+    UserSnapshot(long version, Map<String, User> byId) {
+        this.version = version;
+        this.byId = Collections.unmodifiableMap(byId);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public User get(String id) {
+        return id == null ? null : byId.get(id);
+    }
+
+    /**
+     * All users in key order.
+     */
+    public List<User> getUsers() {
+        return new ArrayList<>(byId.values());
+    }
+
+    public List<User> withRole(String role) {
+        List<User> result = new ArrayList<>();
+        for (User u : byId.values()) {
+            if (u.hasRole(role)) result.add(u);
+        }
+        return result;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+}
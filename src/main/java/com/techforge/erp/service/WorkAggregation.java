@@ -0,0 +1,172 @@
+package com.techforge.erp.service;
+
+import com.techforge.erp.model.ProjectStats;
+import com.techforge.erp.model.Task;
+import com.techforge.erp.model.WorkLog;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tasks and worklogs grouped by project, by user and by month (yyyy-MM of the work date) in one pass
+ * over each list, so reports look groups up instead of filtering and re-scanning the lists per project.
+ *
+ * Totals are accumulated in primitive fields of mutable holders, never by merging boxed values into maps.
+ * Each group also keeps its records, for reports that list them. Built once and then only read:
+ * instances are shared (see ReportService) and must not be modified.
+ */
+final class WorkAggregation {
+
+    static final class ProjectGroup {
+        final List<Task> tasks = new ArrayList<>();
+        final List<WorkLog> worklogs = new ArrayList<>();
+        int completedTasks;
+        double budgetUsed; // labor cost from worklog salary snapshots
+        final Map<String, Count> statusCounts = new HashMap<>();
+        final Map<String, Sum> workerHours = new HashMap<>();
+
+        int totalTasks() {
+            return tasks.size();
+        }
+
+        /**
+         * The same aggregate ProjectStatsService maintains in projectStats/{projectId}.
+         */
+        ProjectStats toStats(String projectId) {
+            Map<String, Integer> counts = new HashMap<>();
+            statusCounts.forEach((status, c) -> counts.put(status, c.value));
+            Map<String, Double> hours = new HashMap<>();
+            workerHours.forEach((worker, s) -> hours.put(worker, s.value));
+            return new ProjectStats(projectId, totalTasks(), completedTasks, budgetUsed, counts, hours);
+        }
+    }
+
+    static final class UserGroup {
+        final List<WorkLog> worklogs = new ArrayList<>();
+        double hours;
+        double regularHours;
+        double overtimeHours;
+        double laborCost;
+        // payroll inputs, see FinanceService.calculatePayroll
+        double baseTimesRegularHours;           // sum of baseSalarySnapshot * regularHours
+        double overtimePayAtOtRate;             // sum of hourlyRateOTSnapshot * overtimeHours, logs with an OT rate
+        double baseTimesOvertimeHoursNoOtRate;  // sum of baseSalarySnapshot * overtimeHours, logs without one
+    }
+
+    static final class MonthGroup {
+        final List<WorkLog> worklogs = new ArrayList<>();
+        double hours;
+        double laborCost;
+        final Set<String> projectIds = new LinkedHashSet<>(); // in worklog order
+    }
+
+    static final class Count {
+        int value;
+    }
+
+    static final class Sum {
+        double value;
+    }
+
+    private final List<Task> tasks;
+    private final List<WorkLog> worklogs;
+    private final Map<String, ProjectGroup> projects = new HashMap<>();
+    private final Map<String, UserGroup> users = new HashMap<>();
+    private final Map<String, MonthGroup> months = new HashMap<>();
+
+    private WorkAggregation(List<Task> tasks, List<WorkLog> worklogs) {
+        this.tasks = tasks;
+        this.worklogs = worklogs;
+    }
+
+    static WorkAggregation of(Collection<Task> tasks, Collection<WorkLog> worklogs) {
+        WorkAggregation a = new WorkAggregation(new ArrayList<>(tasks.size()), new ArrayList<>(worklogs.size()));
+        for (Task t : tasks) {
+            if (t != null) a.addTask(t);
+        }
+        for (WorkLog w : worklogs) {
+            if (w != null) a.addWorkLog(w);
+        }
+        return a;
+    }
+
+    private void addTask(Task t) {
+        tasks.add(t);
+        if (t.getProjectId() == null) return;
+        ProjectGroup p = projects.computeIfAbsent(t.getProjectId(), k -> new ProjectGroup());
+        p.tasks.add(t);
+        if (ProjectStatsService.isCompleted(t)) p.completedTasks++;
+        p.statusCounts.computeIfAbsent(ProjectStatsService.statusKey(t), k -> new Count()).value++;
+    }
+
+    private void addWorkLog(WorkLog w) {
+        worklogs.add(w);
+        double hours = w.getHours() == null ? 0.0 : w.getHours();
+        double regular = w.getRegularHours() == null ? 0.0 : w.getRegularHours();
+        double overtime = w.getOvertimeHours() == null ? 0.0 : w.getOvertimeHours();
+        double base = w.getBaseSalarySnapshot() == null ? 0.0 : w.getBaseSalarySnapshot();
+        double cost = ProjectStatsService.laborCost(w);
+
+        if (w.getProjectId() != null) {
+            ProjectGroup p = projects.computeIfAbsent(w.getProjectId(), k -> new ProjectGroup());
+            p.worklogs.add(w);
+            p.budgetUsed += cost;
+            p.workerHours.computeIfAbsent(ProjectStatsService.workerKey(w), k -> new Sum()).value += hours;
+        }
+
+        if (w.getUserId() != null) {
+            UserGroup u = users.computeIfAbsent(w.getUserId(), k -> new UserGroup());
+            u.worklogs.add(w);
+            u.hours += hours;
+            u.regularHours += regular;
+            u.overtimeHours += overtime;
+            u.laborCost += cost;
+            u.baseTimesRegularHours += base * regular;
+            if (w.getHourlyRateOTSnapshot() != null) u.overtimePayAtOtRate += w.getHourlyRateOTSnapshot() * overtime;
+            else u.baseTimesOvertimeHoursNoOtRate += base * overtime;
+        }
+
+        if (w.getWorkDate() != null) {
+            MonthGroup m = months.computeIfAbsent(WorkLogService.monthKey(w.getWorkDate()), k -> new MonthGroup());
+            m.worklogs.add(w);
+            m.hours += hours;
+            m.laborCost += cost;
+            if (w.getProjectId() != null) m.projectIds.add(w.getProjectId());
+        }
+    }
+
+    List<Task> tasks() {
+        return Collections.unmodifiableList(tasks);
+    }
+
+    List<WorkLog> worklogs() {
+        return Collections.unmodifiableList(worklogs);
+    }
+
+    /**
+     * The group of a project; an empty group when it has no tasks or worklogs.
+     */
+    ProjectGroup project(String projectId) {
+        ProjectGroup p = projects.get(projectId);
+        return p != null ? p : new ProjectGroup();
+    }
+
+    UserGroup user(String userId) {
+        UserGroup u = users.get(userId);
+        return u != null ? u : new UserGroup();
+    }
+
+    /**
+     * @param monthKey yyyy-MM, see {@link WorkLogService#monthKey}
+     */
+    MonthGroup month(String monthKey) {
+        MonthGroup m = months.get(monthKey);
+        return m != null ? m : new MonthGroup();
+    }
+}
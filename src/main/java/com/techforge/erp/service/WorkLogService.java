@@ -1,26 +1,54 @@
 package com.techforge.erp.service;
 
 import com.google.firebase.database.*;
+import com.techforge.erp.firebase.FirebaseBatch;
+import com.techforge.erp.firebase.FirebaseMirror;
+import com.techforge.erp.firebase.FirebaseQueries;
+import com.techforge.erp.firebase.codec.Codecs;
+import com.techforge.erp.model.Page;
 import com.techforge.erp.model.User;
 import com.techforge.erp.model.WorkLog;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Service
 public class WorkLogService {
 
+    // Month-partitioned copy of every worklog: worklogsByMonth/{yyyy-MM}/{id}
+    public static final String BY_MONTH_NODE = "worklogsByMonth";
+
+    private static final DateTimeFormatter MONTH_KEY = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final DatabaseReference root;
     private final DatabaseReference worklogsRef;
+    private final DatabaseReference byMonthRef;
     private final UserService userService;
+    private final FirebaseMirror mirror;
+    private final ProjectStatsService projectStatsService;
+    // set once WorkLogMonthBackfill has filled worklogsByMonth; until then month reads use the mirror
+    private volatile boolean backfilled;
 
     @Autowired
-    public WorkLogService(UserService userService) {
-        DatabaseReference root = FirebaseDatabase.getInstance().getReference("LTUD10");
+    public WorkLogService(UserService userService, FirebaseMirror mirror, ProjectStatsService projectStatsService) {
+        this.root = FirebaseDatabase.getInstance().getReference("LTUD10");
         this.worklogsRef = root.child("worklogs");
+        this.byMonthRef = root.child(BY_MONTH_NODE);
         this.userService = userService;
+        this.mirror = mirror;
+        this.projectStatsService = projectStatsService;
     }
 
     public CompletableFuture<WorkLog> createWorkLog(WorkLog workLog) {
@@ -43,13 +71,13 @@ public class WorkLogService {
                 workLog.setHourlyRateOTSnapshot(ot);
 
                 try {
-                    String key = (workLog.getId() != null && !workLog.getId().isEmpty()) ? workLog.getId() : worklogsRef.push().getKey();
-                    if (key == null) {
-                        future.completeExceptionally(new IllegalStateException("Unable to generate key for worklog"));
-                        return;
-                    }
-                    workLog.setId(key);
-                    worklogsRef.child(key).setValueAsync(workLog).addListener(() -> future.complete(workLog), Runnable::run);
+                    // primary node and month bucket in one write
+                    FirebaseBatch batch = new FirebaseBatch(root);
+                    stageCreate(batch, workLog);
+                    batch.commit().thenRun(() -> future.complete(workLog)).exceptionally(ex -> {
+                        future.completeExceptionally(ex);
+                        return null;
+                    });
                 } catch (Exception e) {
                     future.completeExceptionally(e);
                 }
@@ -64,24 +92,46 @@ public class WorkLogService {
         return future;
     }
 
-    public CompletableFuture<WorkLog> getWorkLogById(String id) {
-        CompletableFuture<WorkLog> future = new CompletableFuture<>();
+    /**
+     * Create many worklogs in a single multi-path write.
+     * Each distinct user is resolved once to snapshot its salary; if any user is missing nothing is written.
+     */
+    public CompletableFuture<List<WorkLog>> createWorkLogs(List<WorkLog> workLogs) {
+        CompletableFuture<List<WorkLog>> future = new CompletableFuture<>();
         try {
-            worklogsRef.child(id).addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(DataSnapshot snapshot) {
-                    if (snapshot.exists()) {
-                        WorkLog w = snapshot.getValue(WorkLog.class);
-                        future.complete(w);
-                    } else {
-                        future.complete(null);
-                    }
+            List<WorkLog> entries = new ArrayList<>();
+            Set<String> userIds = new LinkedHashSet<>();
+            for (WorkLog w : workLogs) {
+                if (w == null) continue;
+                if (w.getUserId() == null || w.getUserId().isEmpty()) {
+                    future.completeExceptionally(new IllegalArgumentException("userId is required"));
+                    return future;
                 }
+                entries.add(w);
+                userIds.add(w.getUserId());
+            }
 
-                @Override
-                public void onCancelled(DatabaseError error) {
-                    future.completeExceptionally(new RuntimeException("Firebase cancelled: " + error.getMessage()));
+            // fetch each user once to snapshot salary
+            Map<String, CompletableFuture<User>> usersF = new HashMap<>();
+            for (String userId : userIds) {
+                usersF.put(userId, userService.getUserById(userId));
+            }
+
+            CompletableFuture.allOf(usersF.values().toArray(new CompletableFuture[0])).thenCompose(v -> {
+                FirebaseBatch batch = new FirebaseBatch(root);
+                for (WorkLog w : entries) {
+                    User user = usersF.get(w.getUserId()).join();
+                    if (user == null) {
+                        throw new IllegalStateException("User not found for id: " + w.getUserId());
+                    }
+                    w.setBaseSalarySnapshot(user.getBaseSalary());
+                    w.setHourlyRateOTSnapshot(user.getHourlyRateOT());
+                    stageCreate(batch, w);
                 }
+                return batch.commit();
+            }).thenRun(() -> future.complete(entries)).exceptionally(ex -> {
+                future.completeExceptionally(ex);
+                return null;
             });
         } catch (Exception e) {
             future.completeExceptionally(e);
@@ -89,31 +139,84 @@ public class WorkLogService {
         return future;
     }
 
+    public CompletableFuture<WorkLog> getWorkLogById(String id) {
+        return mirror.worklogs().get(id);
+    }
+
     public CompletableFuture<List<WorkLog>> getAllWorkLogs() {
-        CompletableFuture<List<WorkLog>> future = new CompletableFuture<>();
-        try {
-            worklogsRef.addListenerForSingleValueEvent(new ValueEventListener() {
-                @Override
-                public void onDataChange(DataSnapshot snapshot) {
-                    List<WorkLog> list = new ArrayList<>();
-                    if (snapshot.exists()) {
-                        for (DataSnapshot child : snapshot.getChildren()) {
-                            WorkLog w = child.getValue(WorkLog.class);
-                            if (w != null) list.add(w);
-                        }
-                    }
-                    future.complete(list);
-                }
+        return mirror.worklogs().values();
+    }
 
-                @Override
-                public void onCancelled(DatabaseError error) {
-                    future.completeExceptionally(new RuntimeException("Firebase cancelled: " + error.getMessage()));
-                }
-            });
-        } catch (Exception e) {
-            future.completeExceptionally(e);
+    /**
+     * Version of the worklogs data for ETags, or -1 while the mirror has not synced.
+     */
+    public long dataVersion() {
+        return mirror.worklogs().isSynced() ? mirror.worklogs().version() : -1;
+    }
+
+    /**
+     * Worklogs in key (creation) order after the given key (null for the first page).
+     */
+    public CompletableFuture<Page<WorkLog>> getWorkLogsPage(String afterKey, int limit) {
+        if (!mirror.worklogs().isReady()) return FirebaseQueries.fetchPage(worklogsRef, afterKey, limit, Codecs.WORKLOG::decode);
+        return mirror.worklogs().page(afterKey, limit);
+    }
+
+    // Filtered reads use the mirror indexes; until the mirror has synced they fall back to server-side queries
+
+    public CompletableFuture<List<WorkLog>> getWorkLogsByUserId(String userId) {
+        if (!mirror.worklogs().isReady()) return queryWorkLogsByUserId(userId);
+        return mirror.worklogs().findBy(FirebaseMirror.BY_USER, userId);
+    }
+
+    public CompletableFuture<List<WorkLog>> getWorkLogsByProjectId(String projectId) {
+        if (!mirror.worklogs().isReady()) return queryWorkLogsByProjectId(projectId);
+        return mirror.worklogs().findBy(FirebaseMirror.BY_PROJECT, projectId);
+    }
+
+    /**
+     * Worklogs of one calendar month, read from that month's bucket only once the buckets are backfilled.
+     * Until then (backfill running, failed or disabled) a bucket may be empty or partial, so the month is
+     * filtered from the synced worklogs mirror instead.
+     */
+    public CompletableFuture<List<WorkLog>> getWorkLogsForMonth(int month, int year) {
+        String key = monthKey(month, year);
+        if (!backfilled) {
+            return mirror.worklogs().synced()
+                    .thenCompose(v -> mirror.worklogs().values())
+                    .thenApply(all -> all.stream()
+                            .filter(w -> w.getWorkDate() != null && key.equals(monthKey(w.getWorkDate())))
+                            .collect(Collectors.toList()));
         }
-        return future;
+        return FirebaseQueries.fetchList(byMonthRef.child(key), Codecs.WORKLOG::decode);
+    }
+
+    /**
+     * Called once every worklog has been copied into its month bucket (or was on an earlier run).
+     */
+    public void markBackfilled() {
+        backfilled = true;
+    }
+
+    // Server-side queries (indexed in database.rules.json, see FirebaseIndexRules)
+
+    public CompletableFuture<List<WorkLog>> queryWorkLogsByUserId(String userId) {
+        return FirebaseQueries.fetchList(worklogsRef.orderByChild("userId").equalTo(userId), Codecs.WORKLOG::decode);
+    }
+
+    public CompletableFuture<List<WorkLog>> queryWorkLogsByProjectId(String projectId) {
+        return FirebaseQueries.fetchList(worklogsRef.orderByChild("projectId").equalTo(projectId), Codecs.WORKLOG::decode);
+    }
+
+    /**
+     * Worklogs whose workDate falls within [from, to] (inclusive).
+     * workDate is stored as a java.util.Date bean, so the range is applied to its "time" child.
+     */
+    public CompletableFuture<List<WorkLog>> queryWorkLogsByWorkDateRange(Date from, Date to) {
+        Query q = worklogsRef.orderByChild("workDate/time");
+        if (from != null) q = q.startAt(from.getTime());
+        if (to != null) q = q.endAt(to.getTime());
+        return FirebaseQueries.fetchList(q, Codecs.WORKLOG::decode);
     }
 
     public CompletableFuture<Void> updateWorkLog(WorkLog workLog) {
@@ -123,7 +226,18 @@ public class WorkLogService {
                 future.completeExceptionally(new IllegalArgumentException("WorkLog id is required for update"));
                 return future;
             }
-            worklogsRef.child(workLog.getId()).setValueAsync(workLog).addListener(() -> future.complete(null), Runnable::run);
+            // the previous version tells which month bucket the entry has to leave
+            mirror.worklogs().getSynced(workLog.getId()).thenCompose(previous -> {
+                FirebaseBatch batch = new FirebaseBatch(root);
+                if (previous != null) stageMonthBucketDelete(batch, previous);
+                batch.set("worklogs/" + workLog.getId(), Codecs.WORKLOG.encode(workLog));
+                stageMonthBucket(batch, workLog);
+                projectStatsService.stageWorkLogChange(batch, previous, workLog);
+                return batch.commit();
+            }).thenRun(() -> future.complete(null)).exceptionally(ex -> {
+                future.completeExceptionally(ex);
+                return null;
+            });
         } catch (Exception e) {
             future.completeExceptionally(e);
         }
@@ -133,11 +247,68 @@ public class WorkLogService {
     public CompletableFuture<Void> deleteWorkLog(String id) {
         CompletableFuture<Void> future = new CompletableFuture<>();
         try {
-            worklogsRef.child(id).removeValueAsync().addListener(() -> future.complete(null), Runnable::run);
+            mirror.worklogs().getSynced(id).thenCompose(previous -> {
+                FirebaseBatch batch = new FirebaseBatch(root);
+                batch.delete("worklogs/" + id);
+                if (previous != null) stageMonthBucketDelete(batch, previous);
+                projectStatsService.stageWorkLogChange(batch, previous, null);
+                return batch.commit();
+            }).thenRun(() -> future.complete(null)).exceptionally(ex -> {
+                future.completeExceptionally(ex);
+                return null;
+            });
         } catch (Exception e) {
             future.completeExceptionally(e);
         }
         return future;
     }
-}
 
+    /**
+     * Stage a new worklog into a batch, assigning its key. Salary snapshots must already be set.
+     */
+    public WorkLog stageCreate(FirebaseBatch batch, WorkLog workLog) {
+        String key = (workLog.getId() != null && !workLog.getId().isEmpty()) ? workLog.getId() : worklogsRef.push().getKey();
+        if (key == null) throw new IllegalStateException("Unable to generate key for worklog");
+        workLog.setId(key);
+        batch.set("worklogs/" + key, Codecs.WORKLOG.encode(workLog));
+        stageMonthBucket(batch, workLog);
+        projectStatsService.stageWorkLogChange(batch, null, workLog);
+        return workLog;
+    }
+
+    /**
+     * Stage a worklog delete. Project stats are not touched: this is used by the project cascade delete,
+     * which removes the whole projectStats node.
+     */
+    public void stageDelete(FirebaseBatch batch, WorkLog workLog) {
+        batch.delete("worklogs/" + workLog.getId());
+        stageMonthBucketDelete(batch, workLog);
+    }
+
+    /**
+     * Stage the month-bucket copy of a worklog. Worklogs without a workDate are not bucketed.
+     */
+    public void stageMonthBucket(FirebaseBatch batch, WorkLog workLog) {
+        if (workLog.getWorkDate() == null) return;
+        batch.set(BY_MONTH_NODE + "/" + monthKey(workLog.getWorkDate()) + "/" + workLog.getId(), Codecs.WORKLOG.encode(workLog));
+    }
+
+    /**
+     * Stage the removal of a worklog's month-bucket copy (the bucket of its workDate).
+     */
+    public void stageMonthBucketDelete(FirebaseBatch batch, WorkLog workLog) {
+        if (workLog.getWorkDate() == null) return;
+        batch.delete(BY_MONTH_NODE + "/" + monthKey(workLog.getWorkDate()) + "/" + workLog.getId());
+    }
+
+    /**
+     * Bucket key (yyyy-MM) of a work date, in the server time zone like the payroll month filter.
+     */
+    public static String monthKey(Date workDate) {
+        return MONTH_KEY.format(workDate.toInstant().atZone(ZoneId.systemDefault()));
+    }
+
+    public static String monthKey(int month, int year) {
+        return MONTH_KEY.format(YearMonth.of(year, month));
+    }
+}
@@ -0,0 +1,59 @@
+package com.techforge.erp.config;
+
+import com.techforge.erp.event.ChangeEventBus;
+import com.techforge.erp.event.UserChanged;
+import com.techforge.erp.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrincipalCacheTest {
+
+    private final ChangeEventBus eventBus = new ChangeEventBus(1, 16, 1_000);
+    private final PrincipalCache cache = new PrincipalCache(100, 60, eventBus);
+
+    @AfterEach
+    void tearDown() {
+        eventBus.shutdown();
+    }
+
+    @Test
+    void fetchedPrincipalIsCached() {
+        long generation = cache.generation("u1");
+        cache.put("u1", generation, user("u1", "EMPLOYEE"));
+
+        assertThat(cache.get("u1").getRole()).isEqualTo("EMPLOYEE");
+    }
+
+    @Test
+    void principalFetchedBeforeAUserChangeIsNotCached() throws Exception {
+        long generation = cache.generation("u1");
+        // the role changes while the fetch is in flight
+        eventBus.publish(new UserChanged("u1", user("u1", "EMPLOYEE"), user("u1", "CLIENT")));
+        awaitGenerationChange("u1", generation);
+
+        AuthPrincipal principal = cache.put("u1", generation, user("u1", "EMPLOYEE"));
+
+        assertThat(principal.getRole()).isEqualTo("EMPLOYEE");
+        assertThat(cache.get("u1")).isNull();
+    }
+
+    private void awaitGenerationChange(String id, long generation) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (cache.generation(id) == generation && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(cache.generation(id)).isNotEqualTo(generation);
+    }
+
+    private static User user(String id, String role) {
+        User u = new User();
+        u.setId(id);
+        u.setRole(role);
+        u.setEmail(id + "@example.com");
+        return u;
+    }
+}
@@ -0,0 +1,80 @@
+package com.techforge.erp.config;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoleInterceptorTest {
+
+    @ParameterizedTest(name = "{0} {1} {2} -> {3}")
+    @CsvSource({
+            // finance: ADMIN, FINANCE; MANAGER reads only
+            "ADMIN,    POST,   /api/v1/finance/payroll,          true",
+            "FINANCE,  POST,   /api/v1/finance/payroll,          true",
+            "MANAGER,  GET,    /api/v1/finance/payroll,          true",
+            "MANAGER,  POST,   /api/v1/finance/payroll,          false",
+            "EMPLOYEE, GET,    /api/v1/finance/payroll,          false",
+            "CLIENT,   GET,    /api/v1/finance/invoices,         false",
+            // ai: everyone but FINANCE and CLIENT
+            "EMPLOYEE, POST,   /api/v1/ai/chat,                  true",
+            "MANAGER,  POST,   /api/v1/ai/chat,                  true",
+            "FINANCE,  POST,   /api/v1/ai/chat,                  false",
+            "CLIENT,   POST,   /api/v1/ai/chat,                  false",
+            // users: ADMIN only
+            "ADMIN,    DELETE, /api/v1/users/u1,                 true",
+            "MANAGER,  GET,    /api/v1/users,                    false",
+            // projects: everyone reads, ADMIN and MANAGER write
+            "CLIENT,   GET,    /api/v1/projects,                 true",
+            "EMPLOYEE, GET,    /api/v1/projects/p1,              true",
+            "MANAGER,  PUT,    /api/v1/projects/p1,              true",
+            "EMPLOYEE, POST,   /api/v1/projects,                 false",
+            "FINANCE,  DELETE, /api/v1/projects/p1,              false",
+            // tasks: everyone reads; ADMIN, MANAGER, EMPLOYEE write; ADMIN, MANAGER delete
+            "CLIENT,   GET,    /api/v1/tasks,                    true",
+            "EMPLOYEE, PATCH,  /api/v1/tasks/t1,                 true",
+            "EMPLOYEE, POST,   /api/v1/tasks,                    true",
+            "CLIENT,   PUT,    /api/v1/tasks/t1,                 false",
+            "MANAGER,  DELETE, /api/v1/tasks/t1,                 true",
+            "EMPLOYEE, DELETE, /api/v1/tasks/t1,                 false",
+            // worklogs: ADMIN, MANAGER, EMPLOYEE
+            "EMPLOYEE, POST,   /api/v1/worklogs,                 true",
+            "FINANCE,  GET,    /api/v1/worklogs,                 false",
+            // system: ADMIN only
+            "ADMIN,    GET,    /api/v1/system/metrics,           true",
+            "MANAGER,  GET,    /api/v1/system/metrics,           false",
+            // report export: ADMIN, FINANCE, MANAGER
+            "FINANCE,  GET,    /api/v1/reports/export,           true",
+            "EMPLOYEE, GET,    /api/v1/reports/export,           false",
+            "CLIENT,   GET,    /api/v1/reports/export,           false",
+            // monthly report: ADMIN, FINANCE, MANAGER, GET only
+            "MANAGER,  GET,    /api/v1/reports/monthly,          true",
+            "ADMIN,    POST,   /api/v1/reports/monthly,          false",
+            "CLIENT,   GET,    /api/v1/reports/monthly,          false",
+            // other reports: staff read; CLIENT reads project dashboards; ADMIN, MANAGER rebuild
+            "FINANCE,  GET,    /api/v1/reports/workload,         true",
+            "CLIENT,   GET,    /api/v1/reports/project/p1,       true",
+            "CLIENT,   GET,    /api/v1/reports/portfolio,        true",
+            "CLIENT,   GET,    /api/v1/reports/progress,         true",
+            "CLIENT,   GET,    /api/v1/reports/activities,       true",
+            "CLIENT,   GET,    /api/v1/reports/workload,         false",
+            "EMPLOYEE, GET,    /api/v1/reports/portfolio,        false",
+            "MANAGER,  POST,   /api/v1/reports/project/p1/rebuild, true",
+            "FINANCE,  POST,   /api/v1/reports/project/p1/rebuild, false",
+            // unknown api paths are denied, anything else passes
+            "ADMIN,    GET,    /api/v1/unknown,                  false",
+            "CLIENT,   GET,    /index.html,                      true",
+            // method and role match case-insensitively
+            "admin,    get,    /api/v1/system/metrics,           true",
+            "MANAGER,  get,    /api/v1/finance/payroll,          true",
+            // a user without a role only gets the role-free rules
+            "        , GET,    /api/v1/projects,                 true",
+            "        , GET,    /api/v1/tasks,                    true",
+            "        , POST,   /api/v1/worklogs,                 false"
+    })
+    void isAllowed(String role, String method, String path, boolean allowed) {
+        AuthPrincipal principal = new AuthPrincipal("u1", role, "u1@example.com");
+
+        assertThat(RoleInterceptor.isAllowed(principal, method, path)).isEqualTo(allowed);
+    }
+}
@@ -0,0 +1,121 @@
+package com.techforge.erp.firebase;
+
+import com.techforge.erp.model.Page;
+import com.techforge.erp.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CollectionMirrorTest {
+
+    private static final String BY_PROJECT = FirebaseMirror.BY_PROJECT;
+
+    // no DatabaseReference or codec: the tests drive apply/remove/completeSync and never start the listeners
+    private final CollectionMirror<Task> mirror = new CollectionMirror<Task>("tasks", null, null)
+            .addIndex(BY_PROJECT, Task::getProjectId);
+    private final List<String> changes = new ArrayList<>();
+
+    CollectionMirrorTest() {
+        mirror.onChange((key, previous, current) ->
+                changes.add(key + ":" + (previous == null ? "-" : previous.getTitle())
+                        + ">" + (current == null ? "-" : current.getTitle())));
+    }
+
+    @Test
+    void indexFollowsRecordsAcrossProjects() {
+        mirror.apply("t1", task("t1", "p1", "a"));
+        mirror.apply("t2", task("t2", "p1", "b"));
+        mirror.completeSync(key -> true);
+        assertThat(ids(mirror.findBy(BY_PROJECT, "p1").join())).containsExactly("t1", "t2");
+
+        mirror.apply("t1", task("t1", "p2", "a"));
+        assertThat(ids(mirror.findBy(BY_PROJECT, "p1").join())).containsExactly("t2");
+        assertThat(ids(mirror.findBy(BY_PROJECT, "p2").join())).containsExactly("t1");
+
+        mirror.apply("t2", task("t2", null, "b"));
+        mirror.remove("t1");
+        assertThat(mirror.findBy(BY_PROJECT, "p1").join()).isEmpty();
+        assertThat(mirror.findBy(BY_PROJECT, "p2").join()).isEmpty();
+        assertThat(mirror.entries()).containsOnlyKeys("t2");
+    }
+
+    @Test
+    void unknownIndexFails() {
+        mirror.completeSync(key -> true);
+
+        assertThat(mirror.findBy("nope", "x")).isCompletedExceptionally();
+    }
+
+    @Test
+    void pagesWalkTheRecordsInKeyOrder() {
+        for (String key : new String[]{"e", "b", "d", "a", "c"}) {
+            mirror.apply(key, task(key, "p1", key));
+        }
+        mirror.completeSync(key -> true);
+
+        Page<Task> first = mirror.page(null, 2).join();
+        assertThat(ids(first.getItems())).containsExactly("a", "b");
+        assertThat(first.getTotal()).isEqualTo(5);
+        assertThat(Pagination.decodeCursor(first.getNextCursor())).isEqualTo("b");
+
+        Page<Task> second = mirror.page(Pagination.decodeCursor(first.getNextCursor()), 2).join();
+        assertThat(ids(second.getItems())).containsExactly("c", "d");
+
+        Page<Task> last = mirror.page(Pagination.decodeCursor(second.getNextCursor()), 2).join();
+        assertThat(ids(last.getItems())).containsExactly("e");
+        assertThat(last.getNextCursor()).isNull();
+
+        // a page that ends exactly on the last record has no next cursor
+        Page<Task> exact = mirror.page("c", 2).join();
+        assertThat(ids(exact.getItems())).containsExactly("d", "e");
+        assertThat(exact.getNextCursor()).isNull();
+
+        // the cursor key itself may be gone by the time the next page is read
+        mirror.remove("b");
+        assertThat(ids(mirror.page("b", 2).join().getItems())).containsExactly("c", "d");
+    }
+
+    @Test
+    void preloadedRecordsAreReconciledWithTheLiveData() {
+        Map<String, Task> snapshot = new LinkedHashMap<>();
+        snapshot.put("t1", task("t1", "p1", "same"));
+        snapshot.put("t2", task("t2", "p1", "old"));
+        snapshot.put("t3", task("t3", "p2", "deleted"));
+        mirror.preload(snapshot);
+
+        assertThat(mirror.isReady()).isTrue();
+        assertThat(mirror.isSynced()).isFalse();
+        assertThat(ids(mirror.findBy(BY_PROJECT, "p2").join())).containsExactly("t3");
+        long preloaded = mirror.version();
+
+        // the initial sync re-delivers t1 unchanged and t2 changed; t3 was deleted meanwhile
+        mirror.apply("t1", task("t1", "p1", "same"));
+        assertThat(mirror.version()).isEqualTo(preloaded);
+        mirror.apply("t2", task("t2", "p2", "new"));
+        mirror.completeSync(key -> !key.equals("t3"));
+
+        assertThat(mirror.isSynced()).isTrue();
+        assertThat(changes).containsExactly("t2:old>new", "t3:deleted>-");
+        assertThat(mirror.entries()).containsOnlyKeys("t1", "t2");
+        assertThat(ids(mirror.findBy(BY_PROJECT, "p2").join())).containsExactly("t2");
+        assertThat(mirror.getSynced("t2").join().getTitle()).isEqualTo("new");
+        assertThat(mirror.version()).isEqualTo(preloaded + 2);
+    }
+
+    private static Task task(String id, String projectId, String title) {
+        Task t = new Task();
+        t.setId(id);
+        t.setProjectId(projectId);
+        t.setTitle(title);
+        return t;
+    }
+
+    private static List<String> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+}
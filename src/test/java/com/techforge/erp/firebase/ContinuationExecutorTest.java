@@ -0,0 +1,58 @@
+package com.techforge.erp.firebase;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContinuationExecutorTest {
+
+    @Test
+    void saturatedPoolRunsOverflowOffTheSubmittingThread() throws Exception {
+        ContinuationExecutor executor = new ContinuationExecutor(ContinuationExecutor.MODE_PLATFORM, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.execute(() -> await(release)); // occupies the only thread
+            executor.execute(() -> await(release)); // fills the queue
+
+            AtomicReference<Thread> ranOn = new AtomicReference<>();
+            CountDownLatch ran = new CountDownLatch(1);
+            executor.execute(() -> {
+                ranOn.set(Thread.currentThread());
+                ran.countDown();
+            });
+
+            assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(ranOn.get()).isNotSameAs(Thread.currentThread());
+            assertThat(executor.metrics().get("overflowRuns")).isEqualTo(1L);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void executeAfterShutdownIsRejectedAndNotCountedAsQueued() {
+        for (String mode : new String[]{ContinuationExecutor.MODE_PLATFORM, ContinuationExecutor.MODE_VIRTUAL}) {
+            ContinuationExecutor executor = new ContinuationExecutor(mode, 1, 1);
+            executor.shutdown();
+
+            assertThatThrownBy(() -> executor.execute(() -> { }))
+                    .isInstanceOf(RejectedExecutionException.class);
+            assertThat(executor.getQueueDepth()).isZero();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.techforge.erp.firebase;
+
+import com.google.firebase.database.ServerValue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class FirebaseBatchTest {
+
+    // never committed: only the update map is checked
+    private final FirebaseBatch batch = new FirebaseBatch(null);
+
+    @Test
+    void setsAndDeletesKeepTheirOrderAndLastWriteWins() {
+        batch.set("tasks/t1", Map.of("title", "a"))
+                .delete("worklogsByMonth/2024-01/w1")
+                .set("worklogsByMonth/2024-02/w1", Map.of("hours", 8L))
+                .set("tasks/t1", Map.of("title", "b"));
+
+        assertThat(batch.getUpdates()).containsExactly(
+                entry("tasks/t1", Map.of("title", "b")),
+                entry("worklogsByMonth/2024-01/w1", null),
+                entry("worklogsByMonth/2024-02/w1", Map.of("hours", 8L)));
+        assertThat(batch.size()).isEqualTo(3);
+    }
+
+    @Test
+    void incrementsToOnePathAreMerged() {
+        batch.increment("projectStats/p1/totalTasks", 1)
+                .increment("projectStats/p1/totalTasks", 1)
+                .increment("projectStats/p1/hoursByUser/u1", 1.5)
+                .increment("projectStats/p1/hoursByUser/u1", 0.25)
+                .increment("projectStats/p1/laborCost", 0.5)
+                .increment("projectStats/p1/laborCost", 0.5);
+
+        assertThat(batch.getUpdates()).containsExactly(
+                entry("projectStats/p1/totalTasks", ServerValue.increment(2L)),
+                entry("projectStats/p1/hoursByUser/u1", ServerValue.increment(1.75)),
+                // whole sums are sent as integer increments
+                entry("projectStats/p1/laborCost", ServerValue.increment(1L)));
+    }
+
+    @Test
+    void incrementsThatCancelOutAreNotSent() {
+        batch.increment("projectStats/p1/statusCounts/TODO", -1)
+                .increment("projectStats/p1/statusCounts/TODO", 1);
+
+        assertThat(batch.getUpdates()).isEmpty();
+        assertThat(batch.isEmpty()).isTrue();
+        assertThat(batch.commit()).isCompleted();
+    }
+
+    @Test
+    void setOnAPathOverridesItsIncrements() {
+        batch.increment("projectStats/p1/totalTasks", 3)
+                .set("projectStats/p1/totalTasks", 10L)
+                .increment("projectStats/p1/completedTasks", 1);
+
+        assertThat(batch.getUpdates()).containsExactly(
+                entry("projectStats/p1/totalTasks", 10L),
+                entry("projectStats/p1/completedTasks", ServerValue.increment(1L)));
+    }
+}
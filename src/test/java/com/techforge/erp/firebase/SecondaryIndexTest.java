@@ -0,0 +1,57 @@
+package com.techforge.erp.firebase;
+
+import com.techforge.erp.model.Task;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SecondaryIndexTest {
+
+    private final SecondaryIndex<Task> index = new SecondaryIndex<>("projectId", Task::getProjectId);
+
+    @Test
+    void idsAreKeptInKeyOrderPerValue() {
+        index.update("t3", null, task("p1"));
+        index.update("t1", null, task("p1"));
+        index.update("t2", null, task("p2"));
+
+        assertThat(index.ids("p1")).containsExactly("t1", "t3");
+        assertThat(index.ids("p2")).containsExactly("t2");
+        assertThat(index.ids("p3")).isEmpty();
+        assertThat(index.ids(null)).isEmpty();
+    }
+
+    @Test
+    void changedValueMovesTheIdAndDropsEmptyBuckets() {
+        index.update("t1", null, task("p1"));
+        index.update("t1", task("p1"), task("p2"));
+
+        assertThat(index.ids("p1")).isEmpty();
+        assertThat(index.ids("p2")).containsExactly("t1");
+
+        // unchanged value: no-op
+        index.update("t1", task("p2"), task("p2"));
+        assertThat(index.ids("p2")).containsExactly("t1");
+
+        index.update("t1", task("p2"), null);
+        assertThat(index.ids("p2")).isEmpty();
+    }
+
+    @Test
+    void recordsWithoutAValueAreNotIndexed() {
+        index.update("t1", null, task(null));
+        assertThat(index.keyOf(task(null))).isNull();
+
+        index.update("t1", task(null), task("p1"));
+        assertThat(index.ids("p1")).containsExactly("t1");
+
+        index.update("t1", task("p1"), task(null));
+        assertThat(index.ids("p1")).isEmpty();
+    }
+
+    private static Task task(String projectId) {
+        Task t = new Task();
+        t.setProjectId(projectId);
+        return t;
+    }
+}
@@ -0,0 +1,172 @@
+package com.techforge.erp.firebase.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.techforge.erp.model.Task;
+import com.techforge.erp.model.WorkLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decode cost per 10k records: the explicit codecs against reflective bean mapping (Jackson convertValue,
+ * the same kind of mapping snapshot.getValue(Class) did before) of the same Firebase-shaped field maps.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.techforge.erp.firebase.codec.CodecDecodeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecDecodeBenchmark {
+
+    private static final int RECORDS = 10_000;
+    private static final String[] STATUSES = {"TODO", "IN_PROGRESS", "DONE"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH"};
+
+    private List<String> keys;
+    private List<Map<String, Object>> worklogFields;
+    private List<Map<String, Object>> taskFields;
+    private ObjectMapper beanMapper;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        keys = new ArrayList<>(RECORDS);
+        worklogFields = new ArrayList<>(RECORDS);
+        taskFields = new ArrayList<>(RECORDS);
+        for (int i = 0; i < RECORDS; i++) {
+            String key = "-Nx" + i;
+            keys.add(key);
+
+            // whole numbers arrive as Long, like Firebase delivers them
+            Map<String, Object> w = new HashMap<>();
+            w.put("id", key);
+            w.put("taskId", "t" + random.nextInt(5_000));
+            w.put("userId", "u" + random.nextInt(300));
+            w.put("projectId", "p" + random.nextInt(200));
+            long regular = 1 + random.nextInt(8);
+            w.put("regularHours", regular);
+            w.put("overtimeHours", 0.5 * random.nextInt(5));
+            w.put("hours", regular + 0.5 * random.nextInt(5));
+            w.put("workDate", firebaseDate(1_700_000_000_000L + random.nextInt(1_000_000) * 60_000L));
+            w.put("description", "Worked on item " + i);
+            w.put("baseSalarySnapshot", (long) (3000 + random.nextInt(3000)));
+            w.put("hourlyRateOTSnapshot", 30.0 + random.nextInt(30) / 2.0);
+            worklogFields.add(w);
+
+            Map<String, Object> t = new HashMap<>();
+            t.put("id", key);
+            t.put("projectId", "p" + random.nextInt(200));
+            t.put("assignedUserId", "u" + random.nextInt(300));
+            t.put("assigneeEmail", "user" + random.nextInt(300) + "@example.com");
+            t.put("title", "Task " + i);
+            t.put("description", "Description of task " + i);
+            t.put("priority", PRIORITIES[random.nextInt(PRIORITIES.length)]);
+            t.put("status", STATUSES[random.nextInt(STATUSES.length)]);
+            t.put("estimatedHours", (long) (1 + random.nextInt(40)));
+            taskFields.add(t);
+        }
+
+        SimpleModule dates = new SimpleModule().addDeserializer(Date.class, new FirebaseDateDeserializer());
+        beanMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .registerModule(dates);
+    }
+
+    /**
+     * java.util.Date the way Firebase stores it: the Date bean's getters as a map.
+     */
+    private static Map<String, Object> firebaseDate(long millis) {
+        ZonedDateTime d = Instant.ofEpochMilli(millis).atZone(ZoneOffset.UTC);
+        Map<String, Object> m = new HashMap<>();
+        m.put("time", millis);
+        m.put("timezoneOffset", 0L);
+        m.put("year", (long) (d.getYear() - 1900));
+        m.put("month", (long) (d.getMonthValue() - 1));
+        m.put("date", (long) d.getDayOfMonth());
+        return m;
+    }
+
+    @Benchmark
+    public void worklogCodec(Blackhole bh) {
+        for (int i = 0; i < RECORDS; i++) {
+            bh.consume(Codecs.WORKLOG.decode(keys.get(i), worklogFields.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void worklogBeanMapping(Blackhole bh) {
+        for (int i = 0; i < RECORDS; i++) {
+            WorkLog w = beanMapper.convertValue(worklogFields.get(i), WorkLog.class);
+            w.setId(keys.get(i));
+            bh.consume(w);
+        }
+    }
+
+    @Benchmark
+    public void taskCodec(Blackhole bh) {
+        for (int i = 0; i < RECORDS; i++) {
+            bh.consume(Codecs.TASK.decode(keys.get(i), taskFields.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void taskBeanMapping(Blackhole bh) {
+        for (int i = 0; i < RECORDS; i++) {
+            Task t = beanMapper.convertValue(taskFields.get(i), Task.class);
+            t.setId(keys.get(i));
+            bh.consume(t);
+        }
+    }
+
+    /**
+     * Reads the "time" child of a Firebase Date map (or plain epoch millis), as the codecs do.
+     */
+    private static final class FirebaseDateDeserializer extends JsonDeserializer<Date> {
+        @Override
+        public Date deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonNode node = p.readValueAsTree();
+            if (node.isNumber()) return new Date(node.asLong());
+            JsonNode time = node.get("time");
+            return time != null && time.isNumber() ? new Date(time.asLong()) : null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CodecDecodeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,154 @@
+package com.techforge.erp.service;
+
+import com.sun.net.httpserver.HttpServer;
+import com.techforge.erp.model.Task;
+import com.techforge.erp.model.User;
+import com.techforge.erp.model.ai.AISuggestion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * AIService against a local stub of the Gemini endpoint: single-flight, caching, and that failed
+ * or malformed answers are not cached.
+ */
+class AIServiceTest {
+
+    private static final String ANSWER = "```json\n{\"userId\":\"u1\",\"reason\":\"most hours\",\"confidenceScore\":0.9}\n```";
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private final AtomicInteger hits = new AtomicInteger();
+    // answers by hit number (1-based); the last one repeats
+    private volatile List<StubAnswer> answers = List.of(new StubAnswer(200, ANSWER));
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private final CountDownLatch firstHit = new CountDownLatch(1);
+
+    private AIService aiService;
+
+    private record StubAnswer(int status, String body) {
+    }
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/gemini", exchange -> {
+            int hit = hits.incrementAndGet();
+            firstHit.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<StubAnswer> current = answers;
+            StubAnswer answer = current.get(Math.min(hit, current.size()) - 1);
+            byte[] body = answer.body().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(answer.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.start();
+
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/gemini";
+        aiService = new AIService(10, 600, url, "");
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalRequestsShareOneUpstreamCall() throws Exception {
+        release = new CountDownLatch(1);
+
+        List<CompletableFuture<AISuggestion>> calls = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            calls.add(aiService.suggestAssignee(task(), users()));
+        }
+        assertThat(firstHit.await(10, TimeUnit.SECONDS)).isTrue();
+        // give the other callers time to join the call in flight
+        Thread.sleep(300);
+        release.countDown();
+
+        for (CompletableFuture<AISuggestion> call : calls) {
+            assertThat(call.get(10, TimeUnit.SECONDS).getUserId()).isEqualTo("u1");
+        }
+        assertThat(hits.get()).isEqualTo(1);
+    }
+
+    @Test
+    void repeatedRequestIsServedFromCache() throws Exception {
+        AISuggestion first = aiService.suggestAssignee(task(), users()).get(10, TimeUnit.SECONDS);
+        AISuggestion second = aiService.suggestAssignee(task(), users()).get(10, TimeUnit.SECONDS);
+
+        assertThat(first.getUserId()).isEqualTo("u1");
+        assertThat(second.getUserId()).isEqualTo("u1");
+        assertThat(second).isNotSameAs(first);
+        assertThat(hits.get()).isEqualTo(1);
+        assertThat(aiService.cacheStats().get("hits")).isEqualTo(1L);
+    }
+
+    @Test
+    void failedCallIsNotCached() throws Exception {
+        answers = List.of(new StubAnswer(500, "{\"error\":\"unavailable\"}"), new StubAnswer(200, ANSWER));
+
+        assertThatThrownBy(() -> aiService.suggestAssignee(task(), users()).get(10, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(RuntimeException.class);
+        AISuggestion retry = aiService.suggestAssignee(task(), users()).get(10, TimeUnit.SECONDS);
+
+        assertThat(retry.getUserId()).isEqualTo("u1");
+        assertThat(hits.get()).isEqualTo(2);
+    }
+
+    @Test
+    void malformedAnswerIsNotCached() throws Exception {
+        answers = List.of(new StubAnswer(200, "Sorry, I cannot help with that."), new StubAnswer(200, ANSWER));
+
+        assertThatThrownBy(() -> aiService.suggestAssignee(task(), users()).get(10, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(RuntimeException.class);
+        AISuggestion retry = aiService.suggestAssignee(task(), users()).get(10, TimeUnit.SECONDS);
+
+        assertThat(retry.getUserId()).isEqualTo("u1");
+        assertThat(hits.get()).isEqualTo(2);
+    }
+
+    private static Task task() {
+        Task task = new Task();
+        task.setId("t1");
+        task.setTitle("Setup Database");
+        task.setPriority("HIGH");
+        task.setStatus("TODO");
+        return task;
+    }
+
+    private static List<User> users() {
+        User user = new User();
+        user.setId("u1");
+        user.setFullName("Test Employee");
+        user.setRole("EMPLOYEE");
+        user.setEmail("employee@example.com");
+        return List.of(user);
+    }
+}
@@ -0,0 +1,46 @@
+package com.techforge.erp.service;
+
+import com.techforge.erp.model.ProjectStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectStatsServiceTest {
+
+    private static ProjectStats stats(int total, int completed, double budget,
+                                      Map<String, Integer> counts, Map<String, Double> hours) {
+        return new ProjectStats("p1", total, completed, budget, counts, hours);
+    }
+
+    @Test
+    void storedCountersWithLeftoverZeroEntriesMatch() {
+        ProjectStats expected = stats(2, 1, 150.0, Map.of("DONE", 1, "TODO", 1), Map.of("u1", 6.0));
+        ProjectStats stored = stats(2, 1, 150.0 + 1e-9, Map.of("DONE", 1, "TODO", 1, "IN_PROGRESS", 0),
+                Map.of("u1", 6.0, "u2", 0.0));
+
+        assertThat(ProjectStatsService.sameCounters(expected, stored)).isTrue();
+    }
+
+    @Test
+    void driftedCountersDoNotMatch() {
+        ProjectStats expected = stats(2, 1, 150.0, Map.of("DONE", 1, "TODO", 1), Map.of("u1", 6.0));
+
+        assertThat(ProjectStatsService.sameCounters(expected,
+                stats(3, 1, 150.0, Map.of("DONE", 1, "TODO", 2), Map.of("u1", 6.0)))).isFalse();
+        assertThat(ProjectStatsService.sameCounters(expected,
+                stats(2, 1, 150.0, Map.of("DONE", 1, "TODO", 1), Map.of("u1", 12.0)))).isFalse();
+        assertThat(ProjectStatsService.sameCounters(expected,
+                stats(2, 1, 300.0, Map.of("DONE", 1, "TODO", 1), Map.of("u1", 6.0)))).isFalse();
+    }
+
+    @Test
+    void missingAggregateMatchesOnlyAnEmptyProject() {
+        ProjectStats empty = stats(0, 0, 0.0, Map.of(), Map.of());
+        ProjectStats withTask = stats(1, 0, 0.0, Map.of("TODO", 1), Map.of());
+
+        assertThat(ProjectStatsService.sameCounters(empty, null)).isTrue();
+        assertThat(ProjectStatsService.sameCounters(withTask, null)).isFalse();
+    }
+}
@@ -0,0 +1,131 @@
+package com.techforge.erp.service;
+
+import com.techforge.erp.model.Task;
+import com.techforge.erp.model.WorkLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * WorkAggregation over 100k worklogs: the global aggregation (portfolio, all progress) against the
+ * per-project and per-month slices the single-project and monthly reports compute from.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.techforge.erp.service.WorkAggregationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkAggregationBenchmark {
+
+    private static final int WORKLOGS = 100_000;
+    private static final int TASKS = 5_000;
+    private static final int PROJECTS = 200;
+    private static final int USERS = 300;
+    private static final String[] STATUSES = {"TODO", "IN_PROGRESS", "DONE"};
+
+    private List<Task> tasks;
+    private List<WorkLog> worklogs;
+    private List<Task> projectTasks;
+    private List<WorkLog> projectWorklogs;
+    private List<WorkLog> monthWorklogs;
+    private String projectId;
+    private String monthKey;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            Task t = new Task();
+            t.setId("t" + i);
+            t.setProjectId("p" + random.nextInt(PROJECTS));
+            t.setStatus(STATUSES[random.nextInt(STATUSES.length)]);
+            tasks.add(t);
+        }
+
+        Calendar cal = Calendar.getInstance();
+        worklogs = new ArrayList<>(WORKLOGS);
+        for (int i = 0; i < WORKLOGS; i++) {
+            Task task = tasks.get(random.nextInt(TASKS));
+            cal.set(2024 + random.nextInt(2), random.nextInt(12), 1 + random.nextInt(28));
+            double regular = 1 + random.nextInt(8);
+            double overtime = random.nextInt(3);
+
+            WorkLog w = new WorkLog();
+            w.setId("w" + i);
+            w.setTaskId(task.getId());
+            w.setProjectId(task.getProjectId());
+            w.setUserId("u" + random.nextInt(USERS));
+            w.setRegularHours(regular);
+            w.setOvertimeHours(overtime);
+            w.setHours(regular + overtime);
+            w.setWorkDate(new Date(cal.getTimeInMillis()));
+            w.setBaseSalarySnapshot(3000.0 + random.nextInt(3000));
+            if (random.nextBoolean()) w.setHourlyRateOTSnapshot(30.0 + random.nextInt(30));
+            worklogs.add(w);
+        }
+
+        // what the mirror indexes and the worklogsByMonth bucket hand the sliced reports
+        projectId = "p7";
+        monthKey = WorkLogService.monthKey(6, 2024);
+        projectTasks = tasks.stream().filter(t -> projectId.equals(t.getProjectId())).collect(Collectors.toList());
+        projectWorklogs = worklogs.stream().filter(w -> projectId.equals(w.getProjectId())).collect(Collectors.toList());
+        monthWorklogs = worklogs.stream()
+                .filter(w -> monthKey.equals(WorkLogService.monthKey(w.getWorkDate())))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Object globalAggregation() {
+        return WorkAggregation.of(tasks, worklogs);
+    }
+
+    @Benchmark
+    public Object projectFromGlobalAggregation() {
+        return WorkAggregation.of(tasks, worklogs).project(projectId);
+    }
+
+    @Benchmark
+    public Object projectSlice() {
+        return WorkAggregation.of(projectTasks, projectWorklogs).project(projectId);
+    }
+
+    @Benchmark
+    public Object monthFromGlobalAggregation() {
+        return WorkAggregation.of(tasks, worklogs).month(monthKey);
+    }
+
+    @Benchmark
+    public Object monthSlice() {
+        return WorkAggregation.of(Collections.emptyList(), monthWorklogs).month(monthKey);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WorkAggregationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}